@@ -77,6 +77,7 @@ public class DataInitializer implements CommandLineRunner {
             // Main Admin
             User admin = new User();
             admin.setEmail("admin@example.com");
+            admin.setUsername("admin");
             admin.setDisplayName("System Administrator");
             admin.setRole(User.UserRole.MAIN_ADMIN);
             userRepository.save(admin);
@@ -84,6 +85,7 @@ public class DataInitializer implements CommandLineRunner {
             // Platform Admin
             User platformAdmin = new User();
             platformAdmin.setEmail("platform@example.com");
+            platformAdmin.setUsername("platform_admin");
             platformAdmin.setDisplayName("Platform Administrator");
             platformAdmin.setRole(User.UserRole.PLATFORM_ADMIN);
             userRepository.save(platformAdmin);
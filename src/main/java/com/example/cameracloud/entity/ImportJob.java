@@ -3,6 +3,8 @@ package com.example.cameracloud.entity;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 
+import java.time.OffsetDateTime;
+
 @Entity
 @Table(name = "import_jobs")
 public class ImportJob extends BaseEntity {
@@ -28,6 +30,18 @@ public class ImportJob extends BaseEntity {
     @Column(nullable = false)
     private ImportJobStatus status = ImportJobStatus.QUEUED;
     
+    @Column(name = "spool_path", length = 1024)
+    private String spoolPath;
+    
+    @Column(name = "committed_row")
+    private Integer committedRow;
+    
+    @Column(name = "owner_node")
+    private String ownerNode;
+    
+    @Column(name = "lease_renewed_at")
+    private OffsetDateTime leaseRenewedAt;
+    
     public ImportJob() {}
     
     public ImportJob(User uploaderUser, String fileName) {
@@ -84,6 +98,51 @@ public class ImportJob extends BaseEntity {
         this.status = status;
     }
     
+    /**
+     * Local copy of the uploaded file, kept until the job finishes so it can be resumed.
+     */
+    public String getSpoolPath() {
+        return spoolPath;
+    }
+    
+    public void setSpoolPath(String spoolPath) {
+        this.spoolPath = spoolPath;
+    }
+    
+    /**
+     * File row number up to which the import is committed; a resumed job skips these rows.
+     */
+    public Integer getCommittedRow() {
+        return committedRow;
+    }
+    
+    public void setCommittedRow(Integer committedRow) {
+        this.committedRow = committedRow;
+    }
+    
+    /**
+     * Node whose spool holds the file and which runs the job.
+     */
+    public String getOwnerNode() {
+        return ownerNode;
+    }
+    
+    public void setOwnerNode(String ownerNode) {
+        this.ownerNode = ownerNode;
+    }
+    
+    /**
+     * Last time the owner confirmed it is alive; other nodes may take the job over once this is
+     * older than {@code app.import.lease-seconds}.
+     */
+    public OffsetDateTime getLeaseRenewedAt() {
+        return leaseRenewedAt;
+    }
+    
+    public void setLeaseRenewedAt(OffsetDateTime leaseRenewedAt) {
+        this.leaseRenewedAt = leaseRenewedAt;
+    }
+    
     public enum ImportJobStatus {
         QUEUED, PROCESSING, DONE, FAILED
     }
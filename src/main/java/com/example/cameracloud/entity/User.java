@@ -17,6 +17,13 @@ public class User extends BaseEntity {
     @Column(unique = true, nullable = false)
     private String email;
     
+    /**
+     * Login name of the account, i.e. the name Spring Security authenticates the user as.
+     */
+    @Size(max = 100)
+    @Column(unique = true)
+    private String username;
+    
     @Size(max = 100)
     @Column(name = "display_name")
     private String displayName;
@@ -50,6 +57,14 @@ public class User extends BaseEntity {
         this.email = email;
     }
     
+    public String getUsername() {
+        return username;
+    }
+    
+    public void setUsername(String username) {
+        this.username = username;
+    }
+    
     public String getDisplayName() {
         return displayName;
     }
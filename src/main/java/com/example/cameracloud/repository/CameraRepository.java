@@ -1,14 +1,21 @@
 package com.example.cameracloud.repository;
 
 import com.example.cameracloud.entity.Camera;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface CameraRepository extends JpaRepository<Camera, UUID> {
@@ -17,6 +24,26 @@ public interface CameraRepository extends JpaRepository<Camera, UUID> {
     
     boolean existsByPublicId(String publicId);
     
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT c.publicId FROM Camera c")
+    Stream<String> streamAllPublicIds();
+    
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT c.publicId FROM Camera c WHERE c.createdAt > :since")
+    Stream<String> streamPublicIdsCreatedAfter(@Param("since") OffsetDateTime since);
+    
+    /**
+     * Streams cameras for export in {@code public_id} order, with their platform fetched in the same
+     * query. Must be consumed inside a transaction so PostgreSQL can use a server-side cursor.
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT c FROM Camera c LEFT JOIN FETCH c.targetPlatform " +
+           "WHERE (:platformCode IS NULL OR c.targetPlatformCode = :platformCode) ORDER BY c.publicId")
+    Stream<Camera> streamForExport(@Param("platformCode") String platformCode);
+    
     @Query("SELECT c FROM Camera c WHERE " +
            "(:platformCode IS NULL OR c.targetPlatformCode = :platformCode) AND " +
            "(:status IS NULL OR c.status = :status) AND " +
@@ -30,6 +57,90 @@ public interface CameraRepository extends JpaRepository<Camera, UUID> {
         @Param("search") String search
     );
     
+    /**
+     * One keyset page of {@link #findWithFilters}: cameras after {@code afterPublicId} in
+     * {@code public_id} order, so each page is an index range scan however deep it is. A non-null
+     * {@code search} matches case-insensitively, with its LIKE wildcards escaped by {@code \}.
+     */
+    @Query("SELECT c FROM Camera c LEFT JOIN FETCH c.targetPlatform WHERE " +
+           "(:platformCode IS NULL OR c.targetPlatformCode = :platformCode) AND " +
+           "(:status IS NULL OR c.status = :status) AND " +
+           "(:redirectEnabled IS NULL OR c.redirectEnabled = :redirectEnabled) AND " +
+           "(:search IS NULL OR LOWER(c.publicId) LIKE LOWER(CONCAT('%', :search, '%')) ESCAPE '\\' " +
+           "OR LOWER(c.model) LIKE LOWER(CONCAT('%', :search, '%')) ESCAPE '\\') AND " +
+           "(:afterPublicId IS NULL OR c.publicId > :afterPublicId) AND " +
+           "c.isTestDevice = false ORDER BY c.publicId")
+    List<Camera> findPageWithFilters(
+        @Param("platformCode") String platformCode,
+        @Param("status") Camera.CameraStatus status,
+        @Param("redirectEnabled") Boolean redirectEnabled,
+        @Param("search") String search,
+        @Param("afterPublicId") String afterPublicId,
+        Limit limit
+    );
+    
+    /**
+     * Case-insensitive substring search on PostgreSQL, served by the {@code pg_trgm} GIN indexes
+     * on {@code public_id} and {@code model}. {@code pattern} is an ILIKE pattern such as
+     * {@code %term%}, with wildcards in the term escaped.
+     */
+    @Query(nativeQuery = true, value = "SELECT c.* FROM cameras c WHERE " +
+           "(c.public_id ILIKE :pattern OR c.model ILIKE :pattern) AND " +
+           "(CAST(:platformCode AS VARCHAR) IS NULL OR c.target_platform_code = :platformCode) AND " +
+           "(CAST(:status AS VARCHAR) IS NULL OR c.status = :status) AND " +
+           "(CAST(:redirectEnabled AS BOOLEAN) IS NULL OR c.redirect_enabled = :redirectEnabled) AND " +
+           "(CAST(:afterPublicId AS VARCHAR) IS NULL OR c.public_id > :afterPublicId) AND " +
+           "c.is_test_device = false ORDER BY c.public_id LIMIT :limit")
+    List<Camera> searchTrigram(
+        @Param("pattern") String pattern,
+        @Param("platformCode") String platformCode,
+        @Param("status") String status,
+        @Param("redirectEnabled") Boolean redirectEnabled,
+        @Param("afterPublicId") String afterPublicId,
+        @Param("limit") int limit
+    );
+    
+    @Query("SELECT c FROM Camera c LEFT JOIN FETCH c.targetPlatform WHERE c.publicId IN :publicIds AND " +
+           "(:platformCode IS NULL OR c.targetPlatformCode = :platformCode) AND " +
+           "(:status IS NULL OR c.status = :status) AND " +
+           "(:redirectEnabled IS NULL OR c.redirectEnabled = :redirectEnabled) AND " +
+           "c.isTestDevice = false")
+    List<Camera> findByPublicIdsWithFilters(
+        @Param("publicIds") Collection<String> publicIds,
+        @Param("platformCode") String platformCode,
+        @Param("status") Camera.CameraStatus status,
+        @Param("redirectEnabled") Boolean redirectEnabled
+    );
+    
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT c.publicId AS publicId, c.model AS model FROM Camera c WHERE c.isTestDevice = false")
+    Stream<SearchEntry> streamSearchEntries();
+    
+    @Query("SELECT COUNT(c) FROM Camera c WHERE " +
+           "(:platformCode IS NULL OR c.targetPlatformCode = :platformCode) AND " +
+           "(:status IS NULL OR c.status = :status) AND " +
+           "(:redirectEnabled IS NULL OR c.redirectEnabled = :redirectEnabled) AND " +
+           "(:search IS NULL OR c.publicId LIKE %:search% OR c.model LIKE %:search%) AND " +
+           "c.isTestDevice = false")
+    long countWithFilters(
+        @Param("platformCode") String platformCode,
+        @Param("status") Camera.CameraStatus status,
+        @Param("redirectEnabled") Boolean redirectEnabled,
+        @Param("search") String search
+    );
+    
+    /**
+     * Non-test camera counts per platform and status in one pass; cameras without a platform are
+     * counted under a {@code null} platform code.
+     */
+    @Query("SELECT c.targetPlatformCode AS platformCode, c.status AS status, COUNT(c) AS cameras FROM Camera c " +
+           "WHERE c.isTestDevice = false GROUP BY c.targetPlatformCode, c.status")
+    List<StatusCount> countByPlatformAndStatus();
+    
+    @Query("SELECT c.publicId AS publicId, c.targetPlatformCode AS targetPlatformCode FROM Camera c " +
+           "WHERE c.status = :status AND c.isTestDevice = false ORDER BY c.updatedAt DESC")
+    List<RecentCamera> findRecentlyUpdated(@Param("status") Camera.CameraStatus status, Limit limit);
+    
     @Query("SELECT c FROM Camera c WHERE c.targetPlatformCode = :platformCode AND c.isTestDevice = true")
     List<Camera> findTestDevicesByPlatform(@Param("platformCode") String platformCode);
     
@@ -39,4 +150,20 @@ public interface CameraRepository extends JpaRepository<Camera, UUID> {
     List<Camera> findByTargetPlatformCode(String platformCode);
     
     List<Camera> findByTargetPlatformCodeIn(List<String> platformCodes);
+    
+    interface SearchEntry {
+        String getPublicId();
+        String getModel();
+    }
+    
+    interface StatusCount {
+        String getPlatformCode();
+        Camera.CameraStatus getStatus();
+        long getCameras();
+    }
+    
+    interface RecentCamera {
+        String getPublicId();
+        String getTargetPlatformCode();
+    }
 }
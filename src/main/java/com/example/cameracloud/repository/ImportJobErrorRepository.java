@@ -2,6 +2,7 @@ package com.example.cameracloud.repository;
 
 import com.example.cameracloud.entity.ImportJob;
 import com.example.cameracloud.entity.ImportJobError;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -9,7 +10,14 @@ import java.util.List;
 import java.util.UUID;
 
 @Repository
-public interface ImportJobErrorRepository extends JpaRepository<ImportJobError, UUID> {
+public interface ImportJobErrorRepository extends JpaRepository<ImportJobError, Long> {
     
     List<ImportJobError> findByJob(ImportJob job);
+    
+    /**
+     * Keyset page of a job's errors: those with an id above {@code afterId}, in id order.
+     */
+    List<ImportJobError> findByJobIdAndIdGreaterThanOrderByIdAsc(UUID jobId, Long afterId, Limit limit);
+    
+    long countByJobId(UUID jobId);
 }
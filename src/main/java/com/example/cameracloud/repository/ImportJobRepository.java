@@ -2,10 +2,95 @@ package com.example.cameracloud.repository;
 
 import com.example.cameracloud.entity.ImportJob;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
 import java.util.UUID;
 
 @Repository
 public interface ImportJobRepository extends JpaRepository<ImportJob, UUID> {
+    
+    List<ImportJob> findByStatusIn(Collection<ImportJob.ImportJobStatus> statuses);
+    
+    @Query("SELECT j.id AS id, j.uploaderUser.id AS uploaderId, j.spoolPath AS spoolPath FROM ImportJob j " +
+           "WHERE j.status = :status AND j.ownerNode = :ownerNode ORDER BY j.createdAt")
+    List<QueuedJob> findJobSummariesByStatus(@Param("status") ImportJob.ImportJobStatus status,
+                                             @Param("ownerNode") String ownerNode);
+    
+    /**
+     * Queued jobs owned by {@code ownerNode}, oldest first.
+     */
+    default List<QueuedJob> findQueuedJobs(String ownerNode) {
+        return findJobSummariesByStatus(ImportJob.ImportJobStatus.QUEUED, ownerNode);
+    }
+    
+    @Transactional
+    @Modifying
+    @Query("UPDATE ImportJob j SET j.leaseRenewedAt = :now WHERE j.ownerNode = :ownerNode AND j.status IN :statuses")
+    int renewLeases(@Param("ownerNode") String ownerNode,
+                    @Param("now") OffsetDateTime now,
+                    @Param("statuses") Collection<ImportJob.ImportJobStatus> statuses);
+    
+    /**
+     * Extends the lease of every unfinished job owned by {@code ownerNode}.
+     */
+    default int renewLeases(String ownerNode, OffsetDateTime now) {
+        return renewLeases(ownerNode, now, EnumSet.of(ImportJob.ImportJobStatus.QUEUED, ImportJob.ImportJobStatus.PROCESSING));
+    }
+    
+    /**
+     * Makes {@code ownerNode} the owner of a job whose lease was last renewed before
+     * {@code expiredBefore}. Returns 0 if the owner renewed it or another node took it over first.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE ImportJob j SET j.ownerNode = :ownerNode, j.leaseRenewedAt = :now " +
+           "WHERE j.id = :id AND (j.leaseRenewedAt IS NULL OR j.leaseRenewedAt < :expiredBefore)")
+    int takeOver(@Param("id") UUID id,
+                 @Param("ownerNode") String ownerNode,
+                 @Param("now") OffsetDateTime now,
+                 @Param("expiredBefore") OffsetDateTime expiredBefore);
+    
+    @Transactional
+    @Modifying
+    @Query("UPDATE ImportJob j SET j.status = :to WHERE j.id = :id AND j.status = :from")
+    int updateStatus(@Param("id") UUID id,
+                     @Param("from") ImportJob.ImportJobStatus from,
+                     @Param("to") ImportJob.ImportJobStatus to);
+    
+    /**
+     * Moves a queued job to {@code PROCESSING}. Returns 0 if another worker has already taken it.
+     */
+    default int claim(UUID id) {
+        return updateStatus(id, ImportJob.ImportJobStatus.QUEUED, ImportJob.ImportJobStatus.PROCESSING);
+    }
+    
+    /**
+     * Records progress of a running job; called inside the transaction of the chunk it covers.
+     */
+    @Modifying
+    @Query("UPDATE ImportJob j SET j.committedRow = :committedRow, j.successRows = :successRows, " +
+           "j.failedRows = :failedRows WHERE j.id = :id")
+    int saveCheckpoint(@Param("id") UUID id,
+                       @Param("committedRow") int committedRow,
+                       @Param("successRows") int successRows,
+                       @Param("failedRows") int failedRows);
+    
+    @Transactional
+    @Modifying
+    @Query("UPDATE ImportJob j SET j.totalRows = :rowsRead WHERE j.id = :id")
+    int saveRowsRead(@Param("id") UUID id, @Param("rowsRead") int rowsRead);
+    
+    interface QueuedJob {
+        UUID getId();
+        UUID getUploaderId();
+        String getSpoolPath();
+    }
 }
@@ -1,5 +1,9 @@
 package com.example.cameracloud.rl;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 /**
  * Rate limiter interface for camera view requests.
  * Allows only the first successful request per camera_id within a rolling time window.
@@ -14,6 +18,21 @@ public interface CameraRateLimiter {
      */
     boolean tryAcquire(String cameraId);
     
+    /**
+     * Attempts to acquire a rate limit permit for each of the given camera IDs. Repeated IDs are
+     * checked once.
+     * 
+     * @param cameraIds the camera IDs to check rate limits for
+     * @return per camera ID, true if the request is allowed, in the iteration order of {@code cameraIds}
+     */
+    default Map<String, Boolean> tryAcquireAll(Collection<String> cameraIds) {
+        Map<String, Boolean> results = new LinkedHashMap<>();
+        for (String cameraId : cameraIds) {
+            results.computeIfAbsent(cameraId, this::tryAcquire);
+        }
+        return results;
+    }
+    
     /**
      * Gets the rate limit window duration in seconds.
      * 
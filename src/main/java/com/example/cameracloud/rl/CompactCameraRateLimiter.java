@@ -0,0 +1,175 @@
+package com.example.cameracloud.rl;
+
+import com.example.cameracloud.util.Hashing;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Single-node rate limiter backed by a fixed-size open-addressing table of 64-bit camera ID hashes
+ * and {@code long} timestamps: 16 bytes per slot regardless of ID length, allocated once up front.
+ *
+ * <p>The table is split into lock-striped segments probed linearly. Slots are never emptied; a slot
+ * whose window has ended is simply reused by the next camera that probes past it, so no cleanup
+ * thread is needed. Two IDs whose 64-bit hashes collide share a window.
+ *
+ * <p>When every slot within the probe limit holds a live window the request overflows and is
+ * handled according to {@link OverflowPolicy}.
+ */
+@Component
+@Profile("dev")
+@ConditionalOnProperty(name = "app.rate.store", havingValue = "compact")
+public class CompactCameraRateLimiter implements CameraRateLimiter {
+    
+    private static final Logger logger = LoggerFactory.getLogger(CompactCameraRateLimiter.class);
+    
+    static final int SEGMENT_BITS = 6;
+    static final int MAX_PROBES = 32;
+    private static final long EMPTY = 0L;
+    
+    private static final int ALLOWED = 0;
+    private static final int BLOCKED = 1;
+    private static final int OVERFLOW = 2;
+    
+    private final Segment[] segments;
+    private final int windowSeconds;
+    private final long windowNanos;
+    private final OverflowPolicy overflowPolicy;
+    private final Counter overflows;
+    private final long capacity;
+    private final LongSupplier nanoClock;
+    
+    @Autowired
+    public CompactCameraRateLimiter(@Value("${app.rate.window-seconds:60}") int windowSeconds,
+                                    @Value("${app.rate.compact.capacity:1048576}") long capacity,
+                                    @Value("${app.rate.compact.overflow-policy:ALLOW}") OverflowPolicy overflowPolicy,
+                                    MeterRegistry meterRegistry) {
+        this(windowSeconds, capacity, overflowPolicy, meterRegistry, System::nanoTime);
+    }
+    
+    CompactCameraRateLimiter(int windowSeconds, long capacity, OverflowPolicy overflowPolicy,
+                             MeterRegistry meterRegistry, LongSupplier nanoClock) {
+        this.windowSeconds = windowSeconds;
+        this.windowNanos = TimeUnit.SECONDS.toNanos(windowSeconds);
+        this.overflowPolicy = overflowPolicy;
+        this.nanoClock = nanoClock;
+        
+        int segmentCount = 1 << SEGMENT_BITS;
+        long requestedPerSegment = Math.max(MAX_PROBES, (capacity + segmentCount - 1) / segmentCount);
+        int slotsPerSegment = (int) Math.min(1 << 30, Long.highestOneBit(requestedPerSegment - 1) << 1);
+        this.segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment(slotsPerSegment);
+        }
+        this.capacity = (long) segmentCount * slotsPerSegment;
+        
+        this.overflows = Counter.builder("camera.rate.compact.overflows")
+            .description("Rate limit checks that found no free slot within the probe limit")
+            .register(meterRegistry);
+        Gauge.builder("camera.rate.compact.capacity", this, CompactCameraRateLimiter::getCapacity)
+            .description("Slots in the compact rate limit table")
+            .register(meterRegistry);
+        
+        logger.warn("Using compact in-memory rate limiter with {} slots ({} MB) - NOT suitable for production multi-instance deployments",
+            this.capacity, this.capacity * 2 * Long.BYTES / (1024 * 1024));
+    }
+    
+    @Override
+    public boolean tryAcquire(String cameraId) {
+        long hash = Hashing.hash64(cameraId);
+        long key = hash == EMPTY ? 1L : hash;
+        Segment segment = segments[(int) (hash >>> (Long.SIZE - SEGMENT_BITS))];
+        
+        int outcome;
+        synchronized (segment) {
+            outcome = segment.tryAcquire(key, nanoClock.getAsLong(), windowNanos);
+        }
+        
+        boolean allowed = outcome == ALLOWED;
+        if (outcome == OVERFLOW) {
+            overflows.increment();
+            allowed = overflowPolicy == OverflowPolicy.ALLOW;
+        }
+        
+        if (allowed) {
+            logger.info("Rate limit allow for camera_id={}", cameraId);
+        } else {
+            logger.info("Rate limit blocked for camera_id={}", cameraId);
+        }
+        return allowed;
+    }
+    
+    @Override
+    public int getWindowSeconds() {
+        return windowSeconds;
+    }
+    
+    public long getCapacity() {
+        return capacity;
+    }
+    
+    /**
+     * What to answer when a camera cannot be tracked because its probe range is full of live windows.
+     */
+    public enum OverflowPolicy {
+        /** Allow the request untracked, matching the fail-open behaviour of the Redis limiter. */
+        ALLOW,
+        /** Reject the request until windows in its probe range end. */
+        BLOCK
+    }
+    
+    private static final class Segment {
+        
+        private final long[] keys;
+        private final long[] stamps;
+        private final int mask;
+        
+        Segment(int slots) {
+            this.keys = new long[slots];
+            this.stamps = new long[slots];
+            this.mask = slots - 1;
+        }
+        
+        int tryAcquire(long key, long now, long windowNanos) {
+            int reusable = -1;
+            int slot = (int) key & mask;
+            for (int probe = 0; probe < MAX_PROBES; probe++, slot = (slot + 1) & mask) {
+                long slotKey = keys[slot];
+                if (slotKey == key) {
+                    if (now - stamps[slot] <= windowNanos) {
+                        return BLOCKED;
+                    }
+                    stamps[slot] = now;
+                    return ALLOWED;
+                }
+                if (slotKey == EMPTY) {
+                    // Slots are never emptied, so the key cannot appear further along
+                    if (reusable < 0) {
+                        reusable = slot;
+                    }
+                    break;
+                }
+                if (reusable < 0 && now - stamps[slot] > windowNanos) {
+                    reusable = slot;
+                }
+            }
+            
+            if (reusable < 0) {
+                return OVERFLOW;
+            }
+            keys[reusable] = key;
+            stamps[reusable] = now;
+            return ALLOWED;
+        }
+    }
+}
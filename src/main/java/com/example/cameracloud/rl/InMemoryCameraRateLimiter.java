@@ -1,50 +1,128 @@
 package com.example.cameracloud.rl;
 
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Component;
 
-import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
 
+/**
+ * Single-node rate limiter keeping the last allowed access per camera as a {@code System.nanoTime()}
+ * value. Requests for different cameras never contend; requests for the same camera race on one
+ * compare-and-set so exactly one of them wins each window.
+ *
+ * <p>Expired entries are reclaimed through a ring of expiry buckets, one per tick: every allowed
+ * request files its camera under the tick at which its window ends, and each tick only visits the
+ * entries filed under it. Memory is therefore reclaimed within one tick of the window ending, at a
+ * cost proportional to the number of windows that actually expire.
+ */
 @Component
 @Profile("dev")
+@ConditionalOnProperty(name = "app.rate.store", havingValue = "map", matchIfMissing = true)
 public class InMemoryCameraRateLimiter implements CameraRateLimiter {
     
     private static final Logger logger = LoggerFactory.getLogger(InMemoryCameraRateLimiter.class);
     
-    private final ConcurrentHashMap<String, Instant> rateLimitMap = new ConcurrentHashMap<>();
-    private final ScheduledExecutorService cleanupExecutor = Executors.newSingleThreadScheduledExecutor();
+    /** Marks an entry claimed by cleanup; it must be removed from the map before it is reused. */
+    private static final long EXPIRED = Long.MIN_VALUE;
+    
+    private final ConcurrentHashMap<String, AtomicLong> rateLimitMap = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService cleanupExecutor;
     private final int windowSeconds;
+    private final long windowNanos;
+    private final long tickNanos;
+    private final long originNanos;
+    private final LongSupplier nanoClock;
+    private final ConcurrentLinkedQueue<Expiry>[] expiryBuckets;
+    private long processedTick;
+    
+    @Autowired
+    public InMemoryCameraRateLimiter(@Value("${app.rate.window-seconds:60}") int windowSeconds,
+                                     @Value("${app.rate.expiry-tick-millis:1000}") long expiryTickMillis) {
+        this(windowSeconds, expiryTickMillis, System::nanoTime);
+        logger.warn("Using in-memory rate limiter - NOT suitable for production multi-instance deployments");
+    }
     
-    public InMemoryCameraRateLimiter(@Value("${app.rate.window-seconds:60}") int windowSeconds) {
+    /**
+     * A limiter for {@link RedisCameraRateLimiter} to fall back on while Redis is unavailable. Its
+     * owner must call {@link #shutdown()}.
+     */
+    static InMemoryCameraRateLimiter localFallback(int windowSeconds, long expiryTickMillis) {
+        return new InMemoryCameraRateLimiter(windowSeconds, expiryTickMillis, System::nanoTime);
+    }
+    
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    InMemoryCameraRateLimiter(int windowSeconds, long expiryTickMillis, LongSupplier nanoClock) {
         this.windowSeconds = windowSeconds;
+        this.windowNanos = TimeUnit.SECONDS.toNanos(windowSeconds);
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(expiryTickMillis);
+        this.nanoClock = nanoClock;
+        this.originNanos = nanoClock.getAsLong();
         
-        // Cleanup expired entries every minute
-        cleanupExecutor.scheduleAtFixedRate(this::cleanupExpiredEntries, 1, 1, TimeUnit.MINUTES);
+        // One bucket per tick of the window, plus slack so a due bucket is drained before it is reused
+        int bucketCount = (int) (windowNanos / tickNanos) + 2;
+        this.expiryBuckets = new ConcurrentLinkedQueue[bucketCount];
+        for (int i = 0; i < bucketCount; i++) {
+            expiryBuckets[i] = new ConcurrentLinkedQueue<>();
+        }
         
-        logger.warn("Using in-memory rate limiter - NOT suitable for production multi-instance deployments");
+        CustomizableThreadFactory cleanupThreads = new CustomizableThreadFactory("rate-limit-expiry-");
+        cleanupThreads.setDaemon(true);
+        this.cleanupExecutor = Executors.newSingleThreadScheduledExecutor(cleanupThreads);
+        cleanupExecutor.scheduleAtFixedRate(this::expireEntriesQuietly, expiryTickMillis, expiryTickMillis, TimeUnit.MILLISECONDS);
     }
     
     @Override
-    public synchronized boolean tryAcquire(String cameraId) {
-        Instant now = Instant.now();
-        Instant lastAccess = rateLimitMap.get(cameraId);
+    public boolean tryAcquire(String cameraId) {
+        long now = nanoClock.getAsLong();
         
-        if (lastAccess == null || now.isAfter(lastAccess.plusSeconds(windowSeconds))) {
-            // First request or window expired
-            rateLimitMap.put(cameraId, now);
-            logger.info("Rate limit allow for camera_id={}", cameraId);
-            return true;
-        } else {
-            // Within rate limit window
-            logger.info("Rate limit blocked for camera_id={}", cameraId);
-            return false;
+        while (true) {
+            AtomicLong lastAccess = rateLimitMap.get(cameraId);
+            if (lastAccess == null) {
+                AtomicLong created = new AtomicLong(now);
+                lastAccess = rateLimitMap.putIfAbsent(cameraId, created);
+                if (lastAccess == null) {
+                    // First request
+                    scheduleExpiry(cameraId, created, now);
+                    logger.info("Rate limit allow for camera_id={}", cameraId);
+                    return true;
+                }
+            }
+            
+            long last = lastAccess.get();
+            if (last == EXPIRED) {
+                // Cleanup claimed this entry; help remove it and start over
+                rateLimitMap.remove(cameraId, lastAccess);
+                continue;
+            }
+            
+            if (now - last <= windowNanos) {
+                // Within rate limit window
+                logger.info("Rate limit blocked for camera_id={}", cameraId);
+                return false;
+            }
+            
+            if (lastAccess.compareAndSet(last, now)) {
+                // Window expired and this request won the race for the new window
+                scheduleExpiry(cameraId, lastAccess, now);
+                logger.info("Rate limit allow for camera_id={}", cameraId);
+                return true;
+            }
+            // Another request updated the entry concurrently; re-read it
         }
     }
     
@@ -53,12 +131,78 @@ public class InMemoryCameraRateLimiter implements CameraRateLimiter {
         return windowSeconds;
     }
     
-    private void cleanupExpiredEntries() {
-        Instant cutoff = Instant.now().minusSeconds(windowSeconds);
-        rateLimitMap.entrySet().removeIf(entry -> entry.getValue().isBefore(cutoff));
+    /**
+     * Drains every expiry bucket whose tick has passed. Entries renewed since they were filed are
+     * dropped (the renewal filed its own entry); entries not yet due, which can only happen when
+     * draining fell a full ring behind, are filed again.
+     */
+    synchronized void expireEntries() {
+        long now = nanoClock.getAsLong();
+        long currentTick = tickOf(now);
+        List<Expiry> notDue = new ArrayList<>();
+        while (processedTick < currentTick) {
+            processedTick++;
+            ConcurrentLinkedQueue<Expiry> bucket = expiryBuckets[bucketIndex(processedTick)];
+            Expiry expiry;
+            while ((expiry = bucket.poll()) != null) {
+                if (!expire(expiry, now)) {
+                    notDue.add(expiry);
+                }
+            }
+        }
+        for (Expiry expiry : notDue) {
+            scheduleExpiry(expiry.cameraId(), expiry.lastAccess(), expiry.accessNanos());
+        }
     }
     
+    /**
+     * Returns false if the entry is still current but its window has not ended yet.
+     */
+    private boolean expire(Expiry expiry, long now) {
+        AtomicLong lastAccess = expiry.lastAccess();
+        long last = lastAccess.get();
+        if (last != expiry.accessNanos()) {
+            return true;
+        }
+        if (now - last <= windowNanos) {
+            return false;
+        }
+        if (lastAccess.compareAndSet(last, EXPIRED)) {
+            rateLimitMap.remove(expiry.cameraId(), lastAccess);
+        }
+        return true;
+    }
+    
+    private void scheduleExpiry(String cameraId, AtomicLong lastAccess, long accessNanos) {
+        // First tick that starts strictly after the window ends
+        long dueTick = tickOf(accessNanos + windowNanos) + 1;
+        expiryBuckets[bucketIndex(dueTick)].add(new Expiry(cameraId, lastAccess, accessNanos));
+    }
+    
+    private long tickOf(long nanos) {
+        return Math.floorDiv(nanos - originNanos, tickNanos);
+    }
+    
+    private int bucketIndex(long tick) {
+        return (int) Math.floorMod(tick, (long) expiryBuckets.length);
+    }
+    
+    private void expireEntriesQuietly() {
+        try {
+            expireEntries();
+        } catch (Exception e) {
+            logger.error("Failed to expire rate limit entries", e);
+        }
+    }
+    
+    int size() {
+        return rateLimitMap.size();
+    }
+    
+    @PreDestroy
     public void shutdown() {
         cleanupExecutor.shutdown();
     }
+    
+    private record Expiry(String cameraId, AtomicLong lastAccess, long accessNanos) {}
 }
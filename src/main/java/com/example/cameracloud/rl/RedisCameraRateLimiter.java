@@ -1,56 +1,273 @@
 package com.example.cameracloud.rl;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Profile;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.core.types.Expiration;
 import org.springframework.stereotype.Component;
 
-import java.time.Duration;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Cluster-wide rate limiter using one {@code SET NX EX} key per camera in Redis.
+ *
+ * <p>A single check runs {@code SET NX EX}, and {@code PTTL} if the key is taken, as one Lua script
+ * on the shared connection. Batches pipeline the same two commands per camera. A local near-cache
+ * remembers until when each camera is known to be blocked: after this node wins a window, and
+ * after a failed {@code SET NX} using the key's remaining TTL. Repeat requests
+ * inside that period are answered locally. The local deadline is measured from before the Redis
+ * call was sent, so it never outlasts the Redis key and cluster-wide semantics are preserved.
+ *
+ * <p>Redis calls go through a {@link RedisCircuitBreaker}. While Redis fails or is slow, requests
+ * are limited by an in-process {@link InMemoryCameraRateLimiter} instead of being let through, so
+ * each node still admits at most one view per camera and window.
+ */
 @Component
 @Profile("!dev")
 public class RedisCameraRateLimiter implements CameraRateLimiter {
     
     private static final Logger logger = LoggerFactory.getLogger(RedisCameraRateLimiter.class);
     private static final String RATE_LIMIT_KEY_PREFIX = "rate:view:";
+    private static final byte[] WINDOW_VALUE = "1".getBytes(StandardCharsets.UTF_8);
+    
+    /**
+     * Takes the window of {@code KEYS[1]} for {@code ARGV[1]} seconds. Returns 0 if this call took
+     * it, otherwise the milliseconds left on the window held by someone else (at least 1).
+     */
+    static final RedisScript<Long> ACQUIRE_WINDOW = RedisScript.of("""
+        if redis.call('SET', KEYS[1], '1', 'NX', 'EX', ARGV[1]) then
+            return 0
+        end
+        return math.max(redis.call('PTTL', KEYS[1]), 1)
+        """, Long.class);
     
     private final StringRedisTemplate redisTemplate;
     private final int windowSeconds;
+    private final long windowNanos;
+    private final Cache<String, Long> blockedUntil;
+    private final RedisCircuitBreaker circuitBreaker;
+    private final InMemoryCameraRateLimiter fallback;
+    private final Counter requests;
+    private final Counter redisRoundTrips;
+    private final Counter fallbackRequests;
     
     public RedisCameraRateLimiter(StringRedisTemplate redisTemplate,
-                                  @Value("${app.rate.window-seconds:60}") int windowSeconds) {
+                                  @Value("${app.rate.window-seconds:60}") int windowSeconds,
+                                  @Value("${app.rate.near-cache.maximum-size:100000}") long nearCacheMaximumSize,
+                                  @Value("${app.rate.expiry-tick-millis:1000}") long expiryTickMillis,
+                                  RedisCircuitBreaker circuitBreaker,
+                                  MeterRegistry meterRegistry) {
         this.redisTemplate = redisTemplate;
+        this.circuitBreaker = circuitBreaker;
+        this.fallback = InMemoryCameraRateLimiter.localFallback(windowSeconds, expiryTickMillis);
         this.windowSeconds = windowSeconds;
+        this.windowNanos = TimeUnit.SECONDS.toNanos(windowSeconds);
+        this.blockedUntil = Caffeine.newBuilder()
+            .maximumSize(nearCacheMaximumSize)
+            .expireAfter(new BlockedUntilExpiry())
+            .build();
+        
+        this.requests = Counter.builder("camera.rate.requests")
+            .description("Rate limit checks")
+            .register(meterRegistry);
+        this.redisRoundTrips = Counter.builder("camera.rate.redis.round.trips")
+            .description("Redis round trips made by rate limit checks")
+            .register(meterRegistry);
+        this.fallbackRequests = Counter.builder("camera.rate.fallback.requests")
+            .description("Rate limit checks answered by the in-process fallback while Redis was unavailable")
+            .register(meterRegistry);
+        Gauge.builder("camera.rate.redis.round.trips.saved.per.1k", this, RedisCameraRateLimiter::roundTripsSavedPer1k)
+            .description("Redis round trips avoided by the near-cache per 1000 rate limit checks")
+            .register(meterRegistry);
     }
     
     @Override
     public boolean tryAcquire(String cameraId) {
+        requests.increment();
+        
+        if (isBlockedLocally(cameraId)) {
+            logger.info("Rate limit blocked for camera_id={} (near-cache)", cameraId);
+            return false;
+        }
+        
+        if (!circuitBreaker.tryAcquirePermission()) {
+            return fallbackAcquire(cameraId);
+        }
+        
+        long startedAt = circuitBreaker.startCall();
+        Long remainingMillis;
+        long sentAt = System.nanoTime();
         try {
-            String key = RATE_LIMIT_KEY_PREFIX + cameraId;
-            Boolean success = redisTemplate.opsForValue()
-                .setIfAbsent(key, "1", Duration.ofSeconds(windowSeconds));
-            
-            boolean allowed = Boolean.TRUE.equals(success);
-            
-            if (allowed) {
-                logger.info("Rate limit allow for camera_id={}", cameraId);
-            } else {
-                logger.info("Rate limit blocked for camera_id={}", cameraId);
-            }
-            
-            return allowed;
-            
+            redisRoundTrips.increment();
+            remainingMillis = redisTemplate.execute(ACQUIRE_WINDOW,
+                List.of(RATE_LIMIT_KEY_PREFIX + cameraId), String.valueOf(windowSeconds));
+            circuitBreaker.onSuccess(startedAt);
         } catch (Exception e) {
+            circuitBreaker.onFailure(startedAt);
             logger.error("Redis rate limiter error for camera_id={}", cameraId, e);
-            // Fail open - allow request if Redis is unavailable
+            return fallbackAcquire(cameraId);
+        }
+        
+        if (remainingMillis != null && remainingMillis == 0) {
+            blockedUntil.put(cameraId, sentAt + windowNanos);
+            logger.info("Rate limit allow for camera_id={}", cameraId);
             return true;
         }
+        if (remainingMillis != null && remainingMillis > 0) {
+            blockedUntil.put(cameraId, sentAt + TimeUnit.MILLISECONDS.toNanos(remainingMillis));
+        }
+        logger.info("Rate limit blocked for camera_id={}", cameraId);
+        return false;
+    }
+    
+    /**
+     * Checks all cameras not answered by the near-cache in one pipelined round trip. Pipelining
+     * takes a dedicated connection, which pays off for a batch but not for a single check.
+     */
+    @Override
+    public Map<String, Boolean> tryAcquireAll(Collection<String> cameraIds) {
+        Map<String, Boolean> results = new LinkedHashMap<>();
+        List<String> pending = new ArrayList<>();
+        for (String cameraId : cameraIds) {
+            if (results.containsKey(cameraId)) {
+                continue;
+            }
+            requests.increment();
+            results.put(cameraId, Boolean.FALSE);
+            if (!isBlockedLocally(cameraId)) {
+                pending.add(cameraId);
+            }
+        }
+        if (pending.isEmpty()) {
+            return results;
+        }
+        
+        if (!circuitBreaker.tryAcquirePermission()) {
+            pending.forEach(cameraId -> results.put(cameraId, fallbackAcquire(cameraId)));
+            return results;
+        }
+        
+        long startedAt = circuitBreaker.startCall();
+        List<Object> replies;
+        long sentAt = System.nanoTime();
+        try {
+            replies = acquireWindows(pending);
+            circuitBreaker.onSuccess(startedAt);
+        } catch (Exception e) {
+            circuitBreaker.onFailure(startedAt);
+            logger.error("Redis rate limiter error for batch of {} camera_ids", pending.size(), e);
+            pending.forEach(cameraId -> results.put(cameraId, fallbackAcquire(cameraId)));
+            return results;
+        }
+        
+        int allowed = 0;
+        for (int i = 0; i < pending.size(); i++) {
+            if (applyReply(pending, replies, sentAt, i)) {
+                results.put(pending.get(i), Boolean.TRUE);
+                allowed++;
+            }
+        }
+        logger.info("Rate limit batch: checked={}, allowed={}", results.size(), allowed);
+        return results;
     }
     
     @Override
     public int getWindowSeconds() {
         return windowSeconds;
     }
+    
+    public double roundTripsSavedPer1k() {
+        double total = requests.count();
+        return total == 0 ? 0 : (total - redisRoundTrips.count()) * 1000 / total;
+    }
+    
+    private boolean isBlockedLocally(String cameraId) {
+        Long blockedUntilNanos = blockedUntil.getIfPresent(cameraId);
+        return blockedUntilNanos != null && System.nanoTime() - blockedUntilNanos < 0;
+    }
+    
+    /**
+     * Sends a {@code SET NX EX} followed by a {@code PTTL} of the same key for each camera, in one
+     * pipelined round trip, so a window held elsewhere is cached without a second round trip.
+     */
+    private List<Object> acquireWindows(List<String> cameraIds) {
+        redisRoundTrips.increment();
+        return redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            Expiration window = Expiration.seconds(windowSeconds);
+            for (String cameraId : cameraIds) {
+                byte[] key = (RATE_LIMIT_KEY_PREFIX + cameraId).getBytes(StandardCharsets.UTF_8);
+                connection.stringCommands().set(key, WINDOW_VALUE, window, RedisStringCommands.SetOption.SET_IF_ABSENT);
+                connection.keyCommands().pTtl(key);
+            }
+            return null;
+        });
+    }
+    
+    /**
+     * Records the outcome for the {@code i}-th camera of {@link #acquireWindows} in the near-cache
+     * and returns whether it won the window.
+     */
+    private boolean applyReply(List<String> cameraIds, List<Object> replies, long sentAt, int i) {
+        String cameraId = cameraIds.get(i);
+        if (Boolean.TRUE.equals(replies.get(2 * i))) {
+            blockedUntil.put(cameraId, sentAt + windowNanos);
+            return true;
+        }
+        if (replies.get(2 * i + 1) instanceof Long ttlMillis && ttlMillis > 0) {
+            blockedUntil.put(cameraId, sentAt + TimeUnit.MILLISECONDS.toNanos(ttlMillis));
+        }
+        return false;
+    }
+    
+    /**
+     * Limits on this node alone while Redis is unavailable rather than letting every request through.
+     */
+    private boolean fallbackAcquire(String cameraId) {
+        fallbackRequests.increment();
+        return fallback.tryAcquire(cameraId);
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        fallback.shutdown();
+    }
+    
+    /**
+     * Expires each near-cache entry exactly when its block ends.
+     */
+    private static final class BlockedUntilExpiry implements Expiry<String, Long> {
+        
+        @Override
+        public long expireAfterCreate(String cameraId, Long blockedUntilNanos, long currentTime) {
+            return Math.max(0, blockedUntilNanos - currentTime);
+        }
+        
+        @Override
+        public long expireAfterUpdate(String cameraId, Long blockedUntilNanos, long currentTime, long currentDuration) {
+            return expireAfterCreate(cameraId, blockedUntilNanos, currentTime);
+        }
+        
+        @Override
+        public long expireAfterRead(String cameraId, Long blockedUntilNanos, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
 }
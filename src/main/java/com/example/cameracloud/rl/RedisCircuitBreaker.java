@@ -0,0 +1,184 @@
+package com.example.cameracloud.rl;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Circuit breaker guarding the Redis calls made by {@link RedisCameraRateLimiter}.
+ *
+ * <p>Outcomes of the last {@code windowSize} calls are kept in a ring. Once at least
+ * {@code minimumCalls} have been recorded and the share of failed or slow calls reaches
+ * {@code failureRateThreshold} percent, the breaker opens and callers stop going to Redis for
+ * {@code openDuration}. It then lets {@code halfOpenProbes} calls through: if all of them succeed in
+ * time it closes again, otherwise it re-opens.
+ */
+@Component
+@Profile("!dev")
+public class RedisCircuitBreaker {
+    
+    private static final Logger logger = LoggerFactory.getLogger(RedisCircuitBreaker.class);
+    
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+    
+    private final int failureRateThreshold;
+    private final long slowCallNanos;
+    private final int minimumCalls;
+    private final long openNanos;
+    private final int halfOpenProbes;
+    private final LongSupplier nanoClock;
+    
+    private final boolean[] outcomes;
+    private final Map<State, Counter> transitions = new EnumMap<>(State.class);
+    
+    private volatile State state = State.CLOSED;
+    private int recorded;
+    private int position;
+    private int failures;
+    private long openedAt;
+    private int probesStarted;
+    private int probesSucceeded;
+    
+    @Autowired
+    public RedisCircuitBreaker(@Value("${app.rate.breaker.failure-rate-threshold:50}") int failureRateThreshold,
+                               @Value("${app.rate.breaker.slow-call-millis:100}") long slowCallMillis,
+                               @Value("${app.rate.breaker.window-size:50}") int windowSize,
+                               @Value("${app.rate.breaker.minimum-calls:10}") int minimumCalls,
+                               @Value("${app.rate.breaker.open-seconds:10}") long openSeconds,
+                               @Value("${app.rate.breaker.half-open-probes:3}") int halfOpenProbes,
+                               MeterRegistry meterRegistry) {
+        this(failureRateThreshold, slowCallMillis, windowSize, minimumCalls, TimeUnit.SECONDS.toMillis(openSeconds),
+            halfOpenProbes, meterRegistry, System::nanoTime);
+    }
+    
+    RedisCircuitBreaker(int failureRateThreshold, long slowCallMillis, int windowSize, int minimumCalls,
+                        long openMillis, int halfOpenProbes, MeterRegistry meterRegistry, LongSupplier nanoClock) {
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallNanos = TimeUnit.MILLISECONDS.toNanos(slowCallMillis);
+        this.outcomes = new boolean[windowSize];
+        this.minimumCalls = Math.min(minimumCalls, windowSize);
+        this.openNanos = TimeUnit.MILLISECONDS.toNanos(openMillis);
+        this.halfOpenProbes = halfOpenProbes;
+        this.nanoClock = nanoClock;
+        
+        Gauge.builder("camera.rate.redis.breaker.state", this, breaker -> breaker.getState().ordinal())
+            .description("Redis circuit breaker state (0 = closed, 1 = open, 2 = half-open)")
+            .register(meterRegistry);
+        for (State target : State.values()) {
+            transitions.put(target, Counter.builder("camera.rate.redis.breaker.transitions")
+                .description("Redis circuit breaker state transitions")
+                .tag("to", target.name().toLowerCase())
+                .register(meterRegistry));
+        }
+    }
+    
+    /**
+     * Returns whether the caller may go to Redis now. Every permitted call must be followed by
+     * exactly one {@link #onSuccess} or {@link #onFailure}.
+     */
+    public boolean tryAcquirePermission() {
+        if (state == State.CLOSED) {
+            return true;
+        }
+        synchronized (this) {
+            if (state == State.OPEN) {
+                if (nanoClock.getAsLong() - openedAt < openNanos) {
+                    return false;
+                }
+                transitionTo(State.HALF_OPEN);
+            }
+            if (state == State.HALF_OPEN) {
+                if (probesStarted >= halfOpenProbes) {
+                    return false;
+                }
+                probesStarted++;
+            }
+            return true;
+        }
+    }
+    
+    /**
+     * Returns the clock value to pass back with the outcome of a permitted call.
+     */
+    public long startCall() {
+        return nanoClock.getAsLong();
+    }
+    
+    public void onSuccess(long startedAt) {
+        record(nanoClock.getAsLong() - startedAt < slowCallNanos);
+    }
+    
+    public void onFailure(long startedAt) {
+        record(false);
+    }
+    
+    public State getState() {
+        return state;
+    }
+    
+    private synchronized void record(boolean success) {
+        switch (state) {
+            case CLOSED -> recordClosed(success);
+            case HALF_OPEN -> {
+                if (!success) {
+                    transitionTo(State.OPEN);
+                } else if (++probesSucceeded >= halfOpenProbes) {
+                    transitionTo(State.CLOSED);
+                }
+            }
+            case OPEN -> {
+                // Outcome of a call that started before the breaker opened
+            }
+        }
+    }
+    
+    private void recordClosed(boolean success) {
+        if (recorded == outcomes.length) {
+            if (!outcomes[position]) {
+                failures--;
+            }
+        } else {
+            recorded++;
+        }
+        outcomes[position] = success;
+        if (!success) {
+            failures++;
+        }
+        position = (position + 1) % outcomes.length;
+        
+        if (recorded >= minimumCalls && failures * 100 >= failureRateThreshold * recorded) {
+            transitionTo(State.OPEN);
+        }
+    }
+    
+    private void transitionTo(State target) {
+        logger.warn("Redis circuit breaker {} -> {}", state, target);
+        switch (target) {
+            case OPEN -> openedAt = nanoClock.getAsLong();
+            case HALF_OPEN -> {
+                probesStarted = 0;
+                probesSucceeded = 0;
+            }
+            case CLOSED -> {
+                recorded = 0;
+                position = 0;
+                failures = 0;
+            }
+        }
+        state = target;
+        transitions.get(target).increment();
+    }
+}
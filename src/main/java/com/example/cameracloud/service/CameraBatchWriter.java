@@ -0,0 +1,336 @@
+package com.example.cameracloud.service;
+
+import com.example.cameracloud.entity.Camera;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Writes imported cameras in chunks of {@code app.import.batch-size} rows, each chunk committed in
+ * its own transaction. This replaces a lookup and a save per row with a few round trips per chunk.
+ *
+ * <p>Each chunk first resolves which of its cameras exist with a single {@code public_id = ANY(?)}
+ * query. Rows for the same camera are folded in file order, so the last value given for a field
+ * wins. New cameras are written as one JDBC batch of upserts: {@code INSERT ... ON CONFLICT
+ * (public_id) DO UPDATE} on PostgreSQL, and the equivalent standard {@code MERGE} on H2, which the
+ * dev profile uses. The upsert keeps a camera created concurrently by another job safe. Existing
+ * cameras are compared with the stored values. Unchanged ones are skipped, and the rest are
+ * updated in one batch per set of changed columns.
+ *
+ * <p>A {@code null} model, platform or status leaves the stored value unchanged, as the row-by-row
+ * import did. If a chunk fails, its rows are retried one at a time so that only the offending rows
+ * are reported.
+ */
+@Component
+public class CameraBatchWriter {
+    
+    private static final Logger logger = LoggerFactory.getLogger(CameraBatchWriter.class);
+    
+    private static final String POSTGRES_UPSERT = """
+        INSERT INTO cameras (id, public_id, model, status, target_platform_code,
+                             redirect_enabled, is_test_device, created_at, updated_at)
+        VALUES (?, ?, ?, COALESCE(?, 'ACTIVE'), ?, TRUE, FALSE, ?, ?)
+        ON CONFLICT (public_id) DO UPDATE SET
+            model = COALESCE(EXCLUDED.model, cameras.model),
+            status = COALESCE(?, cameras.status),
+            target_platform_code = COALESCE(EXCLUDED.target_platform_code, cameras.target_platform_code),
+            updated_at = EXCLUDED.updated_at
+        """;
+    
+    private static final String STANDARD_MERGE = """
+        MERGE INTO cameras c
+        USING (VALUES (CAST(? AS UUID), CAST(? AS VARCHAR(128)), CAST(? AS VARCHAR(100)), CAST(? AS VARCHAR(20)),
+                       CAST(? AS VARCHAR(50)), CAST(? AS TIMESTAMP WITH TIME ZONE)))
+            AS s (id, public_id, model, status, target_platform_code, written_at)
+        ON c.public_id = s.public_id
+        WHEN MATCHED THEN UPDATE SET
+            model = COALESCE(s.model, c.model),
+            status = COALESCE(s.status, c.status),
+            target_platform_code = COALESCE(s.target_platform_code, c.target_platform_code),
+            updated_at = s.written_at
+        WHEN NOT MATCHED THEN INSERT (id, public_id, model, status, target_platform_code,
+                                      redirect_enabled, is_test_device, created_at, updated_at)
+            VALUES (s.id, s.public_id, s.model, COALESCE(s.status, 'ACTIVE'), s.target_platform_code,
+                    TRUE, FALSE, s.written_at, s.written_at)
+        """;
+    
+    private static final String SELECT_EXISTING =
+        "SELECT public_id, model, status, target_platform_code FROM cameras WHERE public_id = ANY(?)";
+    
+    private static final int MODEL = 1;
+    private static final int STATUS = 2;
+    private static final int PLATFORM = 4;
+    
+    /** UPDATE statements indexed by the bit set of changed columns. */
+    private static final String[] UPDATES = new String[8];
+    
+    static {
+        for (int columns = 1; columns < UPDATES.length; columns++) {
+            StringBuilder sql = new StringBuilder("UPDATE cameras SET ");
+            if ((columns & MODEL) != 0) sql.append("model = ?, ");
+            if ((columns & STATUS) != 0) sql.append("status = ?, ");
+            if ((columns & PLATFORM) != 0) sql.append("target_platform_code = ?, ");
+            UPDATES[columns] = sql.append("updated_at = ? WHERE public_id = ?").toString();
+        }
+    }
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate chunkTransaction;
+    private final CameraService cameraService;
+    private final int batchSize;
+    private volatile Boolean postgres;
+    
+    public CameraBatchWriter(JdbcTemplate jdbcTemplate,
+                             PlatformTransactionManager transactionManager,
+                             CameraService cameraService,
+                             @Value("${app.import.batch-size:1000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.chunkTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.cameraService = cameraService;
+        this.batchSize = batchSize;
+    }
+    
+    /**
+     * Starts a batch; rows that cannot be written are passed to {@code onFailure}.
+     */
+    public Batch begin(Consumer<RowFailure> onFailure) {
+        return begin(onFailure, (lastRowNumber, written) -> { });
+    }
+    
+    /**
+     * Starts a batch that calls {@code checkpoint} inside the transaction of every chunk it commits.
+     */
+    public Batch begin(Consumer<RowFailure> onFailure, Checkpoint checkpoint) {
+        return new Batch(onFailure, checkpoint);
+    }
+    
+    public int getBatchSize() {
+        return batchSize;
+    }
+    
+    /**
+     * Writes one chunk in its own transaction, running {@code beforeCommit} last inside it, and
+     * returns how many of its rows changed nothing.
+     */
+    private int writeChunk(List<CameraUpsert> rows, Runnable beforeCommit) {
+        Map<String, CameraUpsert> merged = new LinkedHashMap<>();
+        for (CameraUpsert row : rows) {
+            merged.merge(row.publicId(), row, CameraUpsert::overriddenBy);
+        }
+        
+        Integer unchanged = chunkTransaction.execute(status -> {
+            Map<String, StoredCamera> existing = findExisting(merged.keySet());
+            OffsetDateTime now = OffsetDateTime.now();
+            
+            List<CameraUpsert> inserts = new ArrayList<>();
+            Map<Integer, List<CameraUpsert>> updatesByColumns = new HashMap<>();
+            for (CameraUpsert row : merged.values()) {
+                StoredCamera stored = existing.get(row.publicId());
+                if (stored == null) {
+                    inserts.add(row);
+                } else {
+                    int columns = stored.changedColumns(row);
+                    if (columns != 0) {
+                        updatesByColumns.computeIfAbsent(columns, c -> new ArrayList<>()).add(row);
+                    }
+                }
+            }
+            
+            if (!inserts.isEmpty()) {
+                String sql = isPostgres() ? POSTGRES_UPSERT : STANDARD_MERGE;
+                jdbcTemplate.batchUpdate(sql, inserts, inserts.size(), (ps, row) -> bindUpsert(ps, row, now));
+            }
+            List<String> written = new ArrayList<>(inserts.size());
+            inserts.forEach(row -> written.add(row.publicId()));
+            updatesByColumns.forEach((columns, updates) -> {
+                jdbcTemplate.batchUpdate(UPDATES[columns], updates, updates.size(),
+                    (ps, row) -> bindUpdate(ps, columns, row, now));
+                updates.forEach(row -> written.add(row.publicId()));
+            });
+            
+            if (!written.isEmpty()) {
+                cameraService.onCamerasWritten(written);
+            }
+            beforeCommit.run();
+            return merged.size() - written.size();
+        });
+        return unchanged != null ? unchanged : 0;
+    }
+    
+    private Map<String, StoredCamera> findExisting(Collection<String> publicIds) {
+        Map<String, StoredCamera> existing = new HashMap<>();
+        jdbcTemplate.query(SELECT_EXISTING,
+            ps -> ps.setArray(1, ps.getConnection().createArrayOf("VARCHAR", publicIds.toArray())),
+            rs -> {
+                existing.put(rs.getString(1), new StoredCamera(rs.getString(2), rs.getString(3), rs.getString(4)));
+            });
+        return existing;
+    }
+    
+    private void bindUpdate(PreparedStatement ps, int columns, CameraUpsert row, OffsetDateTime now) throws SQLException {
+        int index = 1;
+        if ((columns & MODEL) != 0) ps.setString(index++, row.model());
+        if ((columns & STATUS) != 0) ps.setString(index++, row.status().name());
+        if ((columns & PLATFORM) != 0) ps.setString(index++, row.platformCode());
+        ps.setObject(index++, now);
+        ps.setString(index, row.publicId());
+    }
+    
+    private void bindUpsert(PreparedStatement ps, CameraUpsert row, OffsetDateTime now) throws SQLException {
+        String status = row.status() != null ? row.status().name() : null;
+        ps.setObject(1, UUID.randomUUID());
+        ps.setString(2, row.publicId());
+        ps.setString(3, row.model());
+        ps.setString(4, status);
+        ps.setString(5, row.platformCode());
+        ps.setObject(6, now);
+        if (isPostgres()) {
+            ps.setObject(7, now);
+            ps.setString(8, status);
+        }
+    }
+    
+    private boolean isPostgres() {
+        Boolean result = postgres;
+        if (result == null) {
+            result = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                "PostgreSQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName()));
+            postgres = result;
+        }
+        return result;
+    }
+    
+    /**
+     * Accumulates rows and writes them a chunk at a time. Closing the batch writes the last partial chunk.
+     */
+    public final class Batch implements AutoCloseable {
+        
+        private final Consumer<RowFailure> onFailure;
+        private final Checkpoint checkpoint;
+        private final List<CameraUpsert> chunk = new ArrayList<>(batchSize);
+        private int written;
+        private int unchanged;
+        
+        private Batch(Consumer<RowFailure> onFailure, Checkpoint checkpoint) {
+            this.onFailure = onFailure;
+            this.checkpoint = checkpoint;
+        }
+        
+        public void add(CameraUpsert row) {
+            chunk.add(row);
+            if (chunk.size() >= batchSize) {
+                flush();
+            }
+        }
+        
+        public void flush() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            int lastRowNumber = chunk.get(chunk.size() - 1).rowNumber();
+            try {
+                unchanged += writeChunk(chunk, () -> checkpoint.committed(lastRowNumber, written + chunk.size()));
+                written += chunk.size();
+            } catch (DataAccessException e) {
+                logger.warn("Batch write of {} cameras failed, retrying row by row: {}", chunk.size(), e.getMessage());
+                for (CameraUpsert row : chunk) {
+                    try {
+                        unchanged += writeChunk(List.of(row), () -> checkpoint.committed(row.rowNumber(), written + 1));
+                        written++;
+                    } catch (DataAccessException rowError) {
+                        onFailure.accept(new RowFailure(row, rowError.getMostSpecificCause().getMessage()));
+                    }
+                }
+            }
+            chunk.clear();
+        }
+        
+        /**
+         * Rows applied so far, including rows that matched the stored camera.
+         */
+        public int getWritten() {
+            return written;
+        }
+        
+        /**
+         * Distinct cameras skipped so far because the import did not change them.
+         */
+        public int getUnchanged() {
+            return unchanged;
+        }
+        
+        @Override
+        public void close() {
+            flush();
+        }
+    }
+    
+    /**
+     * Progress hook for resumable imports. It runs inside a chunk's transaction, so what it records
+     * commits or rolls back together with the chunk.
+     */
+    @FunctionalInterface
+    public interface Checkpoint {
+        
+        /**
+         * @param lastRowNumber file row number of the last row in the chunk. When a failed chunk is
+         *                      retried row by row, each row is its own chunk, so rows after it may
+         *                      already have been reported as failed.
+         * @param written rows applied by the batch so far, including this chunk
+         */
+        void committed(int lastRowNumber, int written);
+    }
+    
+    /**
+     * One validated import row. {@code null} fields are left unchanged on existing cameras.
+     */
+    public record CameraUpsert(int rowNumber, String publicId, String model, String platformCode,
+                               Camera.CameraStatus status) {
+        
+        /**
+         * Folds a later row for the same camera into this one; its non-null fields win.
+         */
+        CameraUpsert overriddenBy(CameraUpsert later) {
+            return new CameraUpsert(
+                later.rowNumber,
+                publicId,
+                later.model != null ? later.model : model,
+                later.platformCode != null ? later.platformCode : platformCode,
+                later.status != null ? later.status : status
+            );
+        }
+    }
+    
+    private record StoredCamera(String model, String status, String platformCode) {
+        
+        int changedColumns(CameraUpsert row) {
+            int columns = 0;
+            if (row.model() != null && !row.model().equals(model)) columns |= MODEL;
+            if (row.status() != null && !row.status().name().equals(status)) columns |= STATUS;
+            if (row.platformCode() != null && !row.platformCode().equals(platformCode)) columns |= PLATFORM;
+            return columns;
+        }
+    }
+    
+    public record RowFailure(CameraUpsert row, String message) {}
+}
@@ -0,0 +1,196 @@
+package com.example.cameracloud.service;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * PostgreSQL-only import path for very large files, selected with {@code app.import.mode=copy}.
+ *
+ * <p>Rows are streamed unvalidated with {@code COPY ... FROM STDIN} into an unlogged staging table
+ * created for the job. They are then validated set-wise in SQL, with the same rules and messages
+ * as the row-by-row path, and rejects are written to {@code import_job_errors}. Valid rows are merged
+ * into {@code cameras} with one {@code INSERT ... SELECT ... ON CONFLICT} statement. Rows for the same
+ * camera are folded so that the last non-blank value of each field wins. Blank fields keep the stored
+ * value, and unchanged cameras are not rewritten. Everything up to the merge is one transaction, so
+ * a failed job leaves {@code cameras} untouched.
+ */
+@Component
+public class CameraCopyImporter {
+    
+    private static final Logger logger = LoggerFactory.getLogger(CameraCopyImporter.class);
+    private static final int ID_PAGE_SIZE = 10_000;
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate jobTransaction;
+    private final CameraService cameraService;
+    private volatile Boolean supported;
+    
+    public CameraCopyImporter(JdbcTemplate jdbcTemplate,
+                              PlatformTransactionManager transactionManager,
+                              CameraService cameraService) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.jobTransaction = new TransactionTemplate(transactionManager);
+        this.jobTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.cameraService = cameraService;
+    }
+    
+    /**
+     * Reads the rows produced by {@code source} into a staging table and merges them for the given job.
+     */
+    public CopyResult importRows(UUID jobId, ImportRowSource source) {
+        String staging = "camera_import_" + jobId.toString().replace("-", "");
+        try {
+            CopyResult result = jobTransaction.execute(status -> {
+                jdbcTemplate.execute("CREATE UNLOGGED TABLE " + staging + " ("
+                    + "row_no INTEGER NOT NULL, public_id TEXT, model TEXT, platform_code TEXT, status TEXT, error TEXT)");
+                
+                int totalRows = jdbcTemplate.execute((ConnectionCallback<Integer>) connection -> copyRows(connection, staging, source));
+                int rejected = rejectInvalidRows(jobId, staging);
+                int written = jdbcTemplate.update(mergeSql(staging));
+                
+                return new CopyResult(totalRows, totalRows - rejected, written, rejected);
+            });
+            
+            publishWrittenIds(staging);
+            logger.info("COPY import {}: total={}, valid={}, written={}, rejected={}", jobId,
+                result.totalRows(), result.validRows(), result.writtenCameras(), result.rejectedRows());
+            return result;
+        } finally {
+            jdbcTemplate.execute("DROP TABLE IF EXISTS " + staging);
+        }
+    }
+    
+    /**
+     * Whether the configured database supports this import path.
+     */
+    public boolean isSupported() {
+        Boolean result = supported;
+        if (result == null) {
+            result = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                "PostgreSQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName()));
+            supported = result;
+        }
+        return result;
+    }
+    
+    private int copyRows(Connection connection, String staging, ImportRowSource source) throws SQLException {
+        CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+        String sql = "COPY " + staging + " (row_no, public_id, model, platform_code, status) FROM STDIN WITH (FORMAT csv)";
+        try (Writer out = new BufferedWriter(new OutputStreamWriter(
+                new PGCopyOutputStream(copyManager.copyIn(sql), 64 * 1024), StandardCharsets.UTF_8), 64 * 1024)) {
+            return source.readInto((rowNumber, cameraId, model, platformCode, status) -> {
+                try {
+                    out.write(Integer.toString(rowNumber));
+                    writeField(out, cameraId);
+                    writeField(out, model);
+                    writeField(out, platformCode);
+                    writeField(out, status);
+                    out.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException("Reading import rows into staging table failed", e);
+        }
+    }
+    
+    /**
+     * Writes a CSV field; {@code null} becomes an unquoted empty field, which COPY reads as NULL.
+     */
+    private static void writeField(Writer out, String value) throws IOException {
+        out.write(',');
+        if (value == null) {
+            return;
+        }
+        out.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                out.write('"');
+            }
+            out.write(c);
+        }
+        out.write('"');
+    }
+    
+    private int rejectInvalidRows(UUID jobId, String staging) {
+        jdbcTemplate.update("UPDATE " + staging + " s SET error = CASE"
+            + " WHEN NULLIF(btrim(s.public_id), '') IS NULL THEN 'camera_id is required'"
+            + " WHEN btrim(s.public_id) !~ '^[A-Za-z0-9_-]{3,128}$' THEN 'Invalid camera_id format'"
+            + " WHEN NULLIF(btrim(s.platform_code), '') IS NOT NULL"
+            + "  AND NOT EXISTS (SELECT 1 FROM platforms p WHERE p.code = btrim(s.platform_code))"
+            + "  THEN 'Platform not found: ' || s.platform_code"
+            + " WHEN NULLIF(btrim(s.status), '') IS NOT NULL AND upper(btrim(s.status)) NOT IN ('ACTIVE', 'DISABLED')"
+            + "  THEN 'Invalid camera status: ' || lower(btrim(s.status)) || '. Must be ''active'' or ''disabled'''"
+            + " END");
+        return jdbcTemplate.update("INSERT INTO import_job_errors (job_id, row_no, camera_id_in_file, error_message, created_at)"
+            + " SELECT ?, row_no, left(public_id, 128), error, now() FROM " + staging + " WHERE error IS NOT NULL", jobId);
+    }
+    
+    private static String mergeSql(String staging) {
+        return "INSERT INTO cameras (id, public_id, model, status, target_platform_code,"
+            + "                      redirect_enabled, is_test_device, created_at, updated_at)"
+            + " SELECT gen_random_uuid(), f.public_id,"
+            + "        COALESCE(f.model, c.model), COALESCE(f.status, c.status, 'ACTIVE'),"
+            + "        COALESCE(f.platform_code, c.target_platform_code), TRUE, FALSE, now(), now()"
+            + " FROM (SELECT btrim(public_id) AS public_id,"
+            + "              (array_agg(btrim(model) ORDER BY row_no DESC) FILTER (WHERE btrim(model) <> ''))[1] AS model,"
+            + "              (array_agg(upper(btrim(status)) ORDER BY row_no DESC) FILTER (WHERE btrim(status) <> ''))[1] AS status,"
+            + "              (array_agg(btrim(platform_code) ORDER BY row_no DESC) FILTER (WHERE btrim(platform_code) <> ''))[1] AS platform_code"
+            + "       FROM " + staging + " WHERE error IS NULL GROUP BY btrim(public_id)) f"
+            + " LEFT JOIN cameras c ON c.public_id = f.public_id"
+            + " ON CONFLICT (public_id) DO UPDATE SET"
+            + "     model = EXCLUDED.model, status = EXCLUDED.status,"
+            + "     target_platform_code = EXCLUDED.target_platform_code, updated_at = EXCLUDED.updated_at"
+            + " WHERE (cameras.model, cameras.status, cameras.target_platform_code)"
+            + "       IS DISTINCT FROM (EXCLUDED.model, EXCLUDED.status, EXCLUDED.target_platform_code)";
+    }
+    
+    /**
+     * Adds the imported ids to the /view lookup structures after commit. Pages are read by row number
+     * outside any transaction so each page is published immediately rather than held until commit.
+     */
+    private void publishWrittenIds(String staging) {
+        jdbcTemplate.execute("CREATE INDEX ON " + staging + " (row_no)");
+        String page = "SELECT row_no, btrim(public_id) FROM " + staging
+            + " WHERE error IS NULL AND row_no > ? ORDER BY row_no LIMIT " + ID_PAGE_SIZE;
+        int lastRowNo = Integer.MIN_VALUE;
+        while (true) {
+            List<String> publicIds = new ArrayList<>(ID_PAGE_SIZE);
+            int[] pageLastRowNo = {lastRowNo};
+            jdbcTemplate.query(page, rs -> {
+                pageLastRowNo[0] = rs.getInt(1);
+                publicIds.add(rs.getString(2));
+            }, lastRowNo);
+            if (publicIds.isEmpty()) {
+                return;
+            }
+            cameraService.onCamerasWritten(publicIds);
+            lastRowNo = pageLastRowNo[0];
+        }
+    }
+    
+    public record CopyResult(int totalRows, int validRows, int writtenCameras, int rejectedRows) {}
+}
@@ -0,0 +1,305 @@
+package com.example.cameracloud.service;
+
+import com.example.cameracloud.entity.Camera;
+import com.example.cameracloud.repository.CameraRepository;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import jakarta.persistence.EntityManager;
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes camera exports without holding the camera table in memory.
+ *
+ * <p>Cameras are read through a forward-only cursor and detached once written, so the persistence
+ * context stays small. CSV and NDJSON rows are encoded straight into the response, through gzip
+ * when requested, so the client receives data while the cursor is still open; CSV is the default.
+ * XLSX must be requested explicitly: its rows are buffered in SXSSF temp files and the workbook is
+ * only written once the cursor has drained. The first four columns match the import format, so an
+ * export can be edited and imported again.
+ */
+@Service
+public class CameraExportService {
+    
+    /** Rows an {@link SXSSFWorkbook} keeps in memory before flushing them to its temp file. */
+    static final int XLSX_ROW_WINDOW = 100;
+    static final String[] COLUMNS = {
+        "camera_id", "model", "platform_code", "status", "platform_name", "redirect_enabled", "is_test_device", "updated_at"
+    };
+    private static final int MAX_ROWS_PER_SHEET = SpreadsheetVersion.EXCEL2007.getMaxRows();
+    private static final int GZIP_BUFFER_BYTES = 64 * 1024;
+    private static final CsvMapper CSV_MAPPER = new CsvMapper();
+    private static final CsvSchema CSV_SCHEMA = CsvSchema.builder()
+        .addColumns(List.of(COLUMNS), CsvSchema.ColumnType.STRING)
+        .setUseHeader(true)
+        .build();
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    
+    private final CameraRepository cameraRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    
+    public CameraExportService(CameraRepository cameraRepository,
+                               EntityManager entityManager,
+                               PlatformTransactionManager transactionManager) {
+        this.cameraRepository = cameraRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+    
+    /**
+     * Writes the cameras of {@code platformCode}, or all cameras if it is {@code null}, to
+     * {@code out}. The stream is flushed but not closed.
+     */
+    public void export(ExportFormat format, String platformCode, boolean gzip, OutputStream out) throws IOException {
+        write(format, gzip, out, action -> forEachCamera(platformCode, action));
+    }
+    
+    /**
+     * Encodes the cameras of {@code source} in {@code format}; separate from the query so the
+     * encoders can be benchmarked on their own.
+     */
+    static void write(ExportFormat format, boolean gzip, OutputStream out, Consumer<Consumer<Camera>> source) throws IOException {
+        OutputStream target = gzip ? new GZIPOutputStream(out, GZIP_BUFFER_BYTES) : out;
+        try (RowWriter writer = format.open(target)) {
+            source.accept(camera -> {
+                try {
+                    writer.write(camera);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.finish();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        if (target instanceof GZIPOutputStream compressed) {
+            compressed.finish();
+        }
+        out.flush();
+    }
+    
+    /**
+     * Passes every exported camera to {@code action} inside one read-only transaction, detaching
+     * each once it has been handled.
+     */
+    private void forEachCamera(String platformCode, Consumer<Camera> action) {
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<Camera> cameras = cameraRepository.streamForExport(platformCode)) {
+                cameras.forEach(camera -> {
+                    action.accept(camera);
+                    entityManager.detach(camera);
+                });
+            }
+        });
+    }
+    
+    static String[] values(Camera camera) {
+        return new String[] {
+            camera.getPublicId(),
+            camera.getModel(),
+            camera.getTargetPlatformCode(),
+            camera.getStatus().name().toLowerCase(),
+            camera.getTargetPlatform() != null ? camera.getTargetPlatform().getName() : null,
+            String.valueOf(camera.getRedirectEnabled()),
+            String.valueOf(camera.getIsTestDevice()),
+            camera.getUpdatedAt() != null ? camera.getUpdatedAt().toString() : null
+        };
+    }
+    
+    /**
+     * Export encodings; {@link #fromValue} falls back to {@link #CSV}, which streams as it is read.
+     */
+    public enum ExportFormat {
+        XLSX("xlsx", "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"),
+        CSV("csv", "text/csv"),
+        NDJSON("ndjson", "application/x-ndjson");
+        
+        private final String extension;
+        private final String contentType;
+        
+        ExportFormat(String extension, String contentType) {
+            this.extension = extension;
+            this.contentType = contentType;
+        }
+        
+        public String getExtension() {
+            return extension;
+        }
+        
+        public String getContentType() {
+            return contentType;
+        }
+        
+        public static ExportFormat fromValue(String value) {
+            if (value == null) {
+                return CSV;
+            }
+            try {
+                return ExportFormat.valueOf(value.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid export format: " + value + ". Must be 'xlsx', 'csv' or 'ndjson'");
+            }
+        }
+        
+        private RowWriter open(OutputStream out) throws IOException {
+            return switch (this) {
+                case XLSX -> new XlsxRowWriter(out);
+                case CSV -> new CsvRowWriter(out);
+                case NDJSON -> new NdjsonRowWriter(out);
+            };
+        }
+    }
+    
+    /**
+     * Encodes one camera at a time. {@link #finish} writes whatever the format needs after the last
+     * row; {@link #close} releases resources without closing the underlying stream.
+     */
+    private interface RowWriter extends Closeable {
+        
+        void write(Camera camera) throws IOException;
+        
+        void finish() throws IOException;
+    }
+    
+    /**
+     * Rows beyond the window are compressed into a temp file, which is zipped into the output once
+     * the last row has been written; sheets roll over at Excel's row limit.
+     */
+    private static final class XlsxRowWriter implements RowWriter {
+        
+        private final OutputStream out;
+        private final SXSSFWorkbook workbook = new SXSSFWorkbook(XLSX_ROW_WINDOW);
+        private SXSSFSheet sheet;
+        private int rowNum;
+        
+        XlsxRowWriter(OutputStream out) {
+            this.out = out;
+            workbook.setCompressTempFiles(true);
+            newSheet();
+        }
+        
+        @Override
+        public void write(Camera camera) {
+            if (rowNum == MAX_ROWS_PER_SHEET) {
+                newSheet();
+            }
+            Row row = sheet.createRow(rowNum++);
+            String[] values = values(camera);
+            for (int i = 0; i < values.length; i++) {
+                if (values[i] != null) {
+                    row.createCell(i).setCellValue(values[i]);
+                }
+            }
+        }
+        
+        @Override
+        public void finish() throws IOException {
+            workbook.write(out);
+        }
+        
+        @Override
+        public void close() throws IOException {
+            workbook.dispose();
+            workbook.close();
+        }
+        
+        private void newSheet() {
+            int number = workbook.getNumberOfSheets();
+            sheet = workbook.createSheet(number == 0 ? "Cameras" : "Cameras " + (number + 1));
+            Row header = sheet.createRow(0);
+            for (int i = 0; i < COLUMNS.length; i++) {
+                header.createCell(i).setCellValue(COLUMNS[i]);
+            }
+            rowNum = 1;
+        }
+    }
+    
+    private static final class CsvRowWriter implements RowWriter {
+        
+        private final SequenceWriter rows;
+        
+        CsvRowWriter(OutputStream out) throws IOException {
+            this.rows = CSV_MAPPER.writer(CSV_SCHEMA)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .writeValues(out);
+        }
+        
+        @Override
+        public void write(Camera camera) throws IOException {
+            String[] values = values(camera);
+            // The generator drops null array elements, which would shift the remaining columns
+            for (int i = 0; i < values.length; i++) {
+                if (values[i] == null) {
+                    values[i] = "";
+                }
+            }
+            rows.write(values);
+        }
+        
+        @Override
+        public void finish() throws IOException {
+            rows.flush();
+        }
+        
+        @Override
+        public void close() throws IOException {
+            rows.close();
+        }
+    }
+    
+    /**
+     * One JSON object per line, keyed by the CSV column names, with the flags as booleans.
+     */
+    private static final class NdjsonRowWriter implements RowWriter {
+        
+        private final JsonGenerator generator;
+        
+        NdjsonRowWriter(OutputStream out) throws IOException {
+            this.generator = JSON_FACTORY.createGenerator(out).disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            this.generator.setRootValueSeparator(null);
+        }
+        
+        @Override
+        public void write(Camera camera) throws IOException {
+            String[] values = values(camera);
+            generator.writeStartObject();
+            for (int i = 0; i < 5; i++) {
+                generator.writeStringField(COLUMNS[i], values[i]);
+            }
+            generator.writeBooleanField(COLUMNS[5], Boolean.TRUE.equals(camera.getRedirectEnabled()));
+            generator.writeBooleanField(COLUMNS[6], Boolean.TRUE.equals(camera.getIsTestDevice()));
+            generator.writeStringField(COLUMNS[7], values[7]);
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+        
+        @Override
+        public void finish() throws IOException {
+            generator.flush();
+        }
+        
+        @Override
+        public void close() throws IOException {
+            generator.close();
+        }
+    }
+}
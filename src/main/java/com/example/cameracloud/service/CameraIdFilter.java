@@ -0,0 +1,265 @@
+package com.example.cameracloud.service;
+
+import com.example.cameracloud.repository.CameraRepository;
+import com.example.cameracloud.util.Hashing;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Stream;
+
+/**
+ * Bloom filter over all {@code cameras.public_id} values, used to reject unknown camera IDs
+ * on /view without a database round trip.
+ *
+ * <p>The filter never yields false negatives for cameras committed before the last rebuild or
+ * registered through {@link #add(Collection)} on this node. Cameras created on other nodes, e.g.
+ * by an import job, are picked up every {@code app.view-filter.catch-up-seconds} by reading the
+ * IDs created since the previous catch-up. Each read reaches back an extra
+ * {@code catch-up-overlap-seconds} to cover transactions that commit late and clock skew between
+ * nodes. Deleted IDs stay in the filter until the next full rebuild. Until the first build
+ * completes every ID is reported as possibly present.
+ */
+@Component
+public class CameraIdFilter {
+    
+    private static final Logger logger = LoggerFactory.getLogger(CameraIdFilter.class);
+    
+    private final CameraRepository cameraRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ScheduledExecutorService refreshExecutor;
+    private final boolean enabled;
+    private final double falsePositiveRate;
+    private final long expectedInsertions;
+    private final long catchUpOverlapSeconds;
+    private final Counter rejections;
+    
+    private volatile BloomFilter active;
+    private volatile BloomFilter building;
+    private volatile OffsetDateTime caughtUpTo;
+    
+    public CameraIdFilter(CameraRepository cameraRepository,
+                          PlatformTransactionManager transactionManager,
+                          MeterRegistry meterRegistry,
+                          @Value("${app.view-filter.enabled:true}") boolean enabled,
+                          @Value("${app.view-filter.false-positive-rate:0.01}") double falsePositiveRate,
+                          @Value("${app.view-filter.expected-insertions:1000000}") long expectedInsertions,
+                          @Value("${app.view-filter.refresh-seconds:300}") long refreshSeconds,
+                          @Value("${app.view-filter.catch-up-seconds:5}") long catchUpSeconds,
+                          @Value("${app.view-filter.catch-up-overlap-seconds:10}") long catchUpOverlapSeconds) {
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("app.view-filter.false-positive-rate must be between 0 and 1");
+        }
+        this.cameraRepository = cameraRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.enabled = enabled;
+        this.falsePositiveRate = falsePositiveRate;
+        this.expectedInsertions = expectedInsertions;
+        this.catchUpOverlapSeconds = catchUpOverlapSeconds;
+        this.rejections = Counter.builder("camera.id.filter.rejections")
+            .description("Lookups rejected by the camera ID filter without a database query")
+            .register(meterRegistry);
+        Gauge.builder("camera.id.filter.bytes", this, CameraIdFilter::memoryFootprintBytes)
+            .description("Memory held by the camera ID filter bit set")
+            .baseUnit("bytes")
+            .register(meterRegistry);
+        
+        CustomizableThreadFactory refreshThreads = new CustomizableThreadFactory("camera-id-filter-");
+        refreshThreads.setDaemon(true);
+        this.refreshExecutor = Executors.newSingleThreadScheduledExecutor(refreshThreads);
+        if (enabled && refreshSeconds > 0) {
+            refreshExecutor.scheduleWithFixedDelay(this::rebuildQuietly, refreshSeconds, refreshSeconds, TimeUnit.SECONDS);
+        }
+        if (enabled && catchUpSeconds > 0) {
+            refreshExecutor.scheduleWithFixedDelay(this::catchUpQuietly, catchUpSeconds, catchUpSeconds, TimeUnit.SECONDS);
+        }
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuildQuietly();
+    }
+    
+    /**
+     * Returns false only if the camera ID is known not to exist.
+     */
+    public boolean mightContain(String publicId) {
+        BloomFilter filter = active;
+        if (filter == null || filter.mightContain(publicId)) {
+            return true;
+        }
+        rejections.increment();
+        return false;
+    }
+    
+    /**
+     * Registers camera IDs that are being inserted. Inside a transaction the IDs are registered
+     * again after completion so a rebuild running concurrently cannot miss them.
+     */
+    public void add(Collection<String> publicIds) {
+        if (!enabled) {
+            return;
+        }
+        addNow(publicIds);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    addNow(publicIds);
+                }
+            });
+        }
+    }
+    
+    /**
+     * Rebuilds the filter from the cameras table, sized for twice the current row count.
+     */
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        long started = System.currentTimeMillis();
+        OffsetDateTime readFrom = OffsetDateTime.now();
+        long count = cameraRepository.count();
+        BloomFilter next = new BloomFilter(Math.max(expectedInsertions, count * 2), falsePositiveRate);
+        building = next;
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<String> publicIds = cameraRepository.streamAllPublicIds()) {
+                    publicIds.forEach(next::put);
+                }
+            });
+            active = next;
+            caughtUpTo = readFrom;
+        } finally {
+            building = null;
+        }
+        logger.info("Camera ID filter rebuilt: cameras={}, bits={}, hashes={}, took={}ms",
+            count, next.bitSize, next.numHashes, System.currentTimeMillis() - started);
+    }
+    
+    /**
+     * Adds the cameras created since the previous catch-up or rebuild, wherever they were written.
+     * Does nothing before the first build.
+     */
+    public void catchUp() {
+        OffsetDateTime since = caughtUpTo;
+        if (!enabled || since == null) {
+            return;
+        }
+        OffsetDateTime readFrom = OffsetDateTime.now();
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<String> publicIds = cameraRepository.streamPublicIdsCreatedAfter(since.minusSeconds(catchUpOverlapSeconds))) {
+                publicIds.forEach(this::addNow);
+            }
+        });
+        caughtUpTo = readFrom;
+    }
+    
+    public long memoryFootprintBytes() {
+        BloomFilter filter = active;
+        return filter == null ? 0 : filter.bits.length() * (long) Long.BYTES;
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdown();
+    }
+    
+    private void addNow(Collection<String> publicIds) {
+        publicIds.forEach(this::addNow);
+    }
+    
+    private void addNow(String publicId) {
+        BloomFilter current = active;
+        BloomFilter next = building;
+        if (current != null) {
+            current.put(publicId);
+        }
+        if (next != null) {
+            next.put(publicId);
+        }
+    }
+    
+    private void rebuildQuietly() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            logger.error("Failed to rebuild camera ID filter", e);
+        }
+    }
+    
+    private void catchUpQuietly() {
+        try {
+            catchUp();
+        } catch (Exception e) {
+            logger.warn("Failed to catch up the camera ID filter: {}", e.getMessage());
+        }
+    }
+    
+    /**
+     * Lock-free Bloom filter using double hashing over a 64-bit hash of the ID.
+     */
+    static final class BloomFilter {
+        
+        private final AtomicLongArray bits;
+        private final long bitSize;
+        private final int numHashes;
+        
+        BloomFilter(long expectedInsertions, double falsePositiveRate) {
+            long n = Math.max(1, expectedInsertions);
+            long m = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            int words = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(1, (m + 63) >>> 6));
+            this.bits = new AtomicLongArray(words);
+            this.bitSize = (long) words << 6;
+            this.numHashes = Math.max(1, (int) Math.round((double) bitSize / n * Math.log(2)));
+        }
+        
+        void put(String value) {
+            long hash = Hashing.hash64(value);
+            long h1 = hash;
+            long h2 = Hashing.mix64(hash ^ 0xC2B2AE3D27D4EB4FL) | 1L;
+            for (int i = 0; i < numHashes; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bitSize);
+                int word = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long current = bits.get(word);
+                while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask)) {
+                    current = bits.get(word);
+                }
+            }
+        }
+        
+        boolean mightContain(String value) {
+            long hash = Hashing.hash64(value);
+            long h1 = hash;
+            long h2 = Hashing.mix64(hash ^ 0xC2B2AE3D27D4EB4FL) | 1L;
+            for (int i = 0; i < numHashes; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bitSize);
+                if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.cameracloud.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * Immutable trigram index over camera IDs and models, used for search where {@code pg_trgm} is not
+ * available.
+ *
+ * <p>Cameras are numbered in {@code public_id} order and every lower-cased trigram of either field
+ * maps to the sorted numbers of the cameras containing it. A search walks the shortest list among
+ * the term's trigrams and checks each candidate for the whole term, so matches come out in
+ * {@code public_id} order and a keyset page is a binary search away.
+ */
+final class CameraNgramIndex {
+    
+    static final int GRAM = 3;
+    
+    private final String[] publicIds;
+    private final String[] searchText;
+    private final Map<Long, int[]> postings;
+    
+    private CameraNgramIndex(String[] publicIds, String[] searchText, Map<Long, int[]> postings) {
+        this.publicIds = publicIds;
+        this.searchText = searchText;
+        this.postings = postings;
+    }
+    
+    static Builder builder() {
+        return new Builder();
+    }
+    
+    int size() {
+        return publicIds.length;
+    }
+    
+    String publicId(int camera) {
+        return publicIds[camera];
+    }
+    
+    /**
+     * Cameras whose ID or model contains {@code term}, ignoring case, with an ID after
+     * {@code afterPublicId} (or from the start if it is {@code null}), in ID order. Terms shorter
+     * than a trigram are checked against every camera.
+     */
+    PrimitiveIterator.OfInt matches(String term, String afterPublicId) {
+        String needle = term.toLowerCase(Locale.ROOT);
+        int from = afterPublicId == null ? 0 : firstAfter(afterPublicId);
+        
+        if (needle.length() < GRAM) {
+            return new Matches(needle, null, from);
+        }
+        int[] shortest = null;
+        for (int i = 0; i + GRAM <= needle.length(); i++) {
+            int[] list = postings.get(key(needle, i));
+            if (list == null) {
+                return new Matches(needle, new int[0], 0);
+            }
+            if (shortest == null || list.length < shortest.length) {
+                shortest = list;
+            }
+        }
+        int start = Arrays.binarySearch(shortest, from);
+        return new Matches(needle, shortest, start >= 0 ? start : -start - 1);
+    }
+    
+    private int firstAfter(String afterPublicId) {
+        int position = Arrays.binarySearch(publicIds, afterPublicId);
+        return position >= 0 ? position + 1 : -position - 1;
+    }
+    
+    private static long key(String text, int offset) {
+        return ((long) text.charAt(offset) << 32) | ((long) text.charAt(offset + 1) << 16) | text.charAt(offset + 2);
+    }
+    
+    /**
+     * Walks the candidates of a search, skipping those that only share the term's trigrams.
+     */
+    private final class Matches implements PrimitiveIterator.OfInt {
+        
+        private final String needle;
+        private final int[] candidates; // null: every camera is a candidate
+        private int position;
+        private int next = -1;
+        
+        Matches(String needle, int[] candidates, int position) {
+            this.needle = needle;
+            this.candidates = candidates;
+            this.position = position;
+        }
+        
+        @Override
+        public boolean hasNext() {
+            while (next < 0) {
+                int limit = candidates == null ? publicIds.length : candidates.length;
+                if (position >= limit) {
+                    return false;
+                }
+                int camera = candidates == null ? position : candidates[position];
+                position++;
+                if (searchText[camera].contains(needle)) {
+                    next = camera;
+                }
+            }
+            return true;
+        }
+        
+        @Override
+        public int nextInt() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            int camera = next;
+            next = -1;
+            return camera;
+        }
+    }
+    
+    static final class Builder {
+        
+        private final List<String[]> entries = new ArrayList<>();
+        
+        private Builder() {}
+        
+        Builder add(String publicId, String model) {
+            entries.add(new String[] {publicId, model});
+            return this;
+        }
+        
+        CameraNgramIndex build() {
+            entries.sort(Comparator.comparing(entry -> entry[0]));
+            String[] publicIds = new String[entries.size()];
+            String[] searchText = new String[entries.size()];
+            Map<Long, IntList> lists = new HashMap<>();
+            for (int camera = 0; camera < publicIds.length; camera++) {
+                String[] entry = entries.get(camera);
+                publicIds[camera] = entry[0];
+                // The separator keeps the term from matching across the two fields
+                String text = entry[1] == null ? entry[0].toLowerCase(Locale.ROOT)
+                    : entry[0].toLowerCase(Locale.ROOT) + '\n' + entry[1].toLowerCase(Locale.ROOT);
+                searchText[camera] = text;
+                for (int i = 0; i + GRAM <= text.length(); i++) {
+                    lists.computeIfAbsent(key(text, i), k -> new IntList()).add(camera);
+                }
+            }
+            Map<Long, int[]> postings = new HashMap<>(lists.size() * 4 / 3 + 1);
+            lists.forEach((gram, list) -> postings.put(gram, list.toArray()));
+            return new CameraNgramIndex(publicIds, searchText, postings);
+        }
+    }
+    
+    /**
+     * Growable list of ascending camera numbers; a camera is added once per distinct trigram.
+     */
+    private static final class IntList {
+        
+        private int[] values = new int[4];
+        private int size;
+        
+        void add(int value) {
+            if (size > 0 && values[size - 1] == value) {
+                return;
+            }
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+        
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.cameracloud.service;
+
+import com.example.cameracloud.entity.Camera;
+import com.example.cameracloud.repository.CameraRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PrimitiveIterator;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Substring search over camera IDs and models, ignoring case.
+ *
+ * <p>On PostgreSQL the search is an {@code ILIKE} served by the {@code pg_trgm} GIN indexes of
+ * {@code V3__Camera_trigram_search.sql}. Other databases (H2 in dev and tests) use an in-process
+ * {@link CameraNgramIndex} rebuilt every {@code app.search.ngram-refresh-seconds}. Matches from the
+ * index are loaded by ID with the remaining filters applied. Cameras created or changed since the
+ * last rebuild are only found after the next one; until the first build the search falls back to
+ * a case-insensitive {@code LIKE}.
+ */
+@Component
+public class CameraSearchService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(CameraSearchService.class);
+    private static final int ID_BATCH_SIZE = 500;
+    
+    private final CameraRepository cameraRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ScheduledExecutorService refreshExecutor;
+    private final long refreshSeconds;
+    private volatile Boolean trigramSupported;
+    private volatile CameraNgramIndex index;
+    
+    public CameraSearchService(CameraRepository cameraRepository,
+                               JdbcTemplate jdbcTemplate,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${app.search.ngram-refresh-seconds:300}") long refreshSeconds) {
+        this.cameraRepository = cameraRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.refreshSeconds = refreshSeconds;
+        CustomizableThreadFactory refreshThreads = new CustomizableThreadFactory("camera-search-index-");
+        refreshThreads.setDaemon(true);
+        this.refreshExecutor = Executors.newSingleThreadScheduledExecutor(refreshThreads);
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (isTrigramSupported()) {
+            return;
+        }
+        rebuildQuietly();
+        if (refreshSeconds > 0) {
+            refreshExecutor.scheduleWithFixedDelay(this::rebuildQuietly, refreshSeconds, refreshSeconds, TimeUnit.SECONDS);
+        }
+    }
+    
+    public boolean isTrigramSupported() {
+        Boolean result = trigramSupported;
+        if (result == null) {
+            result = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                "PostgreSQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName()));
+            trigramSupported = result;
+        }
+        return result;
+    }
+    
+    /**
+     * Returns up to {@code limit} non-test cameras whose ID or model contains {@code term} and
+     * which match the other filters, with an ID after {@code afterPublicId}, in ID order.
+     */
+    public List<Camera> search(String term,
+                               String platformCode,
+                               Camera.CameraStatus status,
+                               Boolean redirectEnabled,
+                               String afterPublicId,
+                               int limit) {
+        if (isTrigramSupported()) {
+            return cameraRepository.searchTrigram("%" + escapeLike(term) + "%", platformCode,
+                status != null ? status.name() : null, redirectEnabled, afterPublicId, limit);
+        }
+        CameraNgramIndex current = index;
+        if (current == null) {
+            return cameraRepository.findPageWithFilters(platformCode, status, redirectEnabled, escapeLike(term), afterPublicId, Limit.of(limit));
+        }
+        
+        List<Camera> result = new ArrayList<>(limit);
+        PrimitiveIterator.OfInt matches = current.matches(term, afterPublicId);
+        List<String> batch = new ArrayList<>(ID_BATCH_SIZE);
+        while (result.size() < limit && matches.hasNext()) {
+            batch.clear();
+            while (batch.size() < ID_BATCH_SIZE && matches.hasNext()) {
+                batch.add(current.publicId(matches.nextInt()));
+            }
+            List<Camera> cameras = new ArrayList<>(
+                cameraRepository.findByPublicIdsWithFilters(batch, platformCode, status, redirectEnabled));
+            cameras.sort(Comparator.comparing(Camera::getPublicId));
+            for (Camera camera : cameras) {
+                if (result.size() == limit) {
+                    break;
+                }
+                result.add(camera);
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Rebuilds the in-process index from the cameras table.
+     */
+    public void rebuild() {
+        long started = System.currentTimeMillis();
+        CameraNgramIndex.Builder builder = CameraNgramIndex.builder();
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<CameraRepository.SearchEntry> entries = cameraRepository.streamSearchEntries()) {
+                entries.forEach(entry -> builder.add(entry.getPublicId(), entry.getModel()));
+            }
+        });
+        CameraNgramIndex next = builder.build();
+        index = next;
+        logger.info("Camera search index rebuilt: cameras={}, took={}ms", next.size(), System.currentTimeMillis() - started);
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdown();
+    }
+    
+    private void rebuildQuietly() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            logger.warn("Camera search index rebuild failed: {}", e.getMessage());
+        }
+    }
+    
+    private static String escapeLike(String term) {
+        return term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
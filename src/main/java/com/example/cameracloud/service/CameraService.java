@@ -2,9 +2,20 @@ package com.example.cameracloud.service;
 
 import com.example.cameracloud.entity.Camera;
 import com.example.cameracloud.repository.CameraRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Duration;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,16 +23,80 @@ import java.util.Optional;
 @Transactional(readOnly = true)
 public class CameraService {
     
+    public static final int MAX_PAGE_SIZE = 200;
+    
     private final CameraRepository cameraRepository;
+    private final CameraIdFilter cameraIdFilter;
+    private final CameraSearchService cameraSearchService;
+    private final Cache<String, Optional<CameraViewInfo>> viewCache;
     
-    public CameraService(CameraRepository cameraRepository) {
+    public CameraService(CameraRepository cameraRepository,
+                         CameraIdFilter cameraIdFilter,
+                         CameraSearchService cameraSearchService,
+                         MeterRegistry meterRegistry,
+                         @Value("${app.view-cache.maximum-size:100000}") long viewCacheMaximumSize,
+                         @Value("${app.view-cache.ttl-seconds:30}") long viewCacheTtlSeconds) {
         this.cameraRepository = cameraRepository;
+        this.cameraIdFilter = cameraIdFilter;
+        this.cameraSearchService = cameraSearchService;
+        this.viewCache = Caffeine.newBuilder()
+            .maximumSize(viewCacheMaximumSize)
+            .expireAfterWrite(Duration.ofSeconds(viewCacheTtlSeconds))
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, viewCache, "camera.view");
     }
     
     public Camera findByPublicId(String publicId) {
         return cameraRepository.findByPublicId(publicId).orElse(null);
     }
     
+    /**
+     * Looks up the fields needed by the /view endpoint through an in-process cache.
+     * Unknown IDs are cached as well; entries expire after {@code app.view-cache.ttl-seconds},
+     * which bounds staleness for changes made on other nodes. IDs rejected by the
+     * {@link CameraIdFilter} are answered without touching the cache or the database.
+     * Runs without a transaction so cache hits never borrow a database connection.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public CameraViewInfo findViewInfo(String publicId) {
+        if (!cameraIdFilter.mightContain(publicId)) {
+            return null;
+        }
+        return viewCache.get(publicId, id -> cameraRepository.findByPublicId(id).map(CameraViewInfo::of))
+            .orElse(null);
+    }
+    
+    /**
+     * Drops cached view lookups for the given cameras. When called inside a transaction the
+     * entries are dropped again after completion, so a concurrent reader cannot re-cache the
+     * pre-commit state.
+     */
+    public void evictViewCache(Collection<String> publicIds) {
+        viewCache.invalidateAll(publicIds);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    viewCache.invalidateAll(publicIds);
+                }
+            });
+        }
+    }
+    
+    public void evictViewCache(String publicId) {
+        evictViewCache(List.of(publicId));
+    }
+    
+    /**
+     * Keeps the /view lookup structures in sync for cameras written outside this service,
+     * e.g. by the import jobs.
+     */
+    public void onCamerasWritten(Collection<String> publicIds) {
+        cameraIdFilter.add(publicIds);
+        evictViewCache(publicIds);
+    }
+    
     public boolean existsByPublicId(String publicId) {
         return cameraRepository.existsByPublicId(publicId);
     }
@@ -33,6 +108,43 @@ public class CameraService {
         return cameraRepository.findWithFilters(platformCode, status, redirectEnabled, search);
     }
     
+    /**
+     * Returns up to {@code size} cameras matching the filters, starting after the camera
+     * {@code afterPublicId} (the previous page's {@link CameraPage#nextCursor()}, or {@code null}
+     * for the first page). {@code size} is capped at {@link #MAX_PAGE_SIZE}. A non-blank
+     * {@code search} goes through {@link CameraSearchService} and ignores case.
+     */
+    public CameraPage findPageWithFilters(String platformCode,
+                                          Camera.CameraStatus status,
+                                          Boolean redirectEnabled,
+                                          String search,
+                                          String afterPublicId,
+                                          int size) {
+        int limit = clampPageSize(size);
+        List<Camera> cameras = search != null && !search.isBlank()
+                ? cameraSearchService.search(search.trim(), platformCode, status, redirectEnabled, afterPublicId, limit + 1)
+                : cameraRepository.findPageWithFilters(platformCode, status, redirectEnabled, null, afterPublicId, Limit.of(limit + 1));
+        if (cameras.size() <= limit) {
+            return new CameraPage(cameras, null);
+        }
+        List<Camera> page = cameras.subList(0, limit);
+        return new CameraPage(page, page.get(limit - 1).getPublicId());
+    }
+    
+    /**
+     * The page size {@link #findPageWithFilters} actually uses for a requested {@code size}.
+     */
+    public static int clampPageSize(int size) {
+        return Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    }
+    
+    public long countWithFilters(String platformCode,
+                                 Camera.CameraStatus status,
+                                 Boolean redirectEnabled,
+                                 String search) {
+        return cameraRepository.countWithFilters(platformCode, status, redirectEnabled, search);
+    }
+    
     public List<Camera> findByTargetPlatformCode(String platformCode) {
         return cameraRepository.findByTargetPlatformCode(platformCode);
     }
@@ -43,6 +155,7 @@ public class CameraService {
     
     @Transactional
     public Camera save(Camera camera) {
+        onCamerasWritten(List.of(camera.getPublicId()));
         return cameraRepository.save(camera);
     }
     
@@ -53,6 +166,7 @@ public class CameraService {
             Camera camera = cameraOpt.get();
             camera.setRedirectEnabled(enabled);
             cameraRepository.save(camera);
+            evictViewCache(publicId);
         }
     }
     
@@ -63,6 +177,7 @@ public class CameraService {
             Camera camera = cameraOpt.get();
             camera.setTargetPlatformCode(platformCode);
             cameraRepository.save(camera);
+            evictViewCache(publicId);
         }
     }
     
@@ -73,6 +188,7 @@ public class CameraService {
             Camera camera = cameraOpt.get();
             camera.setStatus(status);
             cameraRepository.save(camera);
+            evictViewCache(publicId);
         }
     }
     
@@ -81,6 +197,29 @@ public class CameraService {
         Optional<Camera> cameraOpt = cameraRepository.findByPublicId(publicId);
         if (cameraOpt.isPresent()) {
             cameraRepository.delete(cameraOpt.get());
+            evictViewCache(publicId);
         }
     }
+    
+    /**
+     * Subset of {@link Camera} needed to serve /view, small enough to cache for every camera.
+     */
+    public record CameraViewInfo(
+        String publicId,
+        boolean redirectEnabled,
+        Camera.CameraStatus status
+    ) {
+        public static CameraViewInfo of(Camera camera) {
+            return new CameraViewInfo(
+                camera.getPublicId(),
+                Boolean.TRUE.equals(camera.getRedirectEnabled()),
+                camera.getStatus()
+            );
+        }
+    }
+    
+    /**
+     * @param nextCursor {@code afterPublicId} of the next page, or {@code null} on the last page
+     */
+    public record CameraPage(List<Camera> cameras, String nextCursor) {}
 }
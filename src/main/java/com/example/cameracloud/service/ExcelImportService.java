@@ -3,16 +3,15 @@ package com.example.cameracloud.service;
 import com.example.cameracloud.entity.Camera;
 import com.example.cameracloud.entity.ImportJob;
 import com.example.cameracloud.entity.ImportJobError;
-import com.example.cameracloud.entity.Platform;
+import com.example.cameracloud.util.StreamingXlsxReader;
 import com.opencsv.CSVReader;
-import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.util.ArrayList;
 import java.util.List;
@@ -21,53 +20,52 @@ import java.util.List;
 public class ExcelImportService {
     
     private static final Logger logger = LoggerFactory.getLogger(ExcelImportService.class);
+    private static final int MAX_REPORTED_ERRORS = 100;
     
-    private final CameraService cameraService;
     private final PlatformService platformService;
+    private final CameraBatchWriter cameraBatchWriter;
     
-    public ExcelImportService(CameraService cameraService, PlatformService platformService) {
-        this.cameraService = cameraService;
+    public ExcelImportService(PlatformService platformService, CameraBatchWriter cameraBatchWriter) {
         this.platformService = platformService;
+        this.cameraBatchWriter = cameraBatchWriter;
     }
     
     public ImportResult processExcelFile(ImportJob job, MultipartFile file) throws IOException {
-        List<ImportJobError> errors = new ArrayList<>();
-        int successCount = 0;
-        int totalRows = 0;
+        ErrorSample errors = new ErrorSample();
+        CameraBatchWriter.Batch batch = beginBatch(job, errors);
+        PlatformCatalog platforms = platformService.loadCatalog();
+        int[] totalRows = new int[1];
         
-        try (Workbook workbook = new XSSFWorkbook(file.getInputStream())) {
-            Sheet sheet = workbook.getSheetAt(0);
-            
-            // Skip header row
-            for (int i = 1; i <= sheet.getLastRowNum(); i++) {
-                Row row = sheet.getRow(i);
-                if (row == null) continue;
+        try (InputStream inputStream = file.getInputStream()) {
+            StreamingXlsxReader.read(inputStream, 4, (rowNumber, cells) -> {
+                // Skip header row
+                if (rowNumber == 1) return;
                 
-                totalRows++;
-                int rowNumber = i + 1; // 1-based row number
+                totalRows[0]++;
                 
                 try {
-                    CameraData cameraData = parseExcelRow(row);
-                    validateCameraData(cameraData, rowNumber);
-                    
-                    Camera camera = createOrUpdateCamera(cameraData);
-                    cameraService.save(camera);
-                    successCount++;
+                    CameraData cameraData = parseExcelRow(cells);
+                    validateCameraData(cameraData, platforms, rowNumber);
                     
+                    batch.add(toUpsert(cameraData, rowNumber));
+                
                 } catch (Exception e) {
                     logger.warn("Error processing row {}: {}", rowNumber, e.getMessage());
                     errors.add(new ImportJobError(job, rowNumber, 
-                        getCellValue(row.getCell(0)), e.getMessage()));
+                        getCellValue(cells[0]), e.getMessage()));
                 }
-            }
+            });
         }
         
-        return new ImportResult(totalRows, successCount, errors);
+        batch.flush();
+        
+        return new ImportResult(totalRows[0], batch.getWritten(), errors.count, errors.sample);
     }
     
     public ImportResult processCsvFile(ImportJob job, MultipartFile file) throws IOException {
-        List<ImportJobError> errors = new ArrayList<>();
-        int successCount = 0;
+        ErrorSample errors = new ErrorSample();
+        CameraBatchWriter.Batch batch = beginBatch(job, errors);
+        PlatformCatalog platforms = platformService.loadCatalog();
         int totalRows = 0;
         
         try (CSVReader reader = new CSVReader(new InputStreamReader(file.getInputStream()))) {
@@ -83,15 +81,13 @@ public class ExcelImportService {
                 while ((row = reader.readNext()) != null) {
                 totalRows++;
                 int rowNumber = totalRows + 1; // 1-based row number
-                
+                    
                     try {
                         CameraData cameraData = parseCsvRow(row);
-                        validateCameraData(cameraData, rowNumber);
-                        
-                        Camera camera = createOrUpdateCamera(cameraData);
-                        cameraService.save(camera);
-                        successCount++;
+                        validateCameraData(cameraData, platforms, rowNumber);
                         
+                        batch.add(toUpsert(cameraData, rowNumber));
+                    
                     } catch (Exception e) {
                         logger.warn("Error processing CSV row {}: {}", rowNumber, e.getMessage());
                         errors.add(new ImportJobError(job, rowNumber, 
@@ -103,14 +99,21 @@ public class ExcelImportService {
             }
         }
         
-        return new ImportResult(totalRows, successCount, errors);
+        batch.flush();
+        
+        return new ImportResult(totalRows, batch.getWritten(), errors.count, errors.sample);
+    }
+    
+    private CameraBatchWriter.Batch beginBatch(ImportJob job, ErrorSample errors) {
+        return cameraBatchWriter.begin(failure -> errors.add(new ImportJobError(job, failure.row().rowNumber(),
+            failure.row().publicId(), failure.message())));
     }
     
-    private CameraData parseExcelRow(Row row) {
-        String cameraId = getCellValue(row.getCell(0));
-        String platformCode = getCellValue(row.getCell(1));
-        String model = getCellValue(row.getCell(2));
-        String status = getCellValue(row.getCell(3));
+    private CameraData parseExcelRow(String[] cells) {
+        String cameraId = getCellValue(cells[0]);
+        String platformCode = getCellValue(cells[1]);
+        String model = getCellValue(cells[2]);
+        String status = getCellValue(cells[3]);
         
         return new CameraData(cameraId, platformCode, model, status);
     }
@@ -124,28 +127,11 @@ public class ExcelImportService {
         return new CameraData(cameraId, platformCode, model, status);
     }
     
-    private String getCellValue(Cell cell) {
-        if (cell == null) return "";
-        
-        switch (cell.getCellType()) {
-            case STRING:
-                return cell.getStringCellValue().trim();
-            case NUMERIC:
-                if (DateUtil.isCellDateFormatted(cell)) {
-                    return cell.getDateCellValue().toString();
-                } else {
-                    return String.valueOf((long) cell.getNumericCellValue());
-                }
-            case BOOLEAN:
-                return String.valueOf(cell.getBooleanCellValue());
-            case FORMULA:
-                return cell.getCellFormula();
-            default:
-                return "";
-        }
+    private String getCellValue(String cell) {
+        return cell == null ? "" : cell.trim();
     }
     
-    private void validateCameraData(CameraData data, int rowNumber) {
+    private void validateCameraData(CameraData data, PlatformCatalog platforms, int rowNumber) {
         if (data.cameraId() == null || data.cameraId().trim().isEmpty()) {
             throw new IllegalArgumentException("Camera ID is required");
         }
@@ -155,8 +141,7 @@ public class ExcelImportService {
         }
         
         if (data.platformCode() != null && !data.platformCode().trim().isEmpty()) {
-            Platform platform = platformService.findByCode(data.platformCode());
-            if (platform == null) {
+            if (!platforms.contains(data.platformCode())) {
                 throw new IllegalArgumentException("Platform not found: " + data.platformCode());
             }
         }
@@ -170,36 +155,40 @@ public class ExcelImportService {
         }
     }
     
-    private Camera createOrUpdateCamera(CameraData data) {
-        Camera existingCamera = cameraService.findByPublicId(data.cameraId());
-        
-        if (existingCamera != null) {
-            // Update existing camera
-            if (data.platformCode() != null && !data.platformCode().trim().isEmpty()) {
-                existingCamera.setTargetPlatformCode(data.platformCode());
-            }
-            if (data.model() != null && !data.model().trim().isEmpty()) {
-                existingCamera.setModel(data.model());
-            }
-            if (data.status() != null && !data.status().trim().isEmpty()) {
-                existingCamera.setStatus(Camera.CameraStatus.valueOf(data.status().toUpperCase()));
-            }
-            return existingCamera;
-        } else {
-            // Create new camera
-            Camera camera = new Camera(data.cameraId());
-            camera.setModel(data.model());
-            camera.setTargetPlatformCode(data.platformCode());
-            
-            if (data.status() != null && !data.status().trim().isEmpty()) {
-                camera.setStatus(Camera.CameraStatus.valueOf(data.status().toUpperCase()));
-            }
-            
-            return camera;
-        }
+    private CameraBatchWriter.CameraUpsert toUpsert(CameraData data, int rowNumber) {
+        return new CameraBatchWriter.CameraUpsert(
+            rowNumber,
+            data.cameraId(),
+            blankToNull(data.model()),
+            blankToNull(data.platformCode()),
+            data.status() != null && !data.status().trim().isEmpty() ? Camera.CameraStatus.valueOf(data.status().toUpperCase()) : null
+        );
+    }
+    
+    private String blankToNull(String value) {
+        return value == null || value.trim().isEmpty() ? null : value;
     }
     
     public record CameraData(String cameraId, String platformCode, String model, String status) {}
     
-    public record ImportResult(int totalRows, int successCount, List<ImportJobError> errors) {}
+    /**
+     * {@code errors} holds the first {@value #MAX_REPORTED_ERRORS} errors; {@code failedCount} counts all of them.
+     */
+    public record ImportResult(int totalRows, int successCount, int failedCount, List<ImportJobError> errors) {}
+    
+    /**
+     * Counts every error but keeps only the first few, so a file of bad rows cannot fill the heap.
+     */
+    private static final class ErrorSample {
+        
+        private final List<ImportJobError> sample = new ArrayList<>();
+        private int count;
+        
+        void add(ImportJobError error) {
+            if (sample.size() < MAX_REPORTED_ERRORS) {
+                sample.add(error);
+            }
+            count++;
+        }
+    }
 }
@@ -0,0 +1,118 @@
+package com.example.cameracloud.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Streams rejected import rows to {@code import_job_errors} in JDBC batches of
+ * {@code app.import.error-batch-size}, so a file full of bad rows holds at most one batch in memory.
+ *
+ * <p>A flush joins the current transaction if there is one. The batch import flushes from inside
+ * each chunk's checkpoint, so errors up to the committed row commit with it. Errors past the
+ * checkpoint may already be stored when a node stops; {@link #discardAfter} removes them before
+ * the job resumes and reports those rows again.
+ */
+@Component
+public class ImportErrorWriter {
+    
+    private static final String INSERT = """
+        INSERT INTO import_job_errors (job_id, row_no, camera_id_in_file, error_message, created_at)
+        VALUES (?, ?, ?, ?, ?)
+        """;
+    
+    /** Length of {@code import_job_errors.camera_id_in_file}. */
+    private static final int MAX_CAMERA_ID_LENGTH = 128;
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    
+    public ImportErrorWriter(JdbcTemplate jdbcTemplate,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${app.import.error-batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+    }
+    
+    public Buffer begin(UUID jobId) {
+        return new Buffer(jobId);
+    }
+    
+    /**
+     * Deletes the errors a job recorded for rows after {@code rowNumber}.
+     */
+    public int discardAfter(UUID jobId, int rowNumber) {
+        return jdbcTemplate.update("DELETE FROM import_job_errors WHERE job_id = ? AND row_no > ?", jobId, rowNumber);
+    }
+    
+    /**
+     * Collects the errors of one job and writes them a batch at a time. Not thread-safe.
+     */
+    public final class Buffer {
+        
+        private final UUID jobId;
+        private final List<PendingError> pending = new ArrayList<>(batchSize);
+        private int count;
+        
+        private Buffer(UUID jobId) {
+            this.jobId = jobId;
+        }
+        
+        public void add(int rowNumber, String cameraIdInFile, String message) {
+            String cameraId = cameraIdInFile != null && cameraIdInFile.length() > MAX_CAMERA_ID_LENGTH
+                ? cameraIdInFile.substring(0, MAX_CAMERA_ID_LENGTH) : cameraIdInFile;
+            pending.add(new PendingError(rowNumber, cameraId, message));
+            count++;
+            if (pending.size() >= batchSize) {
+                flush();
+            }
+        }
+        
+        public void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            List<PendingError> batch = List.copyOf(pending);
+            pending.clear();
+            OffsetDateTime now = OffsetDateTime.now();
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.batchUpdate(INSERT, batch, batch.size(), (ps, error) -> {
+                    ps.setObject(1, jobId);
+                    ps.setInt(2, error.rowNumber());
+                    ps.setString(3, error.cameraId());
+                    ps.setString(4, error.message());
+                    ps.setObject(5, now);
+                });
+                // If the transaction rolls back, keep the errors for the next flush
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int completionStatus) {
+                        if (completionStatus == STATUS_ROLLED_BACK) {
+                            pending.addAll(0, batch);
+                        }
+                    }
+                });
+            });
+        }
+        
+        /**
+         * Errors added so far, including those not yet flushed.
+         */
+        public int getCount() {
+            return count;
+        }
+    }
+    
+    private record PendingError(int rowNumber, String cameraId, String message) {}
+}
@@ -0,0 +1,173 @@
+package com.example.cameracloud.service;
+
+import com.example.cameracloud.repository.ImportJobRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs import jobs on a dedicated pool of {@code app.import.executor.pool-size} threads.
+ *
+ * <p>At most {@code queue-capacity} jobs wait for a thread and each uploader has at most
+ * {@code max-jobs-per-user} jobs on the pool. A job that does not fit is not rejected: it stays
+ * {@code QUEUED} in the database and is dispatched again when one of this node's jobs finishes, or
+ * by the sweep that runs every {@code redispatch-seconds}, oldest job first. The pool is exported
+ * as the {@code executor.*} metrics tagged {@code name=import}.
+ *
+ * <p>Only jobs owned by this node are dispatched. The sweep also renews the lease of those jobs,
+ * so {@link ImportJobRecovery} on other nodes leaves them alone while this node is up.
+ *
+ * <p>When the context closes, running jobs are interrupted; they keep their checkpoint and are
+ * resumed on restart.
+ */
+@Component
+public class ImportJobDispatcher {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ImportJobDispatcher.class);
+    private static final long SHUTDOWN_WAIT_SECONDS = 10;
+    
+    private final ImportJobRepository importJobRepository;
+    private final ImportService importService;
+    private final ImportSpool importSpool;
+    private final int maxJobsPerUser;
+    private final ExecutorService importExecutor;
+    private final ScheduledExecutorService sweepExecutor;
+    
+    // Guarded by this
+    private final Set<UUID> dispatched = new HashSet<>();
+    private final Map<UUID, Integer> jobsPerUploader = new HashMap<>();
+    
+    public ImportJobDispatcher(ImportJobRepository importJobRepository,
+                               ImportService importService,
+                               ImportSpool importSpool,
+                               @Value("${app.import.executor.pool-size:2}") int poolSize,
+                               @Value("${app.import.executor.queue-capacity:8}") int queueCapacity,
+                               @Value("${app.import.executor.max-jobs-per-user:2}") int maxJobsPerUser,
+                               @Value("${app.import.executor.redispatch-seconds:10}") long redispatchSeconds,
+                               MeterRegistry meterRegistry) {
+        this.importJobRepository = importJobRepository;
+        this.importService = importService;
+        this.importSpool = importSpool;
+        this.maxJobsPerUser = maxJobsPerUser;
+        CustomizableThreadFactory importThreads = new CustomizableThreadFactory("import-");
+        importThreads.setDaemon(true);
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), importThreads, new ThreadPoolExecutor.AbortPolicy());
+        this.importExecutor = ExecutorServiceMetrics.monitor(meterRegistry, pool, "import");
+        CustomizableThreadFactory sweepThreads = new CustomizableThreadFactory("import-sweep-");
+        sweepThreads.setDaemon(true);
+        this.sweepExecutor = Executors.newSingleThreadScheduledExecutor(sweepThreads);
+        sweepExecutor.scheduleWithFixedDelay(this::sweep, redispatchSeconds, redispatchSeconds, TimeUnit.SECONDS);
+    }
+    
+    /**
+     * Dispatches a new job once the transaction that created it has committed, so the worker
+     * always finds it.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onJobQueued(ImportService.ImportJobQueued event) {
+        dispatch(event.jobId(), event.uploaderId());
+    }
+    
+    /**
+     * Submits a job unless it is already on the pool. Returns {@code false} if the uploader is at
+     * the limit or the queue is full; the job then stays {@code QUEUED} for a later sweep.
+     */
+    public synchronized boolean dispatch(UUID jobId, UUID uploaderId) {
+        if (dispatched.contains(jobId)) {
+            return true;
+        }
+        if (jobsPerUploader.getOrDefault(uploaderId, 0) >= maxJobsPerUser) {
+            logger.debug("Uploader {} has {} import jobs running; job {} stays queued", uploaderId, maxJobsPerUser, jobId);
+            return false;
+        }
+        try {
+            importExecutor.execute(() -> run(jobId, uploaderId));
+        } catch (RejectedExecutionException e) {
+            logger.info("Import executor is full; job {} stays queued", jobId);
+            return false;
+        }
+        dispatched.add(jobId);
+        jobsPerUploader.merge(uploaderId, 1, Integer::sum);
+        return true;
+    }
+    
+    /**
+     * Dispatches the queued jobs this node owns whose spool file is present, oldest first.
+     */
+    public void dispatchQueued() {
+        for (ImportJobRepository.QueuedJob job : importJobRepository.findQueuedJobs(importSpool.getNodeId())) {
+            if (job.getSpoolPath() != null && Files.isRegularFile(Path.of(job.getSpoolPath()))) {
+                dispatch(job.getId(), job.getUploaderId());
+            }
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        sweepExecutor.shutdown();
+        // Interrupted jobs keep their checkpoint and are resumed on restart
+        importExecutor.shutdownNow();
+        try {
+            // Let interrupted jobs finish their current statement before the data source closes
+            if (!importExecutor.awaitTermination(SHUTDOWN_WAIT_SECONDS, TimeUnit.SECONDS)) {
+                logger.warn("Import jobs still running after {}s; abandoning them", SHUTDOWN_WAIT_SECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    private void run(UUID jobId, UUID uploaderId) {
+        try {
+            importService.processImportJob(jobId);
+        } finally {
+            synchronized (this) {
+                dispatched.remove(jobId);
+                jobsPerUploader.computeIfPresent(uploaderId, (id, jobs) -> jobs > 1 ? jobs - 1 : null);
+            }
+            if (!sweepExecutor.isShutdown()) {
+                sweepExecutor.execute(this::dispatchQueuedQuietly);
+            }
+        }
+    }
+    
+    private void sweep() {
+        try {
+            importJobRepository.renewLeases(importSpool.getNodeId(), OffsetDateTime.now());
+        } catch (RuntimeException e) {
+            logger.warn("Renewing import job leases failed: {}", e.getMessage());
+        }
+        dispatchQueuedQuietly();
+    }
+    
+    private void dispatchQueuedQuietly() {
+        try {
+            dispatchQueued();
+        } catch (RuntimeException e) {
+            logger.warn("Dispatching queued import jobs failed: {}", e.getMessage());
+        }
+    }
+}
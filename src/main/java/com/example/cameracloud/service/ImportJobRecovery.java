@@ -0,0 +1,81 @@
+package com.example.cameracloud.service;
+
+import com.example.cameracloud.entity.ImportJob;
+import com.example.cameracloud.repository.ImportJobRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.util.EnumSet;
+
+/**
+ * Restarts import jobs that were queued or running when the application stopped.
+ *
+ * <p>Only jobs this node owns are recovered, plus those of other nodes whose lease has not been
+ * renewed for {@code app.import.lease-seconds}; running jobs of live nodes are left alone. An
+ * expired job is taken over with a conditional update, so only one node adopts it.
+ *
+ * <p>Jobs whose spool file is still on disk are queued again and handed to the
+ * {@link ImportJobDispatcher}; they continue after their last committed row. Jobs without one
+ * cannot be resumed and are marked failed, instead of staying in {@code PROCESSING} forever. Unless
+ * the spool directory is shared, this is what happens to jobs taken over from another node.
+ */
+@Component
+public class ImportJobRecovery {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ImportJobRecovery.class);
+    
+    private final ImportJobRepository importJobRepository;
+    private final ImportJobDispatcher importJobDispatcher;
+    private final ImportSpool importSpool;
+    private final long leaseSeconds;
+    
+    public ImportJobRecovery(ImportJobRepository importJobRepository,
+                             ImportJobDispatcher importJobDispatcher,
+                             ImportSpool importSpool,
+                             @Value("${app.import.lease-seconds:120}") long leaseSeconds) {
+        this.importJobRepository = importJobRepository;
+        this.importJobDispatcher = importJobDispatcher;
+        this.importSpool = importSpool;
+        this.leaseSeconds = leaseSeconds;
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterruptedJobs() {
+        String nodeId = importSpool.getNodeId();
+        OffsetDateTime now = OffsetDateTime.now();
+        OffsetDateTime expiredBefore = now.minusSeconds(leaseSeconds);
+        for (ImportJob job : importJobRepository.findByStatusIn(
+                EnumSet.of(ImportJob.ImportJobStatus.QUEUED, ImportJob.ImportJobStatus.PROCESSING))) {
+            if (!nodeId.equals(job.getOwnerNode())) {
+                if (job.getLeaseRenewedAt() != null && !job.getLeaseRenewedAt().isBefore(expiredBefore)) {
+                    continue;
+                }
+                if (importJobRepository.takeOver(job.getId(), nodeId, now, expiredBefore) == 0) {
+                    continue;
+                }
+                logger.info("Taking over import job {} from node {}, whose lease expired", job.getId(), job.getOwnerNode());
+                job.setOwnerNode(nodeId);
+                job.setLeaseRenewedAt(now);
+            }
+            if (job.getSpoolPath() != null && Files.isRegularFile(Path.of(job.getSpoolPath()))) {
+                if (job.getStatus() == ImportJob.ImportJobStatus.PROCESSING) {
+                    logger.info("Restarting interrupted import job {}", job.getId());
+                    job.setStatus(ImportJob.ImportJobStatus.QUEUED);
+                    importJobRepository.save(job);
+                }
+            } else {
+                logger.warn("Import job {} cannot be resumed: spool file {} is missing", job.getId(), job.getSpoolPath());
+                job.setStatus(ImportJob.ImportJobStatus.FAILED);
+                importJobRepository.save(job);
+            }
+        }
+        importJobDispatcher.dispatchQueued();
+    }
+}
@@ -0,0 +1,238 @@
+package com.example.cameracloud.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
+
+/**
+ * Runs an import as three stages connected by bounded queues: one reader parsing the file, a pool
+ * of validators, and a writer on the calling thread.
+ *
+ * <p>The reader groups rows into chunks of {@code app.import.pipeline.chunk-size} and numbers them.
+ * Validators take chunks in any order, and the writer puts them back in sequence before passing rows
+ * on, so rows reach the writer in file order and the last row for a camera still wins. The reader
+ * takes a permit for each chunk, and the writer returns it once the chunk has been passed on. This
+ * includes chunks the writer holds back while an earlier one is still being validated. At most
+ * {@code validators + 2 * queue-capacity} chunks of a run are therefore in memory; when the writer
+ * or a validator falls behind, the reader blocks.
+ *
+ * <p>Rows handled per stage are counted in {@code camera.import.pipeline.rows{stage}}, and chunks
+ * waiting in each queue across running imports in {@code camera.import.pipeline.queue.depth{queue}}.
+ */
+@Component
+public class ImportPipeline {
+    
+    private static final RawChunk END_OF_INPUT = new RawChunk(-1, List.of());
+    private static final ValidatedChunk END_OF_VALIDATION = new ValidatedChunk(-1, List.of(), null);
+    
+    private final int validators;
+    private final int queueCapacity;
+    private final int chunkSize;
+    private final CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("import-pipeline-");
+    private final Set<Run> running = ConcurrentHashMap.newKeySet();
+    
+    private final Counter rowsRead;
+    private final Counter rowsValidated;
+    private final Counter rowsWritten;
+    
+    public ImportPipeline(@Value("${app.import.pipeline.validators:4}") int validators,
+                          @Value("${app.import.pipeline.queue-capacity:16}") int queueCapacity,
+                          @Value("${app.import.pipeline.chunk-size:500}") int chunkSize,
+                          MeterRegistry meterRegistry) {
+        this.validators = validators;
+        this.queueCapacity = queueCapacity;
+        this.chunkSize = chunkSize;
+        
+        this.rowsRead = stageCounter(meterRegistry, "read");
+        this.rowsValidated = stageCounter(meterRegistry, "validate");
+        this.rowsWritten = stageCounter(meterRegistry, "write");
+        queueGauge(meterRegistry, "parsed", run -> run.parsed.size());
+        queueGauge(meterRegistry, "validated", run -> run.validated.size());
+    }
+    
+    /**
+     * Reads all rows from {@code source}, validates them in parallel and passes the valid ones to
+     * {@code writer} in file order. Rejected rows go to {@code onReject}, also in file order; both
+     * callbacks run on the calling thread. Returns the number of data rows read.
+     */
+    public int run(ImportRowSource source, RowValidator validator,
+                   Consumer<CameraBatchWriter.CameraUpsert> writer, RejectHandler onReject) throws IOException {
+        Run run = new Run(new ArrayBlockingQueue<>(queueCapacity), new ArrayBlockingQueue<>(queueCapacity),
+            new Semaphore(validators + 2 * queueCapacity));
+        ExecutorService stages = Executors.newFixedThreadPool(validators + 1, threadFactory);
+        running.add(run);
+        try {
+            Future<Integer> reader = stages.submit(() -> read(source, run));
+            for (int i = 0; i < validators; i++) {
+                stages.submit(() -> {
+                    validate(validator, run);
+                    return null;
+                });
+            }
+            write(run, writer, onReject);
+            return reader.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Import interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw new IllegalStateException("Import reader failed", e.getCause());
+        } finally {
+            running.remove(run);
+            stages.shutdownNow();
+        }
+    }
+    
+    private int read(ImportRowSource source, Run run) throws IOException, InterruptedException {
+        try {
+            long[] sequence = {0};
+            List<RawRow> chunk = new ArrayList<>(chunkSize);
+            int total = source.readInto((rowNumber, cameraId, model, platformCode, status) -> {
+                chunk.add(new RawRow(rowNumber, cameraId, model, platformCode, status));
+                if (chunk.size() >= chunkSize) {
+                    rowsRead.increment(chunk.size());
+                    put(run, new RawChunk(sequence[0]++, List.copyOf(chunk)));
+                    chunk.clear();
+                }
+            });
+            if (!chunk.isEmpty()) {
+                rowsRead.increment(chunk.size());
+                put(run, new RawChunk(sequence[0], List.copyOf(chunk)));
+            }
+            return total;
+        } finally {
+            for (int i = 0; i < validators; i++) {
+                run.parsed.put(END_OF_INPUT);
+            }
+        }
+    }
+    
+    private void validate(RowValidator validator, Run run) throws InterruptedException {
+        try {
+            RawChunk chunk;
+            while ((chunk = run.parsed.take()) != END_OF_INPUT) {
+                List<Outcome> outcomes = new ArrayList<>(chunk.rows().size());
+                for (RawRow row : chunk.rows()) {
+                    try {
+                        outcomes.add(new Outcome(row, validator.validate(row.rowNumber(), row.cameraId(),
+                            row.model(), row.platformCode(), row.status()), null));
+                    } catch (RuntimeException e) {
+                        outcomes.add(new Outcome(row, null, e.getMessage()));
+                    }
+                }
+                rowsValidated.increment(outcomes.size());
+                run.validated.put(new ValidatedChunk(chunk.sequence(), outcomes, null));
+            }
+            run.validated.put(END_OF_VALIDATION);
+        } catch (Error e) {
+            run.validated.put(new ValidatedChunk(-1, List.of(), e));
+        }
+    }
+    
+    private void write(Run run, Consumer<CameraBatchWriter.CameraUpsert> writer, RejectHandler onReject)
+            throws InterruptedException {
+        Map<Long, ValidatedChunk> pending = new HashMap<>();
+        long next = 0;
+        int finished = 0;
+        while (finished < validators) {
+            ValidatedChunk chunk = run.validated.take();
+            if (chunk.failure() != null) {
+                throw new IllegalStateException("Import validator failed", chunk.failure());
+            }
+            if (chunk == END_OF_VALIDATION) {
+                finished++;
+                continue;
+            }
+            pending.put(chunk.sequence(), chunk);
+            for (ValidatedChunk ready; (ready = pending.remove(next)) != null; next++) {
+                for (Outcome outcome : ready.outcomes()) {
+                    if (outcome.row() != null) {
+                        writer.accept(outcome.row());
+                    } else {
+                        onReject.reject(outcome.raw().rowNumber(), outcome.raw().cameraId(), outcome.error());
+                    }
+                }
+                rowsWritten.increment(ready.outcomes().size());
+                run.inFlight.release();
+            }
+        }
+    }
+    
+    /**
+     * Takes a permit and queues a chunk for validation, from inside the reader's row callback,
+     * which cannot throw checked exceptions.
+     */
+    private static void put(Run run, RawChunk chunk) {
+        try {
+            run.inFlight.acquire();
+            run.parsed.put(chunk);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Import reader interrupted", e);
+        }
+    }
+    
+    private static Counter stageCounter(MeterRegistry meterRegistry, String stage) {
+        return Counter.builder("camera.import.pipeline.rows")
+            .description("Import rows handled by each pipeline stage")
+            .tag("stage", stage)
+            .register(meterRegistry);
+    }
+    
+    private void queueGauge(MeterRegistry meterRegistry, String queue, ToIntFunction<Run> depth) {
+        Gauge.builder("camera.import.pipeline.queue.depth", running,
+                runs -> runs.stream().mapToInt(depth).sum())
+            .description("Chunks waiting in an import pipeline queue")
+            .tag("queue", queue)
+            .register(meterRegistry);
+    }
+    
+    /**
+     * Validates one raw row; a {@link RuntimeException} rejects the row with its message.
+     */
+    @FunctionalInterface
+    public interface RowValidator {
+        CameraBatchWriter.CameraUpsert validate(int rowNumber, String cameraId, String model,
+                                                String platformCode, String status);
+    }
+    
+    @FunctionalInterface
+    public interface RejectHandler {
+        void reject(int rowNumber, String cameraId, String message);
+    }
+    
+    /**
+     * Queues of one import; {@code inFlight} limits the chunks read but not yet written.
+     */
+    private record Run(BlockingQueue<RawChunk> parsed, BlockingQueue<ValidatedChunk> validated, Semaphore inFlight) {}
+    
+    private record RawRow(int rowNumber, String cameraId, String model, String platformCode, String status) {}
+    
+    private record RawChunk(long sequence, List<RawRow> rows) {}
+    
+    private record Outcome(RawRow raw, CameraBatchWriter.CameraUpsert row, String error) {}
+    
+    private record ValidatedChunk(long sequence, List<Outcome> outcomes, Error failure) {}
+}
@@ -0,0 +1,95 @@
+package com.example.cameracloud.service;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * Live counters of an import job running on this node. The reader, the writer and status requests
+ * use it from different threads, so every field is atomic or volatile.
+ *
+ * <p>Throughput is measured on rows read, which the pipeline's bounded queues keep close to rows
+ * written. The ETA needs the number of rows in the file, which is only known after the whole file
+ * has been read. Until then it relies on an estimate: the sheet dimension for .xlsx files, and an
+ * extrapolation from bytes consumed for .csv files.
+ */
+public final class ImportProgress {
+    
+    private final LongSupplier nanoClock;
+    private final long startedAt;
+    private final int skippedRows;
+    private final AtomicInteger rowsRead = new AtomicInteger();
+    private final AtomicInteger succeeded;
+    private final AtomicInteger failed;
+    private volatile int expectedRows = -1;
+    private int flushedRows = -1; // only used by the registry's flush thread
+    
+    /**
+     * @param skippedRows rows a resumed job skips because they were committed before
+     * @param succeeded rows already written when the job is resumed
+     * @param failed rows already rejected when the job is resumed
+     */
+    public ImportProgress(int skippedRows, int succeeded, int failed) {
+        this(skippedRows, succeeded, failed, System::nanoTime);
+    }
+    
+    ImportProgress(int skippedRows, int succeeded, int failed, LongSupplier nanoClock) {
+        this.nanoClock = nanoClock;
+        this.startedAt = nanoClock.getAsLong();
+        this.skippedRows = skippedRows;
+        this.succeeded = new AtomicInteger(succeeded);
+        this.failed = new AtomicInteger(failed);
+    }
+    
+    public void rowRead() {
+        rowsRead.incrementAndGet();
+    }
+    
+    public void rowFailed() {
+        failed.incrementAndGet();
+    }
+    
+    /**
+     * Sets the number of rows written, as of the last committed chunk.
+     */
+    public void committed(int totalSucceeded) {
+        succeeded.set(totalSucceeded);
+    }
+    
+    public void expectRows(int rows) {
+        expectedRows = rows;
+    }
+    
+    public int getRowsRead() {
+        return rowsRead.get();
+    }
+    
+    /**
+     * Returns whether {@code rows} differs from the value last flushed, and records it as flushed.
+     */
+    boolean markFlushed(int rows) {
+        if (rows == flushedRows) {
+            return false;
+        }
+        flushedRows = rows;
+        return true;
+    }
+    
+    public Snapshot snapshot() {
+        int read = rowsRead.get();
+        int expected = expectedRows;
+        double seconds = (nanoClock.getAsLong() - startedAt) / (double) TimeUnit.SECONDS.toNanos(1);
+        double rowsPerSecond = seconds > 0 ? Math.max(0, read - skippedRows) / seconds : 0;
+        
+        Long etaSeconds = null;
+        if (expected >= 0 && rowsPerSecond > 0) {
+            etaSeconds = (long) Math.ceil(Math.max(0, expected - read) / rowsPerSecond);
+        }
+        return new Snapshot(read, succeeded.get(), failed.get(), rowsPerSecond, etaSeconds);
+    }
+    
+    /**
+     * @param etaSeconds {@code null} while the size of the file is unknown
+     */
+    public record Snapshot(int rowsRead, int succeeded, int failed, double rowsPerSecond, Long etaSeconds) {}
+}
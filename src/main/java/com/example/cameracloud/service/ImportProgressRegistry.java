@@ -0,0 +1,79 @@
+package com.example.cameracloud.service;
+
+import com.example.cameracloud.repository.ImportJobRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tracks the progress of import jobs running on this node.
+ *
+ * <p>Status requests read the live counters from here. Every {@code app.import.progress.flush-millis}
+ * the rows read so far are also written to {@code import_jobs.total_rows}, so other nodes see the
+ * job advance. Success and failure counts reach the table with each committed chunk's checkpoint.
+ */
+@Component
+public class ImportProgressRegistry {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ImportProgressRegistry.class);
+    
+    private final ImportJobRepository importJobRepository;
+    private final ScheduledExecutorService flushExecutor;
+    private final Map<UUID, ImportProgress> running = new ConcurrentHashMap<>();
+    
+    public ImportProgressRegistry(ImportJobRepository importJobRepository,
+                                  @Value("${app.import.progress.flush-millis:2000}") long flushMillis) {
+        this.importJobRepository = importJobRepository;
+        CustomizableThreadFactory flushThreads = new CustomizableThreadFactory("import-progress-");
+        flushThreads.setDaemon(true);
+        this.flushExecutor = Executors.newSingleThreadScheduledExecutor(flushThreads);
+        flushExecutor.scheduleWithFixedDelay(this::flushQuietly, flushMillis, flushMillis, TimeUnit.MILLISECONDS);
+    }
+    
+    public ImportProgress start(UUID jobId, int skippedRows, int succeeded, int failed) {
+        ImportProgress progress = new ImportProgress(skippedRows, succeeded, failed);
+        running.put(jobId, progress);
+        return progress;
+    }
+    
+    public void finish(UUID jobId) {
+        running.remove(jobId);
+    }
+    
+    public Optional<ImportProgress> get(UUID jobId) {
+        return Optional.ofNullable(running.get(jobId));
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        flushExecutor.shutdown();
+    }
+    
+    void flush() {
+        running.forEach((jobId, progress) -> {
+            int rowsRead = progress.getRowsRead();
+            if (progress.markFlushed(rowsRead)) {
+                importJobRepository.saveRowsRead(jobId, rowsRead);
+            }
+        });
+    }
+    
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            logger.warn("Flushing import progress failed: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.cameracloud.service;
+
+/**
+ * Receives the raw camera fields of each data row read from an import file, before validation.
+ */
+@FunctionalInterface
+public interface ImportRowSink {
+    
+    /**
+     * @param rowNumber 1-based row number in the file, counting the header
+     */
+    void accept(int rowNumber, String cameraId, String model, String platformCode, String status);
+}
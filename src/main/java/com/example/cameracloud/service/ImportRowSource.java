@@ -0,0 +1,15 @@
+package com.example.cameracloud.service;
+
+import java.io.IOException;
+
+/**
+ * Reads an import file, passing every data row to a sink.
+ */
+@FunctionalInterface
+public interface ImportRowSource {
+    
+    /**
+     * @return the number of data rows read
+     */
+    int readInto(ImportRowSink sink) throws IOException;
+}
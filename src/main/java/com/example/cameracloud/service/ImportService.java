@@ -2,29 +2,37 @@ package com.example.cameracloud.service;
 
 import com.example.cameracloud.entity.Camera;
 import com.example.cameracloud.entity.ImportJob;
-import com.example.cameracloud.entity.Platform;
+import com.example.cameracloud.entity.ImportJobError;
 import com.example.cameracloud.entity.User;
-import com.example.cameracloud.repository.CameraRepository;
+import com.example.cameracloud.repository.ImportJobErrorRepository;
 import com.example.cameracloud.repository.ImportJobRepository;
-import com.example.cameracloud.repository.PlatformRepository;
 import com.example.cameracloud.repository.UserRepository;
+import com.example.cameracloud.util.StreamingXlsxReader;
 import com.fasterxml.jackson.databind.MappingIterator;
 import com.fasterxml.jackson.dataformat.csv.CsvMapper;
 import com.fasterxml.jackson.dataformat.csv.CsvSchema;
-import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
 import java.util.*;
-import java.util.concurrent.CompletableFuture;
+import java.util.regex.Pattern;
 
 /**
  * Service for handling camera import operations from Excel/CSV files.
@@ -34,55 +42,149 @@ import java.util.concurrent.CompletableFuture;
 public class ImportService {
     
     private static final Logger logger = LoggerFactory.getLogger(ImportService.class);
+    private static final Pattern CAMERA_ID_PATTERN = Pattern.compile("^[A-Za-z0-9_-]{3,128}$");
+    private static final int CSV_ESTIMATE_INTERVAL = 1024;
+    private static final int MAX_ERROR_PAGE_SIZE = 500;
     
-    private final CameraRepository cameraRepository;
-    private final PlatformRepository platformRepository;
+    private final PlatformService platformService;
     private final UserRepository userRepository;
     private final ImportJobRepository importJobRepository;
     private final AuditService auditService;
+    private final CameraBatchWriter cameraBatchWriter;
+    private final CameraCopyImporter cameraCopyImporter;
+    private final ImportPipeline importPipeline;
+    private final ImportProgressRegistry progressRegistry;
+    private final ImportErrorWriter importErrorWriter;
+    private final ImportJobErrorRepository importJobErrorRepository;
+    private final ImportMode importMode;
+    private final ImportSpool importSpool;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
     
     @Autowired
-    public ImportService(CameraRepository cameraRepository,
-                        PlatformRepository platformRepository,
+    public ImportService(PlatformService platformService,
                         UserRepository userRepository,
                         ImportJobRepository importJobRepository,
-                        AuditService auditService) {
-        this.cameraRepository = cameraRepository;
-        this.platformRepository = platformRepository;
+                        AuditService auditService,
+                        CameraBatchWriter cameraBatchWriter,
+                        CameraCopyImporter cameraCopyImporter,
+                        ImportPipeline importPipeline,
+                        ImportProgressRegistry progressRegistry,
+                        ImportErrorWriter importErrorWriter,
+                        ImportJobErrorRepository importJobErrorRepository,
+                        ImportSpool importSpool,
+                        ApplicationEventPublisher eventPublisher,
+                        PlatformTransactionManager transactionManager,
+                        @Value("${app.import.mode:BATCH}") ImportMode importMode) {
+        this.platformService = platformService;
         this.userRepository = userRepository;
         this.importJobRepository = importJobRepository;
         this.auditService = auditService;
+        this.cameraBatchWriter = cameraBatchWriter;
+        this.cameraCopyImporter = cameraCopyImporter;
+        this.importPipeline = importPipeline;
+        this.progressRegistry = progressRegistry;
+        this.importErrorWriter = importErrorWriter;
+        this.importJobErrorRepository = importJobErrorRepository;
+        this.importMode = importMode;
+        this.importSpool = importSpool;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        if (importMode == ImportMode.COPY && !cameraCopyImporter.isSupported()) {
+            logger.warn("app.import.mode=copy requires PostgreSQL; falling back to batched upserts");
+        }
+    }
+    
+    /**
+     * Start import job for uploaded file. {@code uploaderName} is the login name of the uploader.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public UUID processImportFile(MultipartFile file, String uploaderName) throws IOException {
+        if (file.getSize() > importSpool.getMaxFileSize().toBytes()) {
+            throw new IllegalArgumentException("File size exceeds " + importSpool.getMaxFileSize().toMegabytes() + "MB limit");
+        }
+        try (InputStream input = file.getInputStream()) {
+            return processImportStream(file.getOriginalFilename(), input, uploaderName);
+        }
     }
     
     /**
-     * Start import job for uploaded file.
+     * Start import job for a file streamed as the request body. The content is written to the spool
+     * directory before the job is created; the job reads that copy, and can be resumed from it if
+     * this node restarts. The upload runs outside any transaction so a slow client never holds a
+     * database connection; the job row is created in a short transaction of its own, and the upload
+     * only takes the job's spool name once that has committed. The job is then handed to the import
+     * executor.
      */
-    public UUID processImportFile(MultipartFile file) throws IOException {
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public UUID processImportStream(String fileName, InputStream input, String uploaderName) throws IOException {
         // Validate file
-        validateImportFile(file);
+        validateImportFileName(fileName);
+        User uploader = userRepository.findByUsername(uploaderName)
+                .orElseThrow(() -> new IllegalArgumentException("Unknown uploader: " + uploaderName));
+        Path received = importSpool.receive(input);
         
         // Create import job
-        ImportJob job = new ImportJob();
-        job.setFileName(file.getOriginalFilename());
-        job.setStatus(ImportJob.ImportJobStatus.QUEUED);
-        job = importJobRepository.save(job);
+        ImportJob job;
+        try {
+            job = transactionTemplate.execute(status -> {
+                ImportJob created = new ImportJob();
+                created.setUploaderUser(uploader);
+                created.setFileName(fileName);
+                created.setStatus(ImportJob.ImportJobStatus.QUEUED);
+                created.setOwnerNode(importSpool.getNodeId());
+                created.setLeaseRenewedAt(OffsetDateTime.now());
+                created = importJobRepository.save(created);
+                created.setSpoolPath(importSpool.pathFor(created.getId(), extensionOf(fileName)).toString());
+                return created;
+            });
+        } catch (RuntimeException e) {
+            importSpool.delete(received);
+            throw e;
+        }
+        
+        Path spoolFile;
+        try {
+            spoolFile = importSpool.assign(received, job.getId(), extensionOf(fileName));
+        } catch (IOException | RuntimeException e) {
+            importSpool.delete(received);
+            importJobRepository.updateStatus(job.getId(), ImportJob.ImportJobStatus.QUEUED, ImportJob.ImportJobStatus.FAILED);
+            throw e;
+        }
         
-        logger.info("Import job created: {} for file: {}", 
-                job.getId(), file.getOriginalFilename());
+        logger.info("Import job created: {} for file: {} ({} bytes)", 
+                job.getId(), fileName, Files.size(spoolFile));
         
-        // Start async processing
-        processImportFileAsync(job.getId(), file);
+        eventPublisher.publishEvent(new ImportJobQueued(job.getId(), uploader.getId()));
         
         return job.getId();
     }
     
     /**
-     * Get import job status and details.
+     * Get import job status and details. While the job runs on this node, counts come from its
+     * live progress rather than the last values flushed to the database.
      */
     @Transactional(readOnly = true)
-    public ImportJobStatusResponse getImportStatus(UUID jobId) {
+    public ImportJobStatusResponse getImportStatus(UUID jobId, Long errorsAfter, int errorLimit) {
         ImportJob job = importJobRepository.findById(jobId)
                 .orElseThrow(() -> new IllegalArgumentException("Import job not found: " + jobId));
+        ErrorPage errors = loadErrors(jobId, errorsAfter, errorLimit);
+        
+        Optional<ImportProgress> live = progressRegistry.get(jobId);
+        if (live.isPresent()) {
+            ImportProgress.Snapshot progress = live.get().snapshot();
+            return new ImportJobStatusResponse(
+                job.getId(),
+                job.getStatus().toString(),
+                progress.rowsRead(),
+                progress.succeeded(),
+                progress.failed(),
+                progress.rowsPerSecond(),
+                progress.etaSeconds(),
+                errors.errors(),
+                errors.nextErrorsAfter()
+            );
+        }
         
         return new ImportJobStatusResponse(
             job.getId(),
@@ -90,61 +192,135 @@ public class ImportService {
             job.getTotalRows(),
             job.getSuccessRows(),
             job.getFailedRows(),
-            new ArrayList<>() // TODO: Load errors
+            null,
+            null,
+            errors.errors(),
+            errors.nextErrorsAfter()
         );
     }
     
     /**
-     * Validate import file.
+     * Loads one keyset page of a job's errors, fetching one extra row to tell whether more follow.
      */
-    private void validateImportFile(MultipartFile file) {
-        if (file.isEmpty()) {
-            throw new IllegalArgumentException("File is empty");
-        }
+    private ErrorPage loadErrors(UUID jobId, Long errorsAfter, int errorLimit) {
+        int limit = Math.max(1, Math.min(errorLimit, MAX_ERROR_PAGE_SIZE));
+        List<ImportJobError> rows = importJobErrorRepository.findByJobIdAndIdGreaterThanOrderByIdAsc(
+                jobId, errorsAfter != null ? errorsAfter : 0L, Limit.of(limit + 1));
         
-        String fileName = file.getOriginalFilename();
+        List<ImportErrorEntry> errors = new ArrayList<>(Math.min(rows.size(), limit));
+        for (ImportJobError row : rows.subList(0, Math.min(rows.size(), limit))) {
+            errors.add(new ImportErrorEntry(row.getId(), row.getRowNo(), row.getCameraIdInFile(), row.getErrorMessage()));
+        }
+        Long next = rows.size() > limit ? errors.get(errors.size() - 1).id() : null;
+        return new ErrorPage(errors, next);
+    }
+    
+    /**
+     * Validate import file name; size and emptiness are checked while the upload is spooled.
+     */
+    private void validateImportFileName(String fileName) {
         if (fileName == null || (!fileName.endsWith(".xlsx") && !fileName.endsWith(".csv"))) {
             throw new IllegalArgumentException("File must be .xlsx or .csv format");
         }
-        
-        if (file.getSize() > 10 * 1024 * 1024) { // 10MB limit
-            throw new IllegalArgumentException("File size exceeds 10MB limit");
-        }
     }
     
     /**
-     * Process import file asynchronously.
+     * Process a queued import job; called on an import executor thread by {@link ImportJobDispatcher}.
+     * Runs outside a transaction: chunks commit on their own, each recording the job's checkpoint,
+     * and a job that already has a checkpoint continues after it.
      */
-    @Async
-    public CompletableFuture<Void> processImportFileAsync(UUID jobId, MultipartFile file) {
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void processImportJob(UUID jobId) {
+        if (importJobRepository.claim(jobId) == 0) {
+            logger.debug("Import job {} is no longer queued; skipping", jobId);
+            return;
+        }
+        Path spoolFile = null;
         try {
             ImportJob job = importJobRepository.findById(jobId)
                     .orElseThrow(() -> new IllegalArgumentException("Import job not found: " + jobId));
+            spoolFile = Path.of(job.getSpoolPath());
+            Path file = spoolFile;
             
-            job.setStatus(ImportJob.ImportJobStatus.PROCESSING);
-            importJobRepository.save(job);
-            
-            List<String> errors = new ArrayList<>();
-            int successCount = 0;
-            int totalRows = 0;
+            if (importMode == ImportMode.COPY && cameraCopyImporter.isSupported()) {
+                // One transaction for the whole file, so a resumed job starts over
+                importErrorWriter.discardAfter(jobId, 0);
+                ImportProgress progress = progressRegistry.start(jobId, 0, 0, 0);
+                CameraCopyImporter.CopyResult result = cameraCopyImporter.importRows(jobId,
+                        sink -> readImportFile(file, sink, progress));
+                
+                job.setStatus(ImportJob.ImportJobStatus.DONE);
+                job.setTotalRows(result.totalRows());
+                job.setSuccessRows(result.validRows());
+                job.setFailedRows(result.rejectedRows());
+                importJobRepository.save(job);
+                return;
+            }
             
-            if (file.getOriginalFilename().endsWith(".xlsx")) {
-                processExcelFile(file, job, errors);
-            } else {
-                processCsvFile(file, job, errors);
+            int resumeAfter = job.getCommittedRow() != null ? job.getCommittedRow() : 0;
+            int previousSuccess = resumeAfter > 0 && job.getSuccessRows() != null ? job.getSuccessRows() : 0;
+            if (resumeAfter > 0) {
+                logger.info("Resuming import job {} after row {}", jobId, resumeAfter);
             }
             
+            // The checkpointed failure count can include rows past the checkpoint, whose errors are
+            // discarded here and recorded again; only the errors that remain carry over
+            importErrorWriter.discardAfter(jobId, resumeAfter);
+            int previousFailed = resumeAfter > 0 ? (int) importJobErrorRepository.countByJobId(jobId) : 0;
+            
+            ImportProgress progress = progressRegistry.start(jobId, resumeAfter, previousSuccess, previousFailed);
+            ImportErrorWriter.Buffer errors = importErrorWriter.begin(jobId);
+            CameraBatchWriter.Batch batch = cameraBatchWriter.begin(
+                    failure -> {
+                        errors.add(failure.row().rowNumber(), failure.row().publicId(), failure.message());
+                        progress.rowFailed();
+                    },
+                    (lastRowNumber, written) -> {
+                        // Errors up to this row commit together with the chunk and its checkpoint
+                        errors.flush();
+                        importJobRepository.saveCheckpoint(jobId, lastRowNumber,
+                                previousSuccess + written, previousFailed + errors.getCount());
+                        progress.committed(previousSuccess + written);
+                    });
+            
+            PlatformCatalog platforms = platformService.loadCatalog();
+            
+            int totalRows = importPipeline.run(
+                    sink -> readImportFile(file, (rowNum, cameraId, model, platformCode, status) -> {
+                        if (rowNum > resumeAfter) {
+                            sink.accept(rowNum, cameraId, model, platformCode, status);
+                        }
+                    }, progress),
+                    (rowNum, cameraId, model, platformCode, status) ->
+                            processCameraData(cameraId, model, platformCode, status, platforms, rowNum),
+                    batch::add,
+                    (rowNum, cameraId, message) -> {
+                        errors.add(rowNum, cameraId, message);
+                        progress.rowFailed();
+                    });
+            batch.flush();
+            errors.flush();
+            int successCount = previousSuccess + batch.getWritten();
+            int failedCount = previousFailed + errors.getCount();
+            
             // Update job status
+            job = importJobRepository.findById(jobId).orElseThrow();
             job.setStatus(ImportJob.ImportJobStatus.DONE);
             job.setTotalRows(totalRows);
             job.setSuccessRows(successCount);
-            job.setFailedRows(errors.size());
+            job.setFailedRows(failedCount);
             importJobRepository.save(job);
             
-            logger.info("Import job completed: {} - Success: {}, Failed: {}", 
-                    jobId, successCount, errors.size());
-            
+            logger.info("Import job completed: {} - Success: {}, Unchanged: {}, Failed: {}", 
+                    jobId, successCount, batch.getUnchanged(), failedCount);
+        
         } catch (Exception e) {
+            if (Thread.currentThread().isInterrupted()) {
+                // Shutting down: keep the job and its spool file so it resumes on restart
+                logger.warn("Import job {} interrupted; it will resume from its checkpoint", jobId);
+                spoolFile = null;
+                return;
+            }
             logger.error("Import job failed: " + jobId, e);
             
             ImportJob job = importJobRepository.findById(jobId).orElse(null);
@@ -152,46 +328,64 @@ public class ImportService {
                 job.setStatus(ImportJob.ImportJobStatus.FAILED);
                 importJobRepository.save(job);
             }
+        } finally {
+            progressRegistry.finish(jobId);
+            importSpool.delete(spoolFile);
         }
-        
-        return CompletableFuture.completedFuture(null);
+    }
+    
+    private static String extensionOf(String fileName) {
+        return fileName.endsWith(".xlsx") ? ".xlsx" : ".csv";
     }
     
     /**
-     * Process Excel file.
+     * Read all data rows of a spooled import file into the sink, counting them in {@code progress}.
+     * Returns the number of data rows read.
      */
-    private void processExcelFile(MultipartFile file, ImportJob job, List<String> errors) throws IOException {
-        try (InputStream inputStream = file.getInputStream();
-             Workbook workbook = new XSSFWorkbook(inputStream)) {
-            
-            Sheet sheet = workbook.getSheetAt(0);
-            Iterator<Row> rowIterator = sheet.iterator();
-            
-            int rowNum = 0;
-            while (rowIterator.hasNext()) {
-                Row row = rowIterator.next();
-                rowNum++;
-                
+    private int readImportFile(Path file, ImportRowSink sink, ImportProgress progress) throws IOException {
+        ImportRowSink counted = (rowNum, cameraId, model, platformCode, status) -> {
+            progress.rowRead();
+            sink.accept(rowNum, cameraId, model, platformCode, status);
+        };
+        int totalRows = file.getFileName().toString().endsWith(".xlsx")
+                ? readExcelFile(file, counted, progress)
+                : readCsvFile(file, counted, progress);
+        progress.expectRows(totalRows);
+        return totalRows;
+    }
+    
+    /**
+     * Read Excel file, streaming rows from the sheet XML instead of loading the workbook.
+     */
+    private int readExcelFile(Path file, ImportRowSink sink, ImportProgress progress) throws IOException {
+        int[] totalRows = new int[1];
+        StreamingXlsxReader.read(file, 4, new StreamingXlsxReader.RowHandler() {
+            @Override
+            public void handleRow(int rowNum, String[] cells) {
                 // Skip header row
-                if (rowNum == 1) continue;
+                if (rowNum == 1) return;
                 
-                try {
-                    processCameraRow(row, job, rowNum);
-                } catch (Exception e) {
-                    errors.add("Row " + rowNum + ": " + e.getMessage());
-                }
+                totalRows[0]++;
+                sink.accept(rowNum, cells[0], cells[1], cells[2], cells[3]);
             }
-        }
+            
+            @Override
+            public void sheetDimension(int lastRowNumber) {
+                progress.expectRows(Math.max(0, lastRowNumber - 1));
+            }
+        });
+        return totalRows[0];
     }
     
     /**
-     * Process CSV file.
+     * Read CSV file.
      */
-    private void processCsvFile(MultipartFile file, ImportJob job, List<String> errors) throws IOException {
+    private int readCsvFile(Path file, ImportRowSink sink, ImportProgress progress) throws IOException {
         CsvMapper mapper = new CsvMapper();
         CsvSchema schema = CsvSchema.emptySchema().withHeader();
         
-        try (InputStream inputStream = file.getInputStream();
+        try (FileChannel channel = FileChannel.open(file);
+             InputStream inputStream = Channels.newInputStream(channel);
              MappingIterator<Map<String, String>> iterator = mapper.readerFor(Map.class)
                      .with(schema)
                      .readValues(inputStream)) {
@@ -200,118 +394,73 @@ public class ImportService {
             while (iterator.hasNext()) {
                 rowNum++;
                 Map<String, String> row = iterator.next();
-                
-                try {
-                    processCameraRow(row, job, rowNum);
-                } catch (Exception e) {
-                    errors.add("Row " + rowNum + ": " + e.getMessage());
+                sink.accept(rowNum, row.get("camera_id"), row.get("model"), row.get("platform_code"), row.get("status"));
+                if (rowNum % CSV_ESTIMATE_INTERVAL == 0) {
+                    // Extrapolate the row count from the share of the file consumed so far
+                    progress.expectRows((int) (channel.size() * (rowNum - 1) / Math.max(1, channel.position())));
                 }
             }
+            return rowNum - 1;
         }
     }
     
     /**
-     * Process camera row from Excel.
-     */
-    private void processCameraRow(Row row, ImportJob job, int rowNum) {
-        String cameraId = getCellValueAsString(row.getCell(0));
-        String model = getCellValueAsString(row.getCell(1));
-        String platformCode = getCellValueAsString(row.getCell(2));
-        String status = getCellValueAsString(row.getCell(3));
-        
-        processCameraData(cameraId, model, platformCode, status, rowNum);
-    }
-    
-    /**
-     * Process camera row from CSV.
+     * Validate camera data and convert it to an upsert; blank optional fields leave existing values unchanged.
+     * Called concurrently by the import pipeline's validators.
      */
-    private void processCameraRow(Map<String, String> row, ImportJob job, int rowNum) {
-        String cameraId = row.get("camera_id");
-        String model = row.get("model");
-        String platformCode = row.get("platform_code");
-        String status = row.get("status");
-        
-        processCameraData(cameraId, model, platformCode, status, rowNum);
-    }
-    
-    /**
-     * Process camera data and save to database.
-     */
-    private void processCameraData(String cameraId, String model, String platformCode, 
-                                 String status, int rowNum) {
+    private CameraBatchWriter.CameraUpsert processCameraData(String cameraId, String model, String platformCode, 
+                                                            String status, PlatformCatalog platforms, int rowNum) {
         // Validate required fields
         if (cameraId == null || cameraId.trim().isEmpty()) {
             throw new IllegalArgumentException("camera_id is required");
         }
         
-        if (!cameraId.matches("^[A-Za-z0-9_-]{3,128}$")) {
+        if (!CAMERA_ID_PATTERN.matcher(cameraId).matches()) {
             throw new IllegalArgumentException("Invalid camera_id format");
         }
         
         // Validate platform if provided
-        Platform platform = null;
+        String platform = null;
         if (platformCode != null && !platformCode.trim().isEmpty()) {
-            platform = platformRepository.findById(platformCode.trim())
-                    .orElseThrow(() -> new IllegalArgumentException("Platform not found: " + platformCode));
-        }
-        
-        // Check if camera already exists
-        Optional<Camera> existingCamera = cameraRepository.findByPublicId(cameraId.trim());
-        
-        Camera camera;
-        if (existingCamera.isPresent()) {
-            // Update existing camera
-            camera = existingCamera.get();
-            if (model != null && !model.trim().isEmpty()) {
-                camera.setModel(model.trim());
+            platform = platformCode.trim();
+            if (!platforms.contains(platform)) {
+                throw new IllegalArgumentException("Platform not found: " + platformCode);
             }
-            if (platform != null) {
-                camera.setTargetPlatform(platform);
-            }
-            if (status != null && !status.trim().isEmpty()) {
-                camera.setStatus(Camera.CameraStatus.fromValue(status.trim().toLowerCase()));
-            }
-        } else {
-            // Create new camera
-            camera = new Camera();
-            camera.setPublicId(cameraId.trim());
-            camera.setModel(model != null ? model.trim() : null);
-            camera.setTargetPlatform(platform);
-            camera.setStatus(status != null && !status.trim().isEmpty() ? 
-                    Camera.CameraStatus.fromValue(status.trim().toLowerCase()) : 
-                    Camera.CameraStatus.ACTIVE);
         }
         
-        cameraRepository.save(camera);
+        return new CameraBatchWriter.CameraUpsert(
+            rowNum,
+            cameraId.trim(),
+            model != null && !model.trim().isEmpty() ? model.trim() : null,
+            platform,
+            status != null && !status.trim().isEmpty() ? Camera.CameraStatus.fromValue(status.trim().toLowerCase()) : null
+        );
     }
     
     /**
-     * Get cell value as string from Excel row.
+     * How validated rows reach the cameras table: JDBC-batched upserts per chunk, or PostgreSQL COPY
+     * into a staging table merged in one statement.
      */
-    private String getCellValueAsString(Cell cell) {
-        if (cell == null) {
-            return null;
-        }
-        
-        switch (cell.getCellType()) {
-            case STRING:
-                return cell.getStringCellValue();
-            case NUMERIC:
-                if (DateUtil.isCellDateFormatted(cell)) {
-                    return cell.getDateCellValue().toString();
-                } else {
-                    return String.valueOf((long) cell.getNumericCellValue());
-                }
-            case BOOLEAN:
-                return String.valueOf(cell.getBooleanCellValue());
-            case FORMULA:
-                return cell.getCellFormula();
-            default:
-                return null;
-        }
+    public enum ImportMode {
+        BATCH, COPY
     }
     
+    /**
+     * Published when a job has been created and its upload spooled.
+     */
+    public record ImportJobQueued(UUID jobId, UUID uploaderId) {}
+    
+    /**
+     * {@code rowsPerSecond} and {@code etaSeconds} are only reported while the job runs on the node
+     * answering the request; {@code totalRows} is then the number of rows read so far.
+     * {@code nextErrorsAfter} is the cursor for the next page of errors, or {@code null} on the last page.
+     */
     public record ImportJobStatusResponse(UUID jobId, String status, Integer totalRows, 
                                         Integer successRows, Integer failedRows, 
-                                        List<String> errors) {}
+                                        Double rowsPerSecond, Long etaSeconds,
+                                        List<ImportErrorEntry> errors, Long nextErrorsAfter) {}
+    
+    public record ImportErrorEntry(long id, Integer rowNo, String cameraId, String message) {}
+    
+    private record ErrorPage(List<ImportErrorEntry> errors, Long nextErrorsAfter) {}
 }
\ No newline at end of file
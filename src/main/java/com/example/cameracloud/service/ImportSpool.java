@@ -0,0 +1,124 @@
+package com.example.cameracloud.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.UUID;
+
+/**
+ * Local disk copies of uploaded import files, kept in {@code app.import.spool-dir} until their job
+ * finishes.
+ *
+ * <p>Uploads are streamed into the spool with {@link FileChannel#transferFrom} a few megabytes at a
+ * time. The request thread therefore holds one transfer buffer however large the file is, and the
+ * upload is cut off as soon as it passes {@code app.upload.max-file-size}.
+ *
+ * <p>Jobs spooled here are owned by this node, identified by {@code app.import.node-id} or else
+ * the host name. The id must stay the same across restarts for a node to resume its own jobs
+ * without waiting for their lease to expire.
+ */
+@Component
+public class ImportSpool {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ImportSpool.class);
+    private static final long TRANSFER_CHUNK_BYTES = 8 * 1024 * 1024;
+    
+    private final Path directory;
+    private final DataSize maxFileSize;
+    private final String nodeId;
+    
+    public ImportSpool(@Value("${app.import.spool-dir:${java.io.tmpdir}/camera-imports}") Path directory,
+                       @Value("${app.upload.max-file-size:500MB}") DataSize maxFileSize,
+                       @Value("${app.import.node-id:}") String nodeId) {
+        this.directory = directory;
+        this.maxFileSize = maxFileSize;
+        this.nodeId = nodeId.isBlank() ? hostName() : nodeId;
+    }
+    
+    public DataSize getMaxFileSize() {
+        return maxFileSize;
+    }
+    
+    /**
+     * The node whose spool this is, recorded as the owner of the jobs it holds.
+     */
+    public String getNodeId() {
+        return nodeId;
+    }
+    
+    /**
+     * Streams {@code input} into a new spool file and returns its path. Throws
+     * {@link IllegalArgumentException} and leaves nothing behind if the input exceeds the size limit.
+     */
+    public Path receive(InputStream input) throws IOException {
+        Files.createDirectories(directory);
+        Path target = directory.resolve("upload-" + UUID.randomUUID() + ".part");
+        try (ReadableByteChannel source = Channels.newChannel(input);
+             FileChannel spool = FileChannel.open(target, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            long position = 0;
+            long transferred;
+            while ((transferred = spool.transferFrom(source, position, TRANSFER_CHUNK_BYTES)) > 0) {
+                position += transferred;
+                if (position > maxFileSize.toBytes()) {
+                    throw new IllegalArgumentException("File size exceeds " + maxFileSize.toMegabytes() + "MB limit");
+                }
+            }
+            if (position == 0) {
+                throw new IllegalArgumentException("File is empty");
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(target);
+            throw e;
+        }
+        return target;
+    }
+    
+    /**
+     * The spool file of {@code jobId}, whether or not it has been assigned yet.
+     */
+    public Path pathFor(UUID jobId, String extension) {
+        return directory.resolve(jobId + extension);
+    }
+    
+    /**
+     * Renames a received upload to the spool file of {@code jobId}.
+     */
+    public Path assign(Path received, UUID jobId, String extension) throws IOException {
+        return Files.move(received, pathFor(jobId, extension), StandardCopyOption.ATOMIC_MOVE);
+    }
+    
+    public void delete(Path spoolFile) {
+        if (spoolFile == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(spoolFile);
+        } catch (IOException e) {
+            logger.warn("Could not delete import spool file {}: {}", spoolFile, e.getMessage());
+        }
+    }
+    
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            String nodeId = UUID.randomUUID().toString();
+            logger.warn("Could not resolve the host name; using import node id {} until restart", nodeId);
+            return nodeId;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.cameracloud.service;
+
+import com.example.cameracloud.entity.Platform;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable snapshot of the platform codes that existed when it was loaded. Import jobs load one
+ * per job and validate every row against it instead of querying the platforms table per row;
+ * platforms created while a job runs are not seen by that job.
+ */
+public final class PlatformCatalog {
+    
+    private final Set<String> codes;
+    
+    private PlatformCatalog(Set<String> codes) {
+        this.codes = codes;
+    }
+    
+    public static PlatformCatalog of(Collection<Platform> platforms) {
+        return new PlatformCatalog(platforms.stream()
+            .map(Platform::getCode)
+            .collect(Collectors.toUnmodifiableSet()));
+    }
+    
+    public boolean contains(String code) {
+        return code != null && codes.contains(code);
+    }
+    
+    public int size() {
+        return codes.size();
+    }
+}
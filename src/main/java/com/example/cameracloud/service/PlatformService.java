@@ -33,6 +33,13 @@ public class PlatformService {
         return platformRepository.findById(code).orElse(null);
     }
     
+    /**
+     * Loads a snapshot of all platform codes for validating a whole import job.
+     */
+    public PlatformCatalog loadCatalog() {
+        return PlatformCatalog.of(platformRepository.findAll());
+    }
+    
     @Transactional
     public Platform createPlatform(String code, String name) {
         Platform platform = new Platform(code, name);
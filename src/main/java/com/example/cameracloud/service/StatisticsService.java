@@ -0,0 +1,96 @@
+package com.example.cameracloud.service;
+
+import com.example.cameracloud.entity.Camera;
+import com.example.cameracloud.repository.CameraRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Camera counts for the dashboards, computed by one {@code GROUP BY} over platform and status
+ * instead of loading cameras. The result is shared for {@code app.statistics.ttl-seconds}, so
+ * dashboard views cost nothing between refreshes and may lag writes by up to that long.
+ */
+@Service
+@Transactional(readOnly = true)
+public class StatisticsService {
+    
+    private static final String ALL = "all";
+    
+    private final CameraRepository cameraRepository;
+    private final Cache<String, CameraStatistics> cache;
+    
+    public StatisticsService(CameraRepository cameraRepository,
+                             MeterRegistry meterRegistry,
+                             @Value("${app.statistics.ttl-seconds:10}") long ttlSeconds) {
+        this.cameraRepository = cameraRepository;
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(1)
+            .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "camera.statistics");
+    }
+    
+    /**
+     * Counts of non-test cameras, overall and per platform.
+     */
+    public CameraStatistics getCameraStatistics() {
+        return cache.get(ALL, key -> CameraStatistics.of(cameraRepository.countByPlatformAndStatus()));
+    }
+    
+    /**
+     * The most recently updated active cameras, newest first.
+     */
+    public List<CameraRepository.RecentCamera> findRecentCameras(int limit) {
+        return cameraRepository.findRecentlyUpdated(Camera.CameraStatus.ACTIVE, Limit.of(limit));
+    }
+    
+    public record Counts(long total, long active, long disabled) {
+        
+        public static final Counts EMPTY = new Counts(0, 0, 0);
+        
+        Counts plus(Camera.CameraStatus status, long cameras) {
+            return new Counts(total + cameras,
+                status == Camera.CameraStatus.ACTIVE ? active + cameras : active,
+                status == Camera.CameraStatus.DISABLED ? disabled + cameras : disabled);
+        }
+        
+        /**
+         * Share of active cameras in percent, 0 when there are none.
+         */
+        public double uptimePercentage() {
+            return total > 0 ? (double) active / total * 100 : 0;
+        }
+    }
+    
+    public record CameraStatistics(Counts overall, Map<String, Counts> platforms) {
+        
+        static CameraStatistics of(List<CameraRepository.StatusCount> rows) {
+            Counts overall = Counts.EMPTY;
+            Map<String, Counts> platforms = new HashMap<>();
+            for (CameraRepository.StatusCount row : rows) {
+                overall = overall.plus(row.getStatus(), row.getCameras());
+                if (row.getPlatformCode() != null) {
+                    platforms.merge(row.getPlatformCode(), Counts.EMPTY.plus(row.getStatus(), row.getCameras()),
+                        (counts, more) -> counts.plus(row.getStatus(), row.getCameras()));
+                }
+            }
+            return new CameraStatistics(overall, Map.copyOf(platforms));
+        }
+        
+        public Counts platform(String platformCode) {
+            return platforms.getOrDefault(platformCode, Counts.EMPTY);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.cameracloud.util;
+
+/**
+ * Allocation-free 64-bit hashing for in-memory lookup structures keyed by camera ID.
+ */
+public final class Hashing {
+    
+    private Hashing() {}
+    
+    /**
+     * FNV-1a over the UTF-16 chars followed by the MurmurHash3 finalizer.
+     */
+    public static long hash64(CharSequence value) {
+        long hash = 0xCBF29CE484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001B3L;
+        }
+        return mix64(hash);
+    }
+    
+    /**
+     * MurmurHash3 fmix64 finalizer.
+     */
+    public static long mix64(long z) {
+        z = (z ^ (z >>> 33)) * 0xFF51AFD7ED558CCDL;
+        z = (z ^ (z >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return z ^ (z >>> 33);
+    }
+}
@@ -0,0 +1,195 @@
+package com.example.cameracloud.util;
+
+import org.apache.poi.UnsupportedFileFormatException;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.XMLFilterImpl;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Reads the first sheet of an .xlsx file row by row using POI's SAX event model.
+ *
+ * <p>Unlike {@code new XSSFWorkbook(...)}, which builds the whole sheet as objects in heap, only
+ * the current row is held while the sheet XML is parsed. The package is opened from a file so the
+ * zip is not buffered either; the one structure that grows with the file is the shared strings
+ * table, which holds each distinct string cell value once.
+ */
+public final class StreamingXlsxReader {
+    
+    /**
+     * Receives each non-empty row of the sheet.
+     */
+    @FunctionalInterface
+    public interface RowHandler {
+        
+        /**
+         * @param rowNumber 1-based row number as shown in Excel
+         * @param cells formatted cell values of the first {@code columns} columns; missing cells are {@code null}.
+         *              The array is reused for the next row.
+         */
+        void handleRow(int rowNumber, String[] cells);
+        
+        /**
+         * Called before the first row with the last row number declared by the sheet's
+         * {@code <dimension>} element, when the file has one. Writers may omit or misstate it,
+         * so treat it as an estimate.
+         */
+        default void sheetDimension(int lastRowNumber) {
+        }
+    }
+    
+    private StreamingXlsxReader() {
+    }
+    
+    /**
+     * Streams every row of the first sheet of {@code file} to {@code handler}.
+     */
+    public static void read(Path file, int columns, RowHandler handler) throws IOException {
+        try (OPCPackage pkg = OPCPackage.open(file.toFile(), PackageAccess.READ)) {
+            XSSFReader reader = new XSSFReader(pkg);
+            ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg);
+            StylesTable styles = reader.getStylesTable();
+            
+            XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+            if (!sheets.hasNext()) {
+                return;
+            }
+            try (InputStream sheet = sheets.next()) {
+                XMLReader parser = new DimensionFilter(XMLHelper.newXMLReader(), handler);
+                parser.setContentHandler(new XSSFSheetXMLHandler(
+                    styles, null, strings, new RowCollector(columns, handler), cellFormatter(), false));
+                parser.parse(new InputSource(sheet));
+            }
+        } catch (OpenXML4JException | UnsupportedFileFormatException | SAXException | ParserConfigurationException e) {
+            throw new IOException("Unable to read spreadsheet: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Spools {@code input} to a temporary file and streams it; the package format needs random access.
+     */
+    public static void read(InputStream input, int columns, RowHandler handler) throws IOException {
+        Path spool = Files.createTempFile("import-", ".xlsx");
+        try {
+            Files.copy(input, spool, StandardCopyOption.REPLACE_EXISTING);
+            read(spool, columns, handler);
+        } finally {
+            Files.deleteIfExists(spool);
+        }
+    }
+    
+    /**
+     * Formats numbers in "General" cells without grouping or scientific notation, so numeric IDs
+     * such as 1234567890123 come through as typed.
+     */
+    private static DataFormatter cellFormatter() {
+        DataFormatter formatter = new DataFormatter(Locale.ROOT);
+        formatter.addFormat("General", new DecimalFormat("0.##########", DecimalFormatSymbols.getInstance(Locale.ROOT)));
+        return formatter;
+    }
+    
+    /**
+     * Passes the last row of a {@code <dimension ref="A1:D1000"/>} element to the handler.
+     */
+    private static final class DimensionFilter extends XMLFilterImpl {
+        
+        private final RowHandler handler;
+        
+        DimensionFilter(XMLReader parent, RowHandler handler) {
+            super(parent);
+            this.handler = handler;
+        }
+        
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes atts) throws SAXException {
+            if ("dimension".equals(localName)) {
+                String ref = atts.getValue("ref");
+                if (ref != null) {
+                    int end = ref.lastIndexOf(':') + 1;
+                    int digits = end;
+                    while (digits < ref.length() && !Character.isDigit(ref.charAt(digits))) {
+                        digits++;
+                    }
+                    if (digits < ref.length()) {
+                        handler.sheetDimension(Integer.parseInt(ref.substring(digits)));
+                    }
+                }
+            }
+            super.startElement(uri, localName, qName, atts);
+        }
+    }
+    
+    private static final class RowCollector implements XSSFSheetXMLHandler.SheetContentsHandler {
+        
+        private final String[] cells;
+        private final RowHandler handler;
+        private boolean rowHasValues;
+        
+        RowCollector(int columns, RowHandler handler) {
+            this.cells = new String[columns];
+            this.handler = handler;
+        }
+        
+        @Override
+        public void startRow(int rowNum) {
+            Arrays.fill(cells, null);
+            rowHasValues = false;
+        }
+        
+        @Override
+        public void endRow(int rowNum) {
+            if (rowHasValues) {
+                handler.handleRow(rowNum + 1, cells);
+            }
+        }
+        
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            if (cellReference == null || formattedValue == null || formattedValue.isEmpty()) {
+                return;
+            }
+            int column = columnIndex(cellReference);
+            if (column < cells.length) {
+                cells[column] = formattedValue;
+                rowHasValues = true;
+            }
+        }
+        
+        /**
+         * Parses the column letters of a reference such as "AB12" without allocating.
+         */
+        private static int columnIndex(String cellReference) {
+            int column = 0;
+            for (int i = 0; i < cellReference.length(); i++) {
+                char c = cellReference.charAt(i);
+                if (c < 'A' || c > 'Z') {
+                    break;
+                }
+                column = column * 26 + (c - 'A' + 1);
+            }
+            return column - 1;
+        }
+    }
+}
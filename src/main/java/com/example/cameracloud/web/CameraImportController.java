@@ -1,6 +1,8 @@
 package com.example.cameracloud.web;
 
 import com.example.cameracloud.service.ImportService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
@@ -18,7 +20,7 @@ public class CameraImportController {
         this.importService = importService;
     }
     
-    @PostMapping("/import")
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public ResponseEntity<ImportJobResponse> importCameras(
             @RequestParam("file") MultipartFile file,
             Authentication authentication) {
@@ -28,7 +30,28 @@ public class CameraImportController {
         }
         
         try {
-            UUID jobId = importService.processImportFile(file);
+            UUID jobId = importService.processImportFile(file, authentication.getName());
+            return ResponseEntity.ok(new ImportJobResponse(jobId));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    /**
+     * Accepts the file as a raw request body, which is streamed to the spool without multipart parsing.
+     */
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<ImportJobResponse> importCamerasStream(
+            @RequestParam("fileName") String fileName,
+            HttpServletRequest request,
+            Authentication authentication) {
+        
+        if (authentication == null) {
+            return ResponseEntity.status(401).build();
+        }
+        
+        try {
+            UUID jobId = importService.processImportStream(fileName, request.getInputStream(), authentication.getName());
             return ResponseEntity.ok(new ImportJobResponse(jobId));
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
@@ -36,8 +59,11 @@ public class CameraImportController {
     }
     
     @GetMapping("/import/{jobId}")
-    public ResponseEntity<ImportService.ImportJobStatusResponse> getImportStatus(@PathVariable UUID jobId) {
-        ImportService.ImportJobStatusResponse response = importService.getImportStatus(jobId);
+    public ResponseEntity<ImportService.ImportJobStatusResponse> getImportStatus(
+            @PathVariable UUID jobId,
+            @RequestParam(required = false) Long errorsAfter,
+            @RequestParam(defaultValue = "50") int errorLimit) {
+        ImportService.ImportJobStatusResponse response = importService.getImportStatus(jobId, errorsAfter, errorLimit);
         return ResponseEntity.ok(response);
     }
     
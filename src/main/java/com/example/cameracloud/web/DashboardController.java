@@ -1,9 +1,9 @@
 package com.example.cameracloud.web;
 
-import com.example.cameracloud.entity.Camera;
 import com.example.cameracloud.entity.Platform;
 import com.example.cameracloud.service.CameraService;
 import com.example.cameracloud.service.PlatformService;
+import com.example.cameracloud.service.StatisticsService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
@@ -11,6 +11,7 @@ import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
@@ -25,10 +26,13 @@ public class DashboardController {
     
     private final PlatformService platformService;
     private final CameraService cameraService;
+    private final StatisticsService statisticsService;
     
-    public DashboardController(PlatformService platformService, CameraService cameraService) {
+    public DashboardController(PlatformService platformService, CameraService cameraService,
+                               StatisticsService statisticsService) {
         this.platformService = platformService;
         this.cameraService = cameraService;
+        this.statisticsService = statisticsService;
     }
     
     @GetMapping("/dashboard")
@@ -44,19 +48,11 @@ public class DashboardController {
         List<Platform> activePlatforms = platformService.findAllActive();
         
         // Get camera statistics
-        List<Camera> allCameras = cameraService.findWithFilters(null, null, null, null);
-        List<Camera> activeCameras = cameraService.findWithFilters(null, Camera.CameraStatus.ACTIVE, null, null);
-        List<Camera> disabledCameras = cameraService.findWithFilters(null, Camera.CameraStatus.DISABLED, null, null);
+        StatisticsService.Counts cameras = statisticsService.getCameraStatistics().overall();
         
         // Calculate statistics
         int totalPlatforms = allPlatforms.size();
         int activePlatformCount = activePlatforms.size();
-        int totalCameras = allCameras.size();
-        int activeCameraCount = activeCameras.size();
-        int disabledCameraCount = disabledCameras.size();
-        
-        // Calculate uptime percentage
-        double uptimePercentage = totalCameras > 0 ? (double) activeCameraCount / totalCameras * 100 : 0;
         
         // Get current time
         String currentTime = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
@@ -66,13 +62,13 @@ public class DashboardController {
         model.addAttribute("role", role);
         model.addAttribute("totalPlatforms", totalPlatforms);
         model.addAttribute("activePlatformCount", activePlatformCount);
-        model.addAttribute("totalCameras", totalCameras);
-        model.addAttribute("activeCameraCount", activeCameraCount);
-        model.addAttribute("disabledCameraCount", disabledCameraCount);
-        model.addAttribute("uptimePercentage", String.format("%.1f", uptimePercentage));
+        model.addAttribute("totalCameras", cameras.total());
+        model.addAttribute("activeCameraCount", cameras.active());
+        model.addAttribute("disabledCameraCount", cameras.disabled());
+        model.addAttribute("uptimePercentage", String.format("%.1f", cameras.uptimePercentage()));
         model.addAttribute("currentTime", currentTime);
         model.addAttribute("platforms", activePlatforms);
-        model.addAttribute("recentCameras", activeCameras.stream().limit(5).collect(Collectors.toList()));
+        model.addAttribute("recentCameras", statisticsService.findRecentCameras(5));
         
         return "dashboard";
     }
@@ -93,16 +89,15 @@ public class DashboardController {
         List<Platform> allPlatforms = platformService.findAll();
         List<Platform> activePlatforms = platformService.findAllActive();
         
-        // Get camera statistics for each platform
-        List<Camera> allCameras = cameraService.findWithFilters(null, null, null, null);
-        List<Camera> activeCameras = cameraService.findWithFilters(null, Camera.CameraStatus.ACTIVE, null, null);
+        // Get camera statistics
+        StatisticsService.Counts cameras = statisticsService.getCameraStatistics().overall();
         
         model.addAttribute("username", username);
         model.addAttribute("role", role);
         model.addAttribute("platforms", allPlatforms);
         model.addAttribute("activePlatforms", activePlatforms);
-        model.addAttribute("totalCameras", allCameras.size());
-        model.addAttribute("activeCameras", activeCameras.size());
+        model.addAttribute("totalCameras", cameras.total());
+        model.addAttribute("activeCameras", cameras.active());
         
         return "platforms";
     }
@@ -123,22 +118,23 @@ public class DashboardController {
         List<Platform> allPlatforms = platformService.findAll();
         List<Platform> activePlatforms = platformService.findAllActive();
         
-        // Get camera statistics for each platform
-        List<Camera> allCameras = cameraService.findWithFilters(null, null, null, null);
-        List<Camera> activeCameras = cameraService.findWithFilters(null, Camera.CameraStatus.ACTIVE, null, null);
+        // Get camera statistics
+        StatisticsService.Counts cameras = statisticsService.getCameraStatistics().overall();
         
         model.addAttribute("username", username);
         model.addAttribute("role", role);
         model.addAttribute("platforms", allPlatforms);
         model.addAttribute("activePlatforms", activePlatforms);
-        model.addAttribute("totalCameras", allCameras.size());
-        model.addAttribute("activeCameras", activeCameras.size());
+        model.addAttribute("totalCameras", cameras.total());
+        model.addAttribute("activeCameras", cameras.active());
         
         return "platforms";
     }
     
     @GetMapping("/platforms/{code}")
-    public String platformDetail(Authentication authentication, Model model, @PathVariable String code) {
+    public String platformDetail(Authentication authentication, Model model, @PathVariable String code,
+                                 @RequestParam(required = false) String after,
+                                 @RequestParam(defaultValue = "50") int size) {
         if (authentication == null) {
             return "redirect:/login";
         }
@@ -155,19 +151,19 @@ public class DashboardController {
             return "redirect:/platforms";
         }
         
-        // Get cameras for this platform
-        List<Camera> platformCameras = cameraService.findWithFilters(code, null, null, null);
-        List<Camera> activeCameras = platformCameras.stream()
-                .filter(camera -> camera.getStatus() == Camera.CameraStatus.ACTIVE)
-                .collect(Collectors.toList());
+        // Get one page of cameras for this platform; counts come from the statistics
+        CameraService.CameraPage page = cameraService.findPageWithFilters(code, null, null, null, after, size);
         
         model.addAttribute("username", username);
         model.addAttribute("role", role);
         model.addAttribute("platform", platform);
-        model.addAttribute("cameras", platformCameras);
-        model.addAttribute("activeCameras", activeCameras);
-        model.addAttribute("totalCameras", platformCameras.size());
-        model.addAttribute("activeCameraCount", activeCameras.size());
+        model.addAttribute("platformCameras", page.cameras());
+        model.addAttribute("nextCursor", page.nextCursor());
+        model.addAttribute("pageSize", CameraService.clampPageSize(size));
+        model.addAttribute("firstPage", after == null);
+        StatisticsService.Counts cameras = statisticsService.getCameraStatistics().platform(code);
+        model.addAttribute("totalCameras", cameras.total());
+        model.addAttribute("activeCameraCount", cameras.active());
         
         return "platform-detail";
     }
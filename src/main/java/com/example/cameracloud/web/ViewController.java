@@ -1,6 +1,5 @@
 package com.example.cameracloud.web;
 
-import com.example.cameracloud.entity.Camera;
 import com.example.cameracloud.rl.CameraRateLimiter;
 import com.example.cameracloud.service.CameraService;
 import jakarta.servlet.http.HttpServletRequest;
@@ -9,34 +8,53 @@ import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 
-import java.time.OffsetDateTime;
-import java.time.format.DateTimeFormatter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 @Controller
 @Validated
 public class ViewController {
     
     private static final Logger logger = LoggerFactory.getLogger(ViewController.class);
-    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final MediaType TEXT_HTML_UTF8 = new MediaType(MediaType.TEXT_HTML, StandardCharsets.UTF_8);
+    private static final java.util.regex.Pattern CAMERA_ID_PATTERN = java.util.regex.Pattern.compile("^[A-Za-z0-9_-]{3,128}$");
+    
+    /**
+     * Per-camera outcome of a batch view check.
+     */
+    public enum ViewOutcome {
+        ALLOW, RATE_LIMIT, NOT_FOUND, DISABLED, INVALID
+    }
     
     private final CameraRateLimiter rateLimiter;
     private final CameraService cameraService;
+    private final ViewPageRenderer pageRenderer;
+    private final int batchMaxSize;
     
-    public ViewController(CameraRateLimiter rateLimiter, CameraService cameraService) {
+    public ViewController(CameraRateLimiter rateLimiter, CameraService cameraService,
+                          @Value("${app.view.batch-max-size:100}") int batchMaxSize) {
         this.rateLimiter = rateLimiter;
         this.cameraService = cameraService;
+        this.pageRenderer = new ViewPageRenderer(rateLimiter.getWindowSeconds());
+        this.batchMaxSize = batchMaxSize;
     }
     
     @GetMapping(value = "/view", produces = MediaType.TEXT_HTML_VALUE)
-    public ResponseEntity<String> viewCamera(
+    public ResponseEntity<byte[]> viewCamera(
             @RequestParam("camera_id") 
             @NotBlank(message = "Camera ID is required")
             @Size(min = 3, max = 128, message = "Camera ID must be between 3 and 128 characters")
@@ -48,13 +66,13 @@ public class ViewController {
         
         try {
             // Check if camera exists and redirect is enabled
-            Camera camera = cameraService.findByPublicId(cameraId);
+            CameraService.CameraViewInfo camera = cameraService.findViewInfo(cameraId);
             if (camera == null) {
                 logger.info("Camera not found: camera_id={}, remote_ip={}", cameraId, remoteIp);
                 return createErrorResponse("Camera not found", HttpStatus.NOT_FOUND);
             }
             
-            if (!camera.getRedirectEnabled()) {
+            if (!camera.redirectEnabled()) {
                 logger.info("Camera redirect disabled: camera_id={}, remote_ip={}", cameraId, remoteIp);
                 return createErrorResponse("Camera stream is currently disabled", HttpStatus.FORBIDDEN);
             }
@@ -76,104 +94,80 @@ public class ViewController {
         }
     }
     
-    private ResponseEntity<String> createSuccessResponse(String cameraId) {
-        String html = String.format("""
-            <!DOCTYPE html>
-            <html lang="en">
-            <head>
-                <meta charset="UTF-8">
-                <meta name="viewport" content="width=device-width, initial-scale=1.0">
-                <meta name="robots" content="noindex,nofollow">
-                <title>Camera View - %s</title>
-                <style>
-                    body { font-family: Arial, sans-serif; margin: 40px; background-color: #f5f5f5; }
-                    .container { max-width: 600px; margin: 0 auto; background: white; padding: 30px; border-radius: 8px; box-shadow: 0 2px 10px rgba(0,0,0,0.1); }
-                    .camera-info { background: #e3f2fd; padding: 20px; border-radius: 4px; margin: 20px 0; }
-                    .time { color: #666; font-size: 14px; }
-                    h1 { color: #1976d2; margin-bottom: 20px; }
-                </style>
-            </head>
-            <body>
-                <div class="container">
-                    <h1>📹 Camera Stream</h1>
-                    <div class="camera-info">
-                        <strong>Camera ID:</strong> %s<br>
-                        <strong>Status:</strong> Active<br>
-                        <strong>Server Time:</strong> <span class="time">%s</span>
-                    </div>
-                    <p>Camera stream placeholder - actual streaming implementation would go here.</p>
-                </div>
-            </body>
-            </html>
-            """, cameraId, cameraId, OffsetDateTime.now().format(TIME_FORMATTER));
+    /**
+     * Checks up to {@code app.view.batch-max-size} cameras at once, taking a rate limit permit for
+     * every camera that can be viewed. Takes a JSON array of camera IDs and returns an object mapping
+     * each distinct ID to its {@link ViewOutcome}.
+     */
+    @PostMapping(value = "/view/batch", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Map<String, ViewOutcome>> viewCameras(@RequestBody List<String> cameraIds,
+                                                                HttpServletRequest request) {
+        String remoteIp = getClientIpAddress(request);
+        
+        if (cameraIds.isEmpty() || cameraIds.size() > batchMaxSize) {
+            logger.info("Camera batch view rejected: size={}, remote_ip={}", cameraIds.size(), remoteIp);
+            return ResponseEntity.badRequest().build();
+        }
         
+        try {
+            Map<String, ViewOutcome> outcomes = new LinkedHashMap<>();
+            List<String> viewable = new ArrayList<>();
+            for (String cameraId : cameraIds) {
+                if (cameraId == null || outcomes.containsKey(cameraId)) {
+                    continue;
+                }
+                ViewOutcome outcome = checkViewable(cameraId);
+                outcomes.put(cameraId, outcome);
+                if (outcome == ViewOutcome.ALLOW) {
+                    viewable.add(cameraId);
+                }
+            }
+            
+            rateLimiter.tryAcquireAll(viewable).forEach((cameraId, allowed) ->
+                outcomes.put(cameraId, allowed ? ViewOutcome.ALLOW : ViewOutcome.RATE_LIMIT));
+            
+            logger.info("Camera batch view checked: size={}, viewable={}, remote_ip={}", outcomes.size(), viewable.size(), remoteIp);
+            return ResponseEntity.ok()
+                    .header("Cache-Control", "no-store, no-cache, must-revalidate")
+                    .body(outcomes);
+            
+        } catch (Exception e) {
+            logger.error("Unexpected error in camera batch view: size={}, remote_ip={}", cameraIds.size(), remoteIp, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+    
+    private ViewOutcome checkViewable(String cameraId) {
+        if (!CAMERA_ID_PATTERN.matcher(cameraId).matches()) {
+            return ViewOutcome.INVALID;
+        }
+        CameraService.CameraViewInfo camera = cameraService.findViewInfo(cameraId);
+        if (camera == null) {
+            return ViewOutcome.NOT_FOUND;
+        }
+        return camera.redirectEnabled() ? ViewOutcome.ALLOW : ViewOutcome.DISABLED;
+    }
+    
+    private ResponseEntity<byte[]> createSuccessResponse(String cameraId) {
         return ResponseEntity.ok()
+                .contentType(TEXT_HTML_UTF8)
                 .header("Cache-Control", "no-store, no-cache, must-revalidate")
                 .header("Pragma", "no-cache")
                 .header("X-Frame-Options", "DENY")
                 .header("Referrer-Policy", "no-referrer")
-                .body(html);
+                .body(pageRenderer.renderSuccess(cameraId));
     }
     
-    private ResponseEntity<String> createRateLimitResponse() {
-        String html = String.format("""
-            <!DOCTYPE html>
-            <html lang="en">
-            <head>
-                <meta charset="UTF-8">
-                <meta name="viewport" content="width=device-width, initial-scale=1.0">
-                <meta name="robots" content="noindex,nofollow">
-                <title>Too Many Requests</title>
-                <style>
-                    body { font-family: Arial, sans-serif; margin: 40px; background-color: #f5f5f5; }
-                    .container { max-width: 600px; margin: 0 auto; background: white; padding: 30px; border-radius: 8px; box-shadow: 0 2px 10px rgba(0,0,0,0.1); }
-                    .error { background: #ffebee; padding: 20px; border-radius: 4px; margin: 20px 0; color: #c62828; }
-                    h1 { color: #c62828; margin-bottom: 20px; }
-                </style>
-            </head>
-            <body>
-                <div class="container">
-                    <h1>🚫 Too Many Requests</h1>
-                    <div class="error">
-                        <strong>Rate Limit Exceeded</strong><br>
-                        此 camera_id 在 %d 秒內已被使用，請稍後再試。
-                    </div>
-                </div>
-            </body>
-            </html>
-            """, rateLimiter.getWindowSeconds());
-        
-        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(html);
+    private ResponseEntity<byte[]> createRateLimitResponse() {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .contentType(TEXT_HTML_UTF8)
+                .body(pageRenderer.renderRateLimit());
     }
     
-    private ResponseEntity<String> createErrorResponse(String message, HttpStatus status) {
-        String html = String.format("""
-            <!DOCTYPE html>
-            <html lang="en">
-            <head>
-                <meta charset="UTF-8">
-                <meta name="viewport" content="width=device-width, initial-scale=1.0">
-                <meta name="robots" content="noindex,nofollow">
-                <title>%s</title>
-                <style>
-                    body { font-family: Arial, sans-serif; margin: 40px; background-color: #f5f5f5; }
-                    .container { max-width: 600px; margin: 0 auto; background: white; padding: 30px; border-radius: 8px; box-shadow: 0 2px 10px rgba(0,0,0,0.1); }
-                    .error { background: #ffebee; padding: 20px; border-radius: 4px; margin: 20px 0; color: #c62828; }
-                    h1 { color: #c62828; margin-bottom: 20px; }
-                </style>
-            </head>
-            <body>
-                <div class="container">
-                    <h1>❌ %s</h1>
-                    <div class="error">
-                        %s
-                    </div>
-                </div>
-            </body>
-            </html>
-            """, message, message, message);
-        
-        return ResponseEntity.status(status).body(html);
+    private ResponseEntity<byte[]> createErrorResponse(String message, HttpStatus status) {
+        return ResponseEntity.status(status)
+                .contentType(TEXT_HTML_UTF8)
+                .body(pageRenderer.renderError(message));
     }
     
     private String getClientIpAddress(HttpServletRequest request) {
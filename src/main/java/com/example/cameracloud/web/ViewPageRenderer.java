@@ -0,0 +1,192 @@
+package com.example.cameracloud.web;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Renders the /view HTML pages from templates that are split and UTF-8 encoded once at startup.
+ * A success page costs one exact-size byte[] with the camera ID and server time spliced in;
+ * rate-limit and error pages are fully pre-rendered and shared between requests.
+ */
+final class ViewPageRenderer {
+    
+    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final String PLACEHOLDER = "%s";
+    
+    private static final String SUCCESS_TEMPLATE = """
+        <!DOCTYPE html>
+        <html lang="en">
+        <head>
+            <meta charset="UTF-8">
+            <meta name="viewport" content="width=device-width, initial-scale=1.0">
+            <meta name="robots" content="noindex,nofollow">
+            <title>Camera View - %s</title>
+            <style>
+                body { font-family: Arial, sans-serif; margin: 40px; background-color: #f5f5f5; }
+                .container { max-width: 600px; margin: 0 auto; background: white; padding: 30px; border-radius: 8px; box-shadow: 0 2px 10px rgba(0,0,0,0.1); }
+                .camera-info { background: #e3f2fd; padding: 20px; border-radius: 4px; margin: 20px 0; }
+                .time { color: #666; font-size: 14px; }
+                h1 { color: #1976d2; margin-bottom: 20px; }
+            </style>
+        </head>
+        <body>
+            <div class="container">
+                <h1>📹 Camera Stream</h1>
+                <div class="camera-info">
+                    <strong>Camera ID:</strong> %s<br>
+                    <strong>Status:</strong> Active<br>
+                    <strong>Server Time:</strong> <span class="time">%s</span>
+                </div>
+                <p>Camera stream placeholder - actual streaming implementation would go here.</p>
+            </div>
+        </body>
+        </html>
+        """;
+    
+    private static final String RATE_LIMIT_TEMPLATE = """
+        <!DOCTYPE html>
+        <html lang="en">
+        <head>
+            <meta charset="UTF-8">
+            <meta name="viewport" content="width=device-width, initial-scale=1.0">
+            <meta name="robots" content="noindex,nofollow">
+            <title>Too Many Requests</title>
+            <style>
+                body { font-family: Arial, sans-serif; margin: 40px; background-color: #f5f5f5; }
+                .container { max-width: 600px; margin: 0 auto; background: white; padding: 30px; border-radius: 8px; box-shadow: 0 2px 10px rgba(0,0,0,0.1); }
+                .error { background: #ffebee; padding: 20px; border-radius: 4px; margin: 20px 0; color: #c62828; }
+                h1 { color: #c62828; margin-bottom: 20px; }
+            </style>
+        </head>
+        <body>
+            <div class="container">
+                <h1>🚫 Too Many Requests</h1>
+                <div class="error">
+                    <strong>Rate Limit Exceeded</strong><br>
+                    此 camera_id 在 %d 秒內已被使用，請稍後再試。
+                </div>
+            </div>
+        </body>
+        </html>
+        """;
+    
+    private static final String ERROR_TEMPLATE = """
+        <!DOCTYPE html>
+        <html lang="en">
+        <head>
+            <meta charset="UTF-8">
+            <meta name="viewport" content="width=device-width, initial-scale=1.0">
+            <meta name="robots" content="noindex,nofollow">
+            <title>%s</title>
+            <style>
+                body { font-family: Arial, sans-serif; margin: 40px; background-color: #f5f5f5; }
+                .container { max-width: 600px; margin: 0 auto; background: white; padding: 30px; border-radius: 8px; box-shadow: 0 2px 10px rgba(0,0,0,0.1); }
+                .error { background: #ffebee; padding: 20px; border-radius: 4px; margin: 20px 0; color: #c62828; }
+                h1 { color: #c62828; margin-bottom: 20px; }
+            </style>
+        </head>
+        <body>
+            <div class="container">
+                <h1>❌ %s</h1>
+                <div class="error">
+                    %s
+                </div>
+            </div>
+        </body>
+        </html>
+        """;
+    
+    private final byte[][] successSegments;
+    private final byte[] rateLimitPage;
+    private final ConcurrentHashMap<String, byte[]> errorPages = new ConcurrentHashMap<>();
+    private volatile ServerTime serverTime = new ServerTime(Long.MIN_VALUE, new byte[0]);
+    
+    ViewPageRenderer(int windowSeconds) {
+        this.successSegments = split(SUCCESS_TEMPLATE);
+        this.rateLimitPage = String.format(RATE_LIMIT_TEMPLATE, windowSeconds).getBytes(StandardCharsets.UTF_8);
+    }
+    
+    byte[] renderSuccess(String cameraId) {
+        byte[] time = currentServerTime();
+        byte[] id = isAscii(cameraId) ? null : cameraId.getBytes(StandardCharsets.UTF_8);
+        int idLength = id == null ? cameraId.length() : id.length;
+        
+        byte[][] segments = successSegments;
+        byte[] page = new byte[segments[0].length + segments[1].length + segments[2].length + segments[3].length
+            + 2 * idLength + time.length];
+        int pos = copy(segments[0], page, 0);
+        pos = copyId(cameraId, id, page, pos);
+        pos = copy(segments[1], page, pos);
+        pos = copyId(cameraId, id, page, pos);
+        pos = copy(segments[2], page, pos);
+        pos = copy(time, page, pos);
+        copy(segments[3], page, pos);
+        return page;
+    }
+    
+    byte[] renderRateLimit() {
+        return rateLimitPage;
+    }
+    
+    byte[] renderError(String message) {
+        return errorPages.computeIfAbsent(message,
+            m -> String.format(ERROR_TEMPLATE, m, m, m).getBytes(StandardCharsets.UTF_8));
+    }
+    
+    private byte[] currentServerTime() {
+        long epochSecond = System.currentTimeMillis() / 1000;
+        ServerTime cached = serverTime;
+        if (cached.epochSecond() != epochSecond) {
+            String formatted = OffsetDateTime.ofInstant(Instant.ofEpochSecond(epochSecond), ZoneId.systemDefault())
+                .format(TIME_FORMATTER);
+            cached = new ServerTime(epochSecond, formatted.getBytes(StandardCharsets.US_ASCII));
+            serverTime = cached;
+        }
+        return cached.bytes();
+    }
+    
+    private static boolean isAscii(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private static int copy(byte[] source, byte[] target, int pos) {
+        System.arraycopy(source, 0, target, pos, source.length);
+        return pos + source.length;
+    }
+    
+    private static int copyId(String cameraId, byte[] encoded, byte[] target, int pos) {
+        if (encoded != null) {
+            return copy(encoded, target, pos);
+        }
+        // ASCII-only IDs (anything that passed the camera_id pattern) map one char to one byte
+        for (int i = 0; i < cameraId.length(); i++) {
+            target[pos++] = (byte) cameraId.charAt(i);
+        }
+        return pos;
+    }
+    
+    private static byte[][] split(String template) {
+        List<byte[]> segments = new ArrayList<>();
+        int start = 0;
+        int index;
+        while ((index = template.indexOf(PLACEHOLDER, start)) >= 0) {
+            segments.add(template.substring(start, index).getBytes(StandardCharsets.UTF_8));
+            start = index + PLACEHOLDER.length();
+        }
+        segments.add(template.substring(start).getBytes(StandardCharsets.UTF_8));
+        return segments.toArray(new byte[0][]);
+    }
+    
+    private record ServerTime(long epochSecond, byte[] bytes) {}
+}
@@ -1,13 +1,18 @@
 package com.example.cameracloud.web.api;
 
 import com.example.cameracloud.entity.Camera;
+import com.example.cameracloud.service.CameraExportService;
 import com.example.cameracloud.service.CameraService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -15,9 +20,39 @@ import java.util.Map;
 public class CameraApiController {
     
     private final CameraService cameraService;
+    private final CameraExportService cameraExportService;
     
-    public CameraApiController(CameraService cameraService) {
+    public CameraApiController(CameraService cameraService, CameraExportService cameraExportService) {
         this.cameraService = cameraService;
+        this.cameraExportService = cameraExportService;
+    }
+    
+    /**
+     * Lists cameras a page at a time. Pass the previous response's {@code nextCursor} as
+     * {@code after} to continue; {@code size} is capped at {@link CameraService#MAX_PAGE_SIZE}.
+     */
+    @GetMapping
+    public ResponseEntity<CameraPageResponse> listCameras(
+            @RequestParam(required = false) String platformCode,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) Boolean redirectEnabled,
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "50") int size) {
+        
+        Camera.CameraStatus cameraStatus;
+        try {
+            cameraStatus = status != null ? Camera.CameraStatus.fromValue(status) : null;
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        
+        CameraService.CameraPage page = cameraService.findPageWithFilters(
+                platformCode, cameraStatus, redirectEnabled, search, after, size);
+        List<CameraSummary> cameras = page.cameras().stream()
+                .map(CameraSummary::of)
+                .toList();
+        return ResponseEntity.ok(new CameraPageResponse(cameras, page.nextCursor()));
     }
     
     @PostMapping("/import")
@@ -153,24 +188,46 @@ public class CameraApiController {
         }
     }
     
+    /**
+     * Streams the cameras as .csv (default) or .ndjson, gzip-compressed if {@code gzip} is present.
+     * {@code format=xlsx} is buffered on disk and only sent once every camera has been read. The
+     * response body is written on the MVC async executor so the request thread is not held for the
+     * length of the export.
+     */
     @GetMapping("/export")
-    public ResponseEntity<byte[]> exportCameras(
+    public ResponseEntity<StreamingResponseBody> exportCameras(
             @RequestParam(required = false) String platformCode,
+            @RequestParam(required = false) String format,
+            @RequestParam(required = false) String gzip,
             Authentication authentication) {
         
+        CameraExportService.ExportFormat exportFormat;
         try {
-            // TODO: 實現Excel匯出功能
-            // 這裡需要添加Excel匯出邏輯
-            
-            byte[] excelData = new byte[0]; // 暫時返回空數據
-            
-            return ResponseEntity.ok()
-                    .header("Content-Disposition", "attachment; filename=cameras.xlsx")
-                    .header("Content-Type", "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet")
-                    .body(excelData);
-            
-        } catch (Exception e) {
-            return ResponseEntity.internalServerError().build();
+            exportFormat = CameraExportService.ExportFormat.fromValue(format);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        boolean compress = gzip != null && !"false".equalsIgnoreCase(gzip);
+        
+        String fileName = "cameras." + exportFormat.getExtension() + (compress ? ".gz" : "");
+        StreamingResponseBody body = out -> cameraExportService.export(exportFormat, platformCode, compress, out);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + fileName)
+                .contentType(MediaType.parseMediaType(compress ? "application/gzip" : exportFormat.getContentType()))
+                .body(body);
+    }
+    
+    public record CameraPageResponse(List<CameraSummary> cameras, String nextCursor) {}
+    
+    public record CameraSummary(String cameraId, String model, String platformCode, String status, boolean redirectEnabled) {
+        static CameraSummary of(Camera camera) {
+            return new CameraSummary(
+                camera.getPublicId(),
+                camera.getModel(),
+                camera.getTargetPlatformCode(),
+                camera.getStatus().name().toLowerCase(),
+                Boolean.TRUE.equals(camera.getRedirectEnabled())
+            );
         }
     }
 }
@@ -0,0 +1,3 @@
+-- Checkpoints for resumable import jobs
+ALTER TABLE import_jobs ADD COLUMN spool_path VARCHAR(1024);
+ALTER TABLE import_jobs ADD COLUMN committed_row INTEGER;
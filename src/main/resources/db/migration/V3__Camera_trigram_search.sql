@@ -0,0 +1,5 @@
+-- Trigram indexes for camera search; LIKE/ILIKE '%term%' on these columns becomes a bitmap index scan
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX idx_cameras_public_id_trgm ON cameras USING gin (public_id gin_trgm_ops);
+CREATE INDEX idx_cameras_model_trgm ON cameras USING gin (model gin_trgm_ops);
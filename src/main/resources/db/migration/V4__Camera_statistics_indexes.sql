@@ -0,0 +1,3 @@
+-- Dashboard statistics: the per-platform/status GROUP BY becomes an index-only scan, recent cameras an index walk
+CREATE INDEX idx_cameras_platform_status ON cameras(target_platform_code, status) WHERE is_test_device = false;
+CREATE INDEX idx_cameras_status_updated_at ON cameras(status, updated_at DESC) WHERE is_test_device = false;
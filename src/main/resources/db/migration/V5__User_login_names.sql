@@ -0,0 +1,5 @@
+-- Login names of the accounts, matching the principals Spring Security authenticates
+ALTER TABLE users ADD COLUMN username VARCHAR(100) UNIQUE;
+
+UPDATE users SET username = 'admin' WHERE email = 'admin@example.com';
+UPDATE users SET username = 'platform_admin' WHERE email = 'platform@example.com';
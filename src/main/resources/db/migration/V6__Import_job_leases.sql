@@ -0,0 +1,5 @@
+-- Node that owns each import job, and when it last confirmed it is alive
+ALTER TABLE import_jobs ADD COLUMN owner_node VARCHAR(255);
+ALTER TABLE import_jobs ADD COLUMN lease_renewed_at TIMESTAMPTZ;
+
+CREATE INDEX idx_import_jobs_owner_status ON import_jobs(owner_node, status);
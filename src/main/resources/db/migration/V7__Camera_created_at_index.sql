@@ -0,0 +1,2 @@
+-- The camera ID filter reads the cameras created in the last few seconds on every catch-up
+CREATE INDEX idx_cameras_created_at ON cameras(created_at);
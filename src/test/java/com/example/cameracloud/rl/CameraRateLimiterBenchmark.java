@@ -0,0 +1,74 @@
+package com.example.cameracloud.rl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Heap footprint and multi-threaded throughput of the in-memory rate limiter stores.
+ * The footprint of each store after tracking {@code cameras} windows is printed during setup.
+ * {@code mvn -Pbenchmark test-compile exec:exec -Dbenchmark="CameraRateLimiterBenchmark"}
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms4g", "-Xmx4g"})
+@Threads(4)
+@State(Scope.Benchmark)
+public class CameraRateLimiterBenchmark {
+    
+    @Param({"map", "compact"})
+    public String store;
+    
+    @Param({"1000000"})
+    public int cameras;
+    
+    private String[] cameraIds;
+    private CameraRateLimiter rateLimiter;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger("com.example.cameracloud")).setLevel(ch.qos.logback.classic.Level.WARN);
+        
+        cameraIds = new String[cameras];
+        for (int i = 0; i < cameras; i++) {
+            cameraIds[i] = "CAMERA_" + i;
+        }
+        
+        long before = usedHeap();
+        rateLimiter = "compact".equals(store)
+            ? new CompactCameraRateLimiter(60, cameras * 2L, CompactCameraRateLimiter.OverflowPolicy.ALLOW, new SimpleMeterRegistry())
+            : new InMemoryCameraRateLimiter(60, 1000, System::nanoTime);
+        for (String cameraId : cameraIds) {
+            rateLimiter.tryAcquire(cameraId);
+        }
+        long after = usedHeap();
+        
+        System.out.printf("%n[%s] retained heap for %d windows: %d MB (%.1f bytes/window)%n",
+            store, cameras, (after - before) / (1024 * 1024), (double) (after - before) / cameras);
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (rateLimiter instanceof InMemoryCameraRateLimiter inMemory) {
+            inMemory.shutdown();
+        }
+    }
+    
+    @Benchmark
+    public boolean tryAcquire() {
+        return rateLimiter.tryAcquire(cameraIds[ThreadLocalRandom.current().nextInt(cameraIds.length)]);
+    }
+    
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
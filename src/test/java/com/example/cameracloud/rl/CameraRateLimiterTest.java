@@ -1,84 +1,80 @@
 package com.example.cameracloud.rl;
 
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.springframework.data.redis.core.StringRedisTemplate;
-import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.test.context.TestPropertySource;
 
 import java.time.Duration;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyString;
-import static org.mockito.ArgumentMatchers.eq;
-import static org.mockito.Mockito.*;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 
 @TestPropertySource(properties = "app.rate.window-seconds=60")
 class CameraRateLimiterTest {
     
-    private StringRedisTemplate redisTemplate;
-    private ValueOperations<String, String> valueOperations;
+    private FakeRedis redis;
     private RedisCameraRateLimiter rateLimiter;
     
     @BeforeEach
     void setUp() {
-        redisTemplate = mock(StringRedisTemplate.class);
-        valueOperations = mock(ValueOperations.class);
-        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
-        rateLimiter = new RedisCameraRateLimiter(redisTemplate, 60);
+        redis = new FakeRedis();
+        rateLimiter = RateLimiterFixtures.redisRateLimiter(redis.template(), 60);
+    }
+    
+    @AfterEach
+    void tearDown() {
+        rateLimiter.shutdown();
     }
     
     @Test
     void testTryAcquire_FirstRequest_ShouldAllow() {
         // Given
         String cameraId = "CAMERA_001";
-        when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class)))
-            .thenReturn(true);
         
         // When
         boolean result = rateLimiter.tryAcquire(cameraId);
         
         // Then
         assertTrue(result);
-        verify(valueOperations).setIfAbsent(
-            eq("rate:view:" + cameraId), 
-            eq("1"), 
-            eq(Duration.ofSeconds(60))
-        );
+        assertEquals(1, redis.roundTrips());
+        RedisCameraRateLimiter otherNode = RateLimiterFixtures.redisRateLimiter(redis.template(), 60);
+        try {
+            assertFalse(otherNode.tryAcquire(cameraId), "The window is held in Redis for all nodes");
+        } finally {
+            otherNode.shutdown();
+        }
     }
     
     @Test
     void testTryAcquire_SecondRequestWithinWindow_ShouldBlock() {
         // Given
         String cameraId = "CAMERA_001";
-        when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class)))
-            .thenReturn(false);
+        redis.set("rate:view:" + cameraId, Duration.ofSeconds(60));
         
         // When
         boolean result = rateLimiter.tryAcquire(cameraId);
         
         // Then
         assertFalse(result);
-        verify(valueOperations).setIfAbsent(
-            eq("rate:view:" + cameraId), 
-            eq("1"), 
-            eq(Duration.ofSeconds(60))
-        );
+        assertEquals(1, redis.roundTrips(), "SET NX and PTTL share one round trip");
+        verify(redis.template(), never()).executePipelined(any(RedisCallback.class));
     }
     
     @Test
     void testTryAcquire_RedisException_ShouldAllow() {
         // Given
         String cameraId = "CAMERA_001";
-        when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class)))
-            .thenThrow(new RuntimeException("Redis connection failed"));
+        redis.setFailing(true);
         
         // When
         boolean result = rateLimiter.tryAcquire(cameraId);
         
         // Then
-        assertTrue(result); // Fail open
+        assertTrue(result); // Falls back to the local limiter, which has no window yet
     }
     
     @Test
@@ -0,0 +1,137 @@
+package com.example.cameracloud.rl;
+
+import com.example.cameracloud.rl.CompactCameraRateLimiter.OverflowPolicy;
+import com.example.cameracloud.util.Hashing;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompactCameraRateLimiterTest {
+    
+    private static final int WINDOW_SECONDS = 60;
+    private static final int SEGMENTS = 1 << CompactCameraRateLimiter.SEGMENT_BITS;
+    
+    private AtomicLong clock;
+    private SimpleMeterRegistry meterRegistry;
+    
+    @BeforeEach
+    void setUp() {
+        clock = new AtomicLong(System.nanoTime());
+        meterRegistry = new SimpleMeterRegistry();
+    }
+    
+    @Test
+    void testTryAcquire_FirstRequestAllowedSecondBlocked() {
+        CompactCameraRateLimiter rateLimiter = newLimiter(1024, OverflowPolicy.ALLOW);
+        
+        assertTrue(rateLimiter.tryAcquire("CAMERA_001"));
+        assertFalse(rateLimiter.tryAcquire("CAMERA_001"));
+        assertTrue(rateLimiter.tryAcquire("CAMERA_002"));
+    }
+    
+    @Test
+    void testTryAcquire_AfterWindowExpires_ShouldAllowAgain() {
+        CompactCameraRateLimiter rateLimiter = newLimiter(1024, OverflowPolicy.ALLOW);
+        assertTrue(rateLimiter.tryAcquire("CAMERA_001"));
+        
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(WINDOW_SECONDS));
+        assertFalse(rateLimiter.tryAcquire("CAMERA_001"));
+        
+        clock.incrementAndGet();
+        assertTrue(rateLimiter.tryAcquire("CAMERA_001"));
+        assertFalse(rateLimiter.tryAcquire("CAMERA_001"));
+    }
+    
+    @Test
+    void testTryAcquire_ExpiredSlotReusedByAnotherCamera() {
+        // Given - the smallest table, with every slot of one segment holding a window
+        CompactCameraRateLimiter rateLimiter = newLimiter(0, OverflowPolicy.BLOCK);
+        List<String> cameras = camerasInOneSegment(CompactCameraRateLimiter.MAX_PROBES + 1);
+        for (String camera : cameras.subList(0, CompactCameraRateLimiter.MAX_PROBES)) {
+            assertTrue(rateLimiter.tryAcquire(camera));
+        }
+        
+        // When
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(WINDOW_SECONDS) + 1);
+        String newcomer = cameras.get(CompactCameraRateLimiter.MAX_PROBES);
+        
+        // Then - the newcomer takes over an ended window and is tracked from then on
+        assertTrue(rateLimiter.tryAcquire(newcomer));
+        assertFalse(rateLimiter.tryAcquire(newcomer));
+        assertEquals(0.0, overflows());
+    }
+    
+    @Test
+    void testTryAcquire_ProbeRangeFull_AllowPolicyAllowsUntracked() {
+        // Given
+        CompactCameraRateLimiter rateLimiter = newLimiter(0, OverflowPolicy.ALLOW);
+        List<String> cameras = camerasInOneSegment(CompactCameraRateLimiter.MAX_PROBES + 1);
+        for (String camera : cameras.subList(0, CompactCameraRateLimiter.MAX_PROBES)) {
+            assertTrue(rateLimiter.tryAcquire(camera));
+        }
+        String overflowing = cameras.get(CompactCameraRateLimiter.MAX_PROBES);
+        
+        // When / Then
+        assertTrue(rateLimiter.tryAcquire(overflowing));
+        assertTrue(rateLimiter.tryAcquire(overflowing));
+        assertEquals(2.0, overflows());
+        assertFalse(rateLimiter.tryAcquire(cameras.get(0)));
+    }
+    
+    @Test
+    void testTryAcquire_ProbeRangeFull_BlockPolicyBlocks() {
+        // Given
+        CompactCameraRateLimiter rateLimiter = newLimiter(0, OverflowPolicy.BLOCK);
+        List<String> cameras = camerasInOneSegment(CompactCameraRateLimiter.MAX_PROBES + 1);
+        for (String camera : cameras.subList(0, CompactCameraRateLimiter.MAX_PROBES)) {
+            assertTrue(rateLimiter.tryAcquire(camera));
+        }
+        String overflowing = cameras.get(CompactCameraRateLimiter.MAX_PROBES);
+        
+        // When / Then
+        assertFalse(rateLimiter.tryAcquire(overflowing));
+        assertEquals(1.0, overflows());
+        
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(WINDOW_SECONDS) + 1);
+        assertTrue(rateLimiter.tryAcquire(overflowing));
+        assertEquals(1.0, overflows());
+    }
+    
+    @Test
+    void testConstructor_RoundsCapacityUpToPowerOfTwoSegments() {
+        int minimum = SEGMENTS * CompactCameraRateLimiter.MAX_PROBES;
+        
+        assertEquals(minimum, newLimiter(0, OverflowPolicy.ALLOW).getCapacity());
+        assertEquals(minimum, newLimiter(minimum, OverflowPolicy.ALLOW).getCapacity());
+        assertEquals(2L * minimum, newLimiter(minimum + 1, OverflowPolicy.ALLOW).getCapacity());
+        assertEquals(1L << 16, newLimiter(1L << 16, OverflowPolicy.ALLOW).getCapacity());
+        assertEquals(1L << 20, newLimiter(1_000_000, OverflowPolicy.ALLOW).getCapacity());
+    }
+    
+    private CompactCameraRateLimiter newLimiter(long capacity, OverflowPolicy overflowPolicy) {
+        return new CompactCameraRateLimiter(WINDOW_SECONDS, capacity, overflowPolicy, meterRegistry, clock::get);
+    }
+    
+    private double overflows() {
+        return meterRegistry.get("camera.rate.compact.overflows").counter().count();
+    }
+    
+    /** Camera IDs whose hashes all select the same segment, so they compete for its slots. */
+    private static List<String> camerasInOneSegment(int count) {
+        List<String> cameras = new ArrayList<>();
+        for (int i = 0; cameras.size() < count; i++) {
+            String camera = "CAMERA_" + i;
+            if (Hashing.hash64(camera) >>> (Long.SIZE - CompactCameraRateLimiter.SEGMENT_BITS) == 0) {
+                cameras.add(camera);
+            }
+        }
+        return cameras;
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.cameracloud.rl;
+
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisKeyCommands;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * In-memory stand-in for the Redis commands used by the rate limiters, backed by a
+ * {@link StringRedisTemplate} mock. Keys expire on the real clock and every command is counted.
+ * Latency and failures can be injected to simulate a Redis incident.
+ */
+class FakeRedis {
+    
+    private final ConcurrentHashMap<String, Long> expiresAtNanos = new ConcurrentHashMap<>();
+    private final AtomicInteger roundTrips = new AtomicInteger();
+    private final StringRedisTemplate template;
+    private volatile long latencyMillis;
+    private volatile boolean failing;
+    
+    @SuppressWarnings("unchecked")
+    FakeRedis() {
+        template = mock(StringRedisTemplate.class);
+        ValueOperations<String, String> valueOperations = mock(ValueOperations.class);
+        when(template.opsForValue()).thenReturn(valueOperations);
+        
+        when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenAnswer(invocation -> {
+            roundTrip();
+            String key = invocation.getArgument(0);
+            Duration ttl = invocation.getArgument(2);
+            return setIfAbsent(key, ttl.toNanos());
+        });
+        when(template.getExpire(anyString(), any(TimeUnit.class))).thenAnswer(invocation -> {
+            roundTrip();
+            String key = invocation.getArgument(0);
+            TimeUnit unit = invocation.getArgument(1);
+            return ttl(key, unit);
+        });
+        // RedisCameraRateLimiter.ACQUIRE_WINDOW
+        when(template.execute(any(RedisScript.class), anyList(), any())).thenAnswer(invocation -> {
+            roundTrip();
+            String key = ((List<String>) invocation.getArgument(1)).get(0);
+            long windowSeconds = Long.parseLong(invocation.getArgument(2).toString());
+            return setIfAbsent(key, TimeUnit.SECONDS.toNanos(windowSeconds)) ? 0L : Math.max(ttl(key, TimeUnit.MILLISECONDS), 1L);
+        });
+        when(template.executePipelined(any(RedisCallback.class))).thenAnswer(invocation ->
+            executePipelined(invocation.getArgument(0)));
+    }
+    
+    @SuppressWarnings("unchecked")
+    private List<Object> executePipelined(RedisCallback<?> callback) throws Exception {
+        roundTrip();
+        List<Object> replies = new ArrayList<>();
+        RedisConnection connection = mock(RedisConnection.class);
+        RedisStringCommands stringCommands = mock(RedisStringCommands.class);
+        RedisKeyCommands keyCommands = mock(RedisKeyCommands.class);
+        when(connection.stringCommands()).thenReturn(stringCommands);
+        when(connection.keyCommands()).thenReturn(keyCommands);
+        when(stringCommands.set(any(byte[].class), any(byte[].class), any(Expiration.class), any(RedisStringCommands.SetOption.class)))
+            .thenAnswer(invocation -> {
+                String key = new String((byte[]) invocation.getArgument(0), StandardCharsets.UTF_8);
+                Expiration expiration = invocation.getArgument(2);
+                replies.add(setIfAbsent(key, TimeUnit.MILLISECONDS.toNanos(expiration.getExpirationTimeInMilliseconds())));
+                return null;
+            });
+        when(keyCommands.pTtl(any(byte[].class))).thenAnswer(invocation -> {
+            String key = new String((byte[]) invocation.getArgument(0), StandardCharsets.UTF_8);
+            replies.add(ttl(key, TimeUnit.MILLISECONDS));
+            return null;
+        });
+        callback.doInRedis(connection);
+        return replies;
+    }
+    
+    StringRedisTemplate template() {
+        return template;
+    }
+    
+    int roundTrips() {
+        return roundTrips.get();
+    }
+    
+    void setLatencyMillis(long latencyMillis) {
+        this.latencyMillis = latencyMillis;
+    }
+    
+    void setFailing(boolean failing) {
+        this.failing = failing;
+    }
+    
+    /**
+     * Sets a key as another node would.
+     */
+    void set(String key, Duration ttl) {
+        expiresAtNanos.put(key, System.nanoTime() + ttl.toNanos());
+    }
+    
+    private void roundTrip() throws InterruptedException {
+        roundTrips.incrementAndGet();
+        if (latencyMillis > 0) {
+            Thread.sleep(latencyMillis);
+        }
+        if (failing) {
+            throw new RedisConnectionFailureException("Injected failure");
+        }
+    }
+    
+    private long ttl(String key, TimeUnit unit) {
+        Long expiresAt = expiresAtNanos.get(key);
+        long remaining = expiresAt == null ? -1 : expiresAt - System.nanoTime();
+        return remaining <= 0 ? -2L : unit.convert(remaining, TimeUnit.NANOSECONDS);
+    }
+    
+    private boolean setIfAbsent(String key, long ttlNanos) {
+        long now = System.nanoTime();
+        boolean[] created = new boolean[1];
+        expiresAtNanos.compute(key, (k, expiresAt) -> {
+            if (expiresAt != null && expiresAt - now > 0) {
+                return expiresAt;
+            }
+            created[0] = true;
+            return now + ttlNanos;
+        });
+        return created[0];
+    }
+}
@@ -0,0 +1,170 @@
+package com.example.cameracloud.rl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryCameraRateLimiterTest {
+    
+    private static final int THREADS = 16;
+    
+    private AtomicLong clock;
+    private InMemoryCameraRateLimiter rateLimiter;
+    private ExecutorService executor;
+    
+    @BeforeEach
+    void setUp() {
+        clock = new AtomicLong(System.nanoTime());
+        rateLimiter = new InMemoryCameraRateLimiter(60, 1000, clock::get);
+        executor = Executors.newFixedThreadPool(THREADS);
+    }
+    
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        rateLimiter.shutdown();
+    }
+    
+    @Test
+    void testTryAcquire_FirstRequestAllowedSecondBlocked() {
+        assertTrue(rateLimiter.tryAcquire("CAMERA_001"));
+        assertFalse(rateLimiter.tryAcquire("CAMERA_001"));
+        assertTrue(rateLimiter.tryAcquire("CAMERA_002"));
+    }
+    
+    @Test
+    void testTryAcquire_AfterWindowExpires_ShouldAllowAgain() {
+        assertTrue(rateLimiter.tryAcquire("CAMERA_001"));
+        
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(60));
+        assertFalse(rateLimiter.tryAcquire("CAMERA_001"));
+        
+        clock.incrementAndGet();
+        assertTrue(rateLimiter.tryAcquire("CAMERA_001"));
+    }
+    
+    @Test
+    void testTryAcquire_ConcurrentRequestsForSameCamera_ExactlyOneWinner() throws Exception {
+        // Given
+        AtomicInteger winners = new AtomicInteger();
+        
+        // When
+        runConcurrently(() -> {
+            for (int i = 0; i < 1_000; i++) {
+                if (rateLimiter.tryAcquire("CAMERA_001")) {
+                    winners.incrementAndGet();
+                }
+            }
+        });
+        
+        // Then
+        assertEquals(1, winners.get());
+    }
+    
+    @Test
+    void testTryAcquire_ConcurrentRequestsAcrossWindowsAndCleanup_ExactlyOneWinnerPerWindow() throws Exception {
+        // Given
+        int cameras = 500;
+        int windows = 20;
+        AtomicLongArray winners = new AtomicLongArray(cameras);
+        
+        for (int window = 0; window < windows; window++) {
+            // When
+            runConcurrently(() -> {
+                for (int camera = 0; camera < cameras; camera++) {
+                    if (rateLimiter.tryAcquire("CAMERA_" + camera)) {
+                        winners.incrementAndGet(camera);
+                    }
+                }
+                rateLimiter.expireEntries();
+            });
+            clock.addAndGet(TimeUnit.SECONDS.toNanos(61));
+        }
+        
+        // Then
+        for (int camera = 0; camera < cameras; camera++) {
+            assertEquals(windows, winners.get(camera), "winners for CAMERA_" + camera);
+        }
+    }
+    
+    @Test
+    void testExpireEntries_RemovesOnlyExpiredEntries() {
+        rateLimiter.tryAcquire("CAMERA_001");
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(61));
+        rateLimiter.tryAcquire("CAMERA_002");
+        
+        rateLimiter.expireEntries();
+        
+        assertEquals(1, rateLimiter.size());
+        assertFalse(rateLimiter.tryAcquire("CAMERA_002"));
+        assertTrue(rateLimiter.tryAcquire("CAMERA_001"));
+    }
+    
+    @Test
+    void testExpireEntries_ReclaimsWithinOneTickOfWindowEnd() {
+        // Given
+        rateLimiter.tryAcquire("CAMERA_001");
+        
+        // When - exactly at the end of the window the entry is still live
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(60));
+        rateLimiter.expireEntries();
+        assertEquals(1, rateLimiter.size());
+        
+        // Then - one tick later it has been reclaimed
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        rateLimiter.expireEntries();
+        assertEquals(0, rateLimiter.size());
+    }
+    
+    @Test
+    void testExpireEntries_RenewedEntryIsKeptUntilItsNewWindowEnds() {
+        rateLimiter.tryAcquire("CAMERA_001");
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(61));
+        assertTrue(rateLimiter.tryAcquire("CAMERA_001"));
+        
+        rateLimiter.expireEntries();
+        assertEquals(1, rateLimiter.size());
+        assertFalse(rateLimiter.tryAcquire("CAMERA_001"));
+        
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(62));
+        rateLimiter.expireEntries();
+        assertEquals(0, rateLimiter.size());
+    }
+    
+    @Test
+    void testExpireEntries_DrainingAfterLongPause_ReclaimsEverything() {
+        for (int i = 0; i < 100; i++) {
+            rateLimiter.tryAcquire("CAMERA_" + i);
+            clock.addAndGet(TimeUnit.SECONDS.toNanos(7));
+        }
+        
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(61));
+        rateLimiter.expireEntries();
+        
+        assertEquals(0, rateLimiter.size());
+    }
+    
+    private void runConcurrently(Runnable task) throws Exception {
+        CyclicBarrier start = new CyclicBarrier(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                task.run();
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.cameracloud.rl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+/**
+ * Rate limiters wired with the application's default settings and throwaway meter registries.
+ */
+final class RateLimiterFixtures {
+    
+    private RateLimiterFixtures() {}
+    
+    static RedisCircuitBreaker circuitBreaker() {
+        return new RedisCircuitBreaker(50, 100, 50, 10, 10, 3, new SimpleMeterRegistry());
+    }
+    
+    static RedisCameraRateLimiter redisRateLimiter(StringRedisTemplate redisTemplate, int windowSeconds) {
+        return new RedisCameraRateLimiter(redisTemplate, windowSeconds, 100_000, 1000, circuitBreaker(), new SimpleMeterRegistry());
+    }
+}
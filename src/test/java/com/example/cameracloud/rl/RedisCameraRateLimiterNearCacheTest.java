@@ -0,0 +1,112 @@
+package com.example.cameracloud.rl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RedisCameraRateLimiterNearCacheTest {
+    
+    private FakeRedis redis;
+    private RedisCameraRateLimiter rateLimiter;
+    
+    @BeforeEach
+    void setUp() {
+        redis = new FakeRedis();
+        rateLimiter = new RedisCameraRateLimiter(redis.template(), 60, 10_000, 1000,
+            RateLimiterFixtures.circuitBreaker(), new SimpleMeterRegistry());
+    }
+    
+    @AfterEach
+    void tearDown() {
+        rateLimiter.shutdown();
+    }
+    
+    @Test
+    void testRepeatRequestsAfterAllow_AreBlockedWithoutRedis() {
+        // When
+        assertTrue(rateLimiter.tryAcquire("CAMERA_001"));
+        for (int i = 0; i < 999; i++) {
+            assertFalse(rateLimiter.tryAcquire("CAMERA_001"));
+        }
+        
+        // Then
+        assertEquals(1, redis.roundTrips());
+        assertEquals(999.0, rateLimiter.roundTripsSavedPer1k(), 0.001);
+    }
+    
+    @Test
+    void testWindowHeldByAnotherNode_IsCachedForItsRemainingTtl() {
+        // Given
+        redis.set("rate:view:CAMERA_001", Duration.ofSeconds(60));
+        
+        // When
+        for (int i = 0; i < 1_000; i++) {
+            assertFalse(rateLimiter.tryAcquire("CAMERA_001"));
+        }
+        
+        // Then - one failed SET NX pipelined with its TTL lookup
+        assertEquals(1, redis.roundTrips());
+        assertEquals(999.0, rateLimiter.roundTripsSavedPer1k(), 0.001);
+    }
+    
+    @Test
+    void testNearCache_NeverBlocksLongerThanRedis() throws Exception {
+        // Given
+        redis.set("rate:view:CAMERA_001", Duration.ofMillis(100));
+        assertFalse(rateLimiter.tryAcquire("CAMERA_001"));
+        
+        // When
+        Thread.sleep(150);
+        
+        // Then
+        assertTrue(rateLimiter.tryAcquire("CAMERA_001"));
+    }
+    
+    @Test
+    void testDifferentCameras_AreNotAffectedByEachOthersNearCacheEntries() {
+        assertTrue(rateLimiter.tryAcquire("CAMERA_001"));
+        assertTrue(rateLimiter.tryAcquire("CAMERA_002"));
+        assertFalse(rateLimiter.tryAcquire("CAMERA_002"));
+        
+        assertEquals(2, redis.roundTrips());
+    }
+    
+    @Test
+    void testTryAcquireAll_UsesOnePipelinedRoundTrip() {
+        // Given
+        redis.set("rate:view:CAMERA_002", Duration.ofSeconds(60));
+        List<String> cameraIds = List.of("CAMERA_001", "CAMERA_002", "CAMERA_003", "CAMERA_001");
+        
+        // When
+        Map<String, Boolean> results = rateLimiter.tryAcquireAll(cameraIds);
+        
+        // Then
+        assertEquals(Map.of("CAMERA_001", true, "CAMERA_002", false, "CAMERA_003", true), results);
+        assertEquals(List.of("CAMERA_001", "CAMERA_002", "CAMERA_003"), List.copyOf(results.keySet()));
+        assertEquals(1, redis.roundTrips());
+    }
+    
+    @Test
+    void testTryAcquireAll_AnswersKnownBlockedCamerasLocally() {
+        // Given
+        rateLimiter.tryAcquireAll(List.of("CAMERA_001", "CAMERA_002"));
+        redis.set("rate:view:CAMERA_003", Duration.ofSeconds(60));
+        rateLimiter.tryAcquireAll(List.of("CAMERA_003"));
+        
+        // When
+        Map<String, Boolean> results = rateLimiter.tryAcquireAll(List.of("CAMERA_001", "CAMERA_002", "CAMERA_003"));
+        
+        // Then
+        assertEquals(Map.of("CAMERA_001", false, "CAMERA_002", false, "CAMERA_003", false), results);
+        assertEquals(2, redis.roundTrips());
+        assertFalse(rateLimiter.tryAcquire("CAMERA_003"));
+        assertEquals(2, redis.roundTrips());
+    }
+}
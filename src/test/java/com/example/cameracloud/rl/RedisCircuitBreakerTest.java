@@ -0,0 +1,181 @@
+package com.example.cameracloud.rl;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RedisCircuitBreakerTest {
+    
+    private final AtomicLong clock = new AtomicLong();
+    private MeterRegistry meterRegistry;
+    private RedisCircuitBreaker breaker;
+    
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        // 50% failure threshold over the last 10 calls, 50ms slow calls, open for 1s, 2 probes
+        breaker = new RedisCircuitBreaker(50, 50, 10, 4, 1000, 2, meterRegistry, clock::get);
+    }
+    
+    @Test
+    void testFailures_OpenBreakerOnceThresholdIsReached() {
+        // When
+        succeed();
+        fail();
+        succeed();
+        assertEquals(RedisCircuitBreaker.State.CLOSED, breaker.getState());
+        fail();
+        
+        // Then - 2 of 4 calls failed
+        assertEquals(RedisCircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquirePermission());
+        assertEquals(1.0, meterRegistry.get("camera.rate.redis.breaker.state").gauge().value());
+    }
+    
+    @Test
+    void testSlowCalls_CountAsFailures() {
+        // When
+        for (int i = 0; i < 4; i++) {
+            assertTrue(breaker.tryAcquirePermission());
+            long startedAt = breaker.startCall();
+            clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(60));
+            breaker.onSuccess(startedAt);
+        }
+        
+        // Then
+        assertEquals(RedisCircuitBreaker.State.OPEN, breaker.getState());
+    }
+    
+    @Test
+    void testHalfOpen_ClosesAfterSuccessfulProbes() {
+        // Given
+        openBreaker();
+        
+        // When
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertTrue(breaker.tryAcquirePermission());
+        assertTrue(breaker.tryAcquirePermission());
+        assertFalse(breaker.tryAcquirePermission(), "only the configured number of probes may run");
+        assertEquals(RedisCircuitBreaker.State.HALF_OPEN, breaker.getState());
+        breaker.onSuccess(breaker.startCall());
+        breaker.onSuccess(breaker.startCall());
+        
+        // Then
+        assertEquals(RedisCircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(1.0, meterRegistry.get("camera.rate.redis.breaker.transitions").tag("to", "closed").counter().count());
+    }
+    
+    @Test
+    void testHalfOpen_ReopensWhenProbeFails() {
+        // Given
+        openBreaker();
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        
+        // When
+        assertTrue(breaker.tryAcquirePermission());
+        breaker.onFailure(breaker.startCall());
+        
+        // Then
+        assertEquals(RedisCircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquirePermission());
+        assertEquals(2.0, meterRegistry.get("camera.rate.redis.breaker.transitions").tag("to", "open").counter().count());
+    }
+    
+    @Test
+    void testRateLimiter_FallsBackToLocalLimitWhileRedisIsDown() {
+        // Given
+        FakeRedis redis = new FakeRedis();
+        RedisCameraRateLimiter rateLimiter = new RedisCameraRateLimiter(
+            redis.template(), 60, 10_000, 1000, breaker, new SimpleMeterRegistry());
+        redis.setFailing(true);
+        
+        // When - failures open the breaker, after which Redis is no longer called
+        for (int i = 0; i < 4; i++) {
+            rateLimiter.tryAcquire("CAMERA_" + i);
+        }
+        int roundTripsWhenOpened = redis.roundTrips();
+        boolean first = rateLimiter.tryAcquire("CAMERA_100");
+        boolean second = rateLimiter.tryAcquire("CAMERA_100");
+        
+        // Then
+        assertEquals(RedisCircuitBreaker.State.OPEN, breaker.getState());
+        assertEquals(roundTripsWhenOpened, redis.roundTrips());
+        assertTrue(first);
+        assertFalse(second, "the local fallback still limits repeat views");
+        rateLimiter.shutdown();
+    }
+    
+    @Test
+    void testRateLimiter_SlowRedisStopsAddingLatencyOnceOpen() {
+        // Given
+        FakeRedis redis = new FakeRedis();
+        RedisCircuitBreaker realClockBreaker = new RedisCircuitBreaker(50, 50, 10, 4, 60_000, 2,
+            new SimpleMeterRegistry(), System::nanoTime);
+        RedisCameraRateLimiter rateLimiter = new RedisCameraRateLimiter(
+            redis.template(), 60, 10_000, 1000, realClockBreaker, new SimpleMeterRegistry());
+        redis.setLatencyMillis(80);
+        for (int i = 0; i < 4; i++) {
+            rateLimiter.tryAcquire("CAMERA_" + i);
+        }
+        
+        // When
+        long start = System.nanoTime();
+        for (int i = 0; i < 100; i++) {
+            rateLimiter.tryAcquire("CAMERA_SLOW_" + i);
+        }
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        
+        // Then
+        assertEquals(RedisCircuitBreaker.State.OPEN, realClockBreaker.getState());
+        assertTrue(elapsedMillis < 80, "requests should not wait on Redis, took " + elapsedMillis + "ms");
+        rateLimiter.shutdown();
+    }
+    
+    @Test
+    void testRateLimiter_RecoversToRedisAfterOutage() {
+        // Given
+        FakeRedis redis = new FakeRedis();
+        RedisCameraRateLimiter rateLimiter = new RedisCameraRateLimiter(
+            redis.template(), 60, 10_000, 1000, breaker, new SimpleMeterRegistry());
+        redis.setFailing(true);
+        for (int i = 0; i < 4; i++) {
+            rateLimiter.tryAcquire("CAMERA_" + i);
+        }
+        
+        // When
+        redis.setFailing(false);
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertTrue(rateLimiter.tryAcquire("CAMERA_200"));
+        assertTrue(rateLimiter.tryAcquire("CAMERA_201"));
+        
+        // Then
+        assertEquals(RedisCircuitBreaker.State.CLOSED, breaker.getState());
+        int roundTrips = redis.roundTrips();
+        assertTrue(rateLimiter.tryAcquire("CAMERA_202"));
+        assertEquals(roundTrips + 1, redis.roundTrips());
+        rateLimiter.shutdown();
+    }
+    
+    private void openBreaker() {
+        for (int i = 0; i < 4; i++) {
+            fail();
+        }
+        assertEquals(RedisCircuitBreaker.State.OPEN, breaker.getState());
+    }
+    
+    private void succeed() {
+        assertTrue(breaker.tryAcquirePermission());
+        breaker.onSuccess(breaker.startCall());
+    }
+    
+    private void fail() {
+        assertTrue(breaker.tryAcquirePermission());
+        breaker.onFailure(breaker.startCall());
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.cameracloud.service;
+
+import com.example.cameracloud.entity.Camera;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CameraBatchWriterTest {
+    
+    @Autowired
+    private DataSource dataSource;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    private JdbcTemplate jdbcTemplate;
+    private CameraService cameraService;
+    private CameraBatchWriter writer;
+    
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update("INSERT INTO platforms (code, name, status, created_at, updated_at) VALUES ('p1', 'Platform 1', 'ACTIVE', NOW(), NOW())");
+        cameraService = mock(CameraService.class);
+        writer = new CameraBatchWriter(jdbcTemplate, transactionManager, cameraService, 1000);
+    }
+    
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM cameras");
+        jdbcTemplate.update("DELETE FROM platforms");
+    }
+    
+    @Test
+    void testBatch_InsertsRowsInChunks() {
+        // Given
+        List<CameraBatchWriter.RowFailure> failures = new ArrayList<>();
+        
+        // When
+        CameraBatchWriter.Batch batch = writer.begin(failures::add);
+        for (int i = 0; i < 2500; i++) {
+            batch.add(new CameraBatchWriter.CameraUpsert(i + 2, "CAMERA_" + i, "Model", "p1", null));
+        }
+        batch.close();
+        
+        // Then
+        assertTrue(failures.isEmpty());
+        assertEquals(2500, batch.getWritten());
+        assertEquals(2500, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM cameras WHERE status = 'ACTIVE'", Integer.class));
+        verify(cameraService, times(3)).onCamerasWritten(anyCollection());
+    }
+    
+    @Test
+    void testBatch_UpdatesOnlyProvidedFields() {
+        // Given
+        CameraBatchWriter.Batch insert = writer.begin(failure -> fail(failure.message()));
+        insert.add(new CameraBatchWriter.CameraUpsert(2, "CAMERA_001", "Model A", "p1", Camera.CameraStatus.ACTIVE));
+        insert.close();
+        
+        // When
+        CameraBatchWriter.Batch update = writer.begin(failure -> fail(failure.message()));
+        update.add(new CameraBatchWriter.CameraUpsert(2, "CAMERA_001", null, null, Camera.CameraStatus.DISABLED));
+        update.close();
+        
+        // Then
+        Map<String, Object> row = jdbcTemplate.queryForMap(
+            "SELECT model, status, target_platform_code FROM cameras WHERE public_id = 'CAMERA_001'");
+        assertEquals("Model A", row.get("MODEL"));
+        assertEquals("DISABLED", row.get("STATUS"));
+        assertEquals("p1", row.get("TARGET_PLATFORM_CODE"));
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM cameras", Integer.class));
+    }
+    
+    @Test
+    void testBatch_FailedRowDoesNotLoseTheRestOfItsChunk() {
+        // Given
+        List<CameraBatchWriter.RowFailure> failures = new ArrayList<>();
+        CameraBatchWriter.Batch batch = writer.begin(failures::add);
+        
+        // When - the platform reference of row 3 violates the foreign key
+        batch.add(new CameraBatchWriter.CameraUpsert(2, "CAMERA_001", null, "p1", null));
+        batch.add(new CameraBatchWriter.CameraUpsert(3, "CAMERA_002", null, "MISSING", null));
+        batch.add(new CameraBatchWriter.CameraUpsert(4, "CAMERA_003", null, null, null));
+        batch.close();
+        
+        // Then
+        assertEquals(2, batch.getWritten());
+        assertEquals(1, failures.size());
+        assertEquals(3, failures.get(0).row().rowNumber());
+        assertEquals(List.of("CAMERA_001", "CAMERA_003"),
+            jdbcTemplate.queryForList("SELECT public_id FROM cameras ORDER BY public_id", String.class));
+    }
+    
+    @Test
+    void testBatch_SkipsCamerasTheImportDoesNotChange() {
+        // Given
+        CameraBatchWriter.Batch insert = writer.begin(failure -> fail(failure.message()));
+        insert.add(new CameraBatchWriter.CameraUpsert(2, "CAMERA_001", "Model A", "p1", Camera.CameraStatus.ACTIVE));
+        insert.add(new CameraBatchWriter.CameraUpsert(3, "CAMERA_002", "Model B", "p1", Camera.CameraStatus.ACTIVE));
+        insert.close();
+        Object updatedAt = jdbcTemplate.queryForObject("SELECT updated_at FROM cameras WHERE public_id = 'CAMERA_001'", Object.class);
+        
+        // When
+        CameraBatchWriter.Batch reimport = writer.begin(failure -> fail(failure.message()));
+        reimport.add(new CameraBatchWriter.CameraUpsert(2, "CAMERA_001", "Model A", "p1", null));
+        reimport.add(new CameraBatchWriter.CameraUpsert(3, "CAMERA_002", "Model C", null, null));
+        reimport.close();
+        
+        // Then
+        assertEquals(2, reimport.getWritten());
+        assertEquals(1, reimport.getUnchanged());
+        assertEquals(updatedAt, jdbcTemplate.queryForObject("SELECT updated_at FROM cameras WHERE public_id = 'CAMERA_001'", Object.class));
+        assertEquals("Model C", jdbcTemplate.queryForObject("SELECT model FROM cameras WHERE public_id = 'CAMERA_002'", String.class));
+        verify(cameraService).onCamerasWritten(List.of("CAMERA_002"));
+    }
+    
+    @Test
+    void testBatch_LaterRowsForTheSameCameraWin() {
+        // Given
+        CameraBatchWriter.Batch batch = writer.begin(failure -> fail(failure.message()));
+        
+        // When
+        batch.add(new CameraBatchWriter.CameraUpsert(2, "CAMERA_001", "Model A", "p1", Camera.CameraStatus.DISABLED));
+        batch.add(new CameraBatchWriter.CameraUpsert(3, "CAMERA_001", "Model B", null, null));
+        batch.close();
+        
+        // Then
+        Map<String, Object> row = jdbcTemplate.queryForMap(
+            "SELECT model, status, target_platform_code FROM cameras WHERE public_id = 'CAMERA_001'");
+        assertEquals("Model B", row.get("MODEL"));
+        assertEquals("DISABLED", row.get("STATUS"));
+        assertEquals("p1", row.get("TARGET_PLATFORM_CODE"));
+        assertEquals(2, batch.getWritten());
+    }
+    
+    @Test
+    void testBatch_CheckpointsEachCommittedChunk() {
+        // Given
+        writer = new CameraBatchWriter(jdbcTemplate, transactionManager, cameraService, 2);
+        List<int[]> checkpoints = new ArrayList<>();
+        CameraBatchWriter.Batch batch = writer.begin(failure -> fail(failure.message()),
+            (lastRowNumber, written) -> checkpoints.add(new int[] {lastRowNumber, written,
+                jdbcTemplate.queryForObject("SELECT COUNT(*) FROM cameras", Integer.class)}));
+        
+        // When
+        batch.add(new CameraBatchWriter.CameraUpsert(2, "CAMERA_001", null, "p1", null));
+        batch.add(new CameraBatchWriter.CameraUpsert(4, "CAMERA_002", null, "p1", null));
+        batch.add(new CameraBatchWriter.CameraUpsert(5, "CAMERA_003", null, "p1", null));
+        batch.close();
+        
+        // Then - each checkpoint runs after its chunk is written and before it commits
+        assertEquals(2, checkpoints.size());
+        assertArrayEquals(new int[] {4, 2, 2}, checkpoints.get(0));
+        assertArrayEquals(new int[] {5, 3, 3}, checkpoints.get(1));
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.cameracloud.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@Testcontainers(disabledWithoutDocker = true)
+class CameraCopyImporterTest {
+    
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine")
+            .withInitScript("db/migration/V1__Initial_schema.sql");
+    
+    private JdbcTemplate jdbcTemplate;
+    private CameraService cameraService;
+    private CameraCopyImporter importer;
+    private UUID jobId;
+    
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+            postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        cameraService = mock(CameraService.class);
+        importer = new CameraCopyImporter(jdbcTemplate, new DataSourceTransactionManager(dataSource), cameraService);
+        
+        jobId = jdbcTemplate.queryForObject(
+            "INSERT INTO import_jobs (uploader_user_id, file_name) "
+                + "SELECT id, 'cameras.csv' FROM users WHERE email = 'admin@example.com' RETURNING id", UUID.class);
+    }
+    
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM cameras WHERE is_test_device = FALSE");
+        jdbcTemplate.update("DELETE FROM import_jobs");
+    }
+    
+    @Test
+    void testImportRows_MergesValidRowsLastWins() {
+        // Given
+        jdbcTemplate.update("INSERT INTO cameras (public_id, model, target_platform_code, status) "
+            + "VALUES ('CAM_KEEP', 'Old', 'dk', 'ACTIVE')");
+        
+        // When
+        CameraCopyImporter.CopyResult result = importer.importRows(jobId, sink -> {
+            sink.accept(2, "CAM_001", "Model A", "dk", "active");
+            sink.accept(3, "CAM_001", "Model \"B\", rev 2", null, "disabled");
+            sink.accept(4, "CAM_KEEP", null, "duixin", null);
+            return 3;
+        });
+        
+        // Then
+        assertEquals(new CameraCopyImporter.CopyResult(3, 3, 2, 0), result);
+        Map<String, Object> created = jdbcTemplate.queryForMap(
+            "SELECT model, status, target_platform_code FROM cameras WHERE public_id = 'CAM_001'");
+        assertEquals("Model \"B\", rev 2", created.get("model"));
+        assertEquals("DISABLED", created.get("status"));
+        assertEquals("dk", created.get("target_platform_code"));
+        Map<String, Object> updated = jdbcTemplate.queryForMap(
+            "SELECT model, status, target_platform_code FROM cameras WHERE public_id = 'CAM_KEEP'");
+        assertEquals("Old", updated.get("model"));
+        assertEquals("ACTIVE", updated.get("status"));
+        assertEquals("duixin", updated.get("target_platform_code"));
+        verify(cameraService).onCamerasWritten(List.of("CAM_001", "CAM_001", "CAM_KEEP"));
+    }
+    
+    @Test
+    void testImportRows_RecordsRejectedRows() {
+        // Given
+        jdbcTemplate.update("INSERT INTO cameras (public_id, model, target_platform_code, status) "
+            + "VALUES ('CAM_SAME', 'Same', 'dk', 'ACTIVE')");
+        
+        // When
+        CameraCopyImporter.CopyResult result = importer.importRows(jobId, sink -> {
+            sink.accept(2, null, "Model", "dk", "active");
+            sink.accept(3, "bad id!", "Model", "dk", "active");
+            sink.accept(4, "CAM_002", "Model", "nowhere", "active");
+            sink.accept(5, "CAM_003", "Model", "dk", "broken");
+            sink.accept(6, "CAM_SAME", "Same", "dk", "active");
+            return 5;
+        });
+        
+        // Then
+        assertEquals(new CameraCopyImporter.CopyResult(5, 1, 0, 4), result);
+        List<String> errors = jdbcTemplate.queryForList(
+            "SELECT error_message FROM import_job_errors WHERE job_id = ? ORDER BY row_no", String.class, jobId);
+        assertEquals(List.of(
+            "camera_id is required",
+            "Invalid camera_id format",
+            "Platform not found: nowhere",
+            "Invalid camera status: broken. Must be 'active' or 'disabled'"), errors);
+        assertEquals(0, jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM cameras WHERE public_id IN ('CAM_002', 'CAM_003')", Integer.class));
+        assertEquals(0, jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM information_schema.tables WHERE table_name LIKE 'camera_import_%'", Integer.class));
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.cameracloud.service;
+
+import com.example.cameracloud.entity.Camera;
+import com.example.cameracloud.entity.Platform;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.time.OffsetDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Time to encode {@code rows} cameras per export format, with and without gzip. Each invocation
+ * creates its cameras one by one, as the database cursor does, and the fork runs with a 256 MB
+ * heap so an encoder that buffers the export fails instead of passing. Peak heap use of each
+ * iteration is printed after it; add {@code -prof gc} for allocation rates.
+ * {@code mvn -Pbenchmark test-compile exec:exec -Dbenchmark="CameraExportBenchmark"}
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgs = {"-Xms256m", "-Xmx256m"})
+@State(Scope.Benchmark)
+public class CameraExportBenchmark {
+    
+    @Param({"csv", "ndjson", "xlsx"})
+    public String format;
+    
+    @Param({"false", "true"})
+    public boolean gzip;
+    
+    @Param({"1000000"})
+    public int rows;
+    
+    private final Platform platform = new Platform("dk", "DK Platform");
+    private final OffsetDateTime updatedAt = OffsetDateTime.now();
+    
+    @Setup(Level.Iteration)
+    public void resetPeakHeap() {
+        System.gc();
+        heapPools().forEach(MemoryPoolMXBean::resetPeakUsage);
+    }
+    
+    @TearDown(Level.Iteration)
+    public void printPeakHeap() {
+        long peak = heapPools().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+        System.out.printf("%n[%s gzip=%s] peak heap: %d MB%n", format, gzip, peak / (1024 * 1024));
+    }
+    
+    @Benchmark
+    public long export() throws IOException {
+        CountingOutputStream out = new CountingOutputStream();
+        CameraExportService.write(CameraExportService.ExportFormat.fromValue(format), gzip, out, action -> {
+            for (int i = 0; i < rows; i++) {
+                action.accept(camera(i));
+            }
+        });
+        return out.count;
+    }
+    
+    private Camera camera(int i) {
+        Camera camera = new Camera("CAMERA_" + i);
+        camera.setModel("Model " + (i % 50));
+        camera.setStatus(i % 10 == 0 ? Camera.CameraStatus.DISABLED : Camera.CameraStatus.ACTIVE);
+        camera.setTargetPlatformCode(platform.getCode());
+        camera.setTargetPlatform(platform);
+        camera.setUpdatedAt(updatedAt);
+        return camera;
+    }
+    
+    private static Stream<MemoryPoolMXBean> heapPools() {
+        return ManagementFactory.getMemoryPoolMXBeans().stream().filter(pool -> pool.getType() == MemoryType.HEAP);
+    }
+    
+    /**
+     * Discards the export, counting its bytes.
+     */
+    private static final class CountingOutputStream extends OutputStream {
+        
+        long count;
+        
+        @Override
+        public void write(int b) {
+            count++;
+        }
+        
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.example.cameracloud.service;
+
+import com.example.cameracloud.entity.Camera;
+import com.example.cameracloud.repository.CameraRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CameraExportServiceTest {
+    
+    private static final int CAMERAS = CameraExportService.XLSX_ROW_WINDOW * 3 + 7;
+    
+    @Autowired
+    private DataSource dataSource;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private CameraRepository cameraRepository;
+    
+    @Autowired
+    private EntityManager entityManager;
+    
+    private JdbcTemplate jdbcTemplate;
+    private CameraExportService exportService;
+    
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update("INSERT INTO platforms (code, name, status, created_at, updated_at) VALUES ('p1', 'Platform 1', 'ACTIVE', NOW(), NOW())");
+        for (int i = 0; i < CAMERAS; i++) {
+            jdbcTemplate.update("INSERT INTO cameras (id, public_id, model, status, target_platform_code, redirect_enabled, is_test_device, created_at, updated_at) "
+                + "VALUES (RANDOM_UUID(), ?, 'Model', ?, ?, TRUE, FALSE, NOW(), NOW())",
+                String.format("CAM_%04d", i), i % 2 == 0 ? "ACTIVE" : "DISABLED", i % 3 == 0 ? null : "p1");
+        }
+        exportService = new CameraExportService(cameraRepository, entityManager, transactionManager);
+    }
+    
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM cameras");
+        jdbcTemplate.update("DELETE FROM platforms");
+    }
+    
+    @Test
+    void testExportXlsx_WritesEveryCameraBeyondTheRowWindow() throws IOException {
+        // Given
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        
+        // When
+        exportService.export(CameraExportService.ExportFormat.XLSX, null, false, out);
+        
+        // Then
+        try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()))) {
+            Sheet sheet = workbook.getSheetAt(0);
+            assertEquals(CAMERAS, sheet.getLastRowNum());
+            assertEquals("camera_id", sheet.getRow(0).getCell(0).getStringCellValue());
+            assertEquals("CAM_0000", sheet.getRow(1).getCell(0).getStringCellValue());
+            assertNull(sheet.getRow(1).getCell(2), "Cameras without a platform leave the cell empty");
+            assertEquals("disabled", sheet.getRow(2).getCell(3).getStringCellValue());
+            assertEquals("Platform 1", sheet.getRow(2).getCell(4).getStringCellValue());
+            assertEquals(String.format("CAM_%04d", CAMERAS - 1), sheet.getRow(CAMERAS).getCell(0).getStringCellValue());
+        }
+    }
+    
+    @Test
+    void testExportXlsx_FiltersByPlatform() throws IOException {
+        // Given
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        
+        // When
+        exportService.export(CameraExportService.ExportFormat.XLSX, "p1", false, out);
+        
+        // Then
+        try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()))) {
+            Sheet sheet = workbook.getSheetAt(0);
+            assertEquals(CAMERAS - (CAMERAS + 2) / 3, sheet.getLastRowNum());
+            for (int i = 1; i <= sheet.getLastRowNum(); i++) {
+                assertEquals("p1", sheet.getRow(i).getCell(2).getStringCellValue());
+            }
+        }
+    }
+    
+    @Test
+    void testExportCsv_WritesHeaderAndOneLinePerCamera() throws IOException {
+        // Given
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        
+        // When
+        exportService.export(CameraExportService.ExportFormat.CSV, null, false, out);
+        
+        // Then
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals(CAMERAS + 1, lines.size());
+        assertEquals(String.join(",", CameraExportService.COLUMNS), lines.get(0));
+        assertTrue(lines.get(1).startsWith("CAM_0000,Model,,active,,true,false,"), lines.get(1));
+        assertTrue(lines.get(2).startsWith("CAM_0001,Model,p1,disabled,\"Platform 1\",true,false,"), lines.get(2));
+    }
+    
+    @Test
+    void testWriteCsv_DefaultFormatReachesTheClientBeforeTheCursorCloses() throws IOException {
+        // Given
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int[] bytesWhileReading = new int[1];
+        
+        // When
+        CameraExportService.write(CameraExportService.ExportFormat.fromValue(null), false, out, action -> {
+            for (int i = 0; i < 10_000; i++) {
+                Camera camera = new Camera(String.format("CAM_%05d", i));
+                camera.setModel("Model");
+                camera.setStatus(Camera.CameraStatus.ACTIVE);
+                action.accept(camera);
+            }
+            bytesWhileReading[0] = out.size();
+        });
+        
+        // Then
+        assertTrue(bytesWhileReading[0] > 0, "Rows are written while the cursor is still open");
+        assertEquals(10_001, out.toString(StandardCharsets.UTF_8).lines().count());
+    }
+    
+    @Test
+    void testExportNdjson_CompressesOneObjectPerLine() throws IOException {
+        // Given
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        
+        // When
+        exportService.export(CameraExportService.ExportFormat.NDJSON, "p1", true, out);
+        
+        // Then
+        List<String> lines;
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            lines = new String(in.readAllBytes(), StandardCharsets.UTF_8).lines().toList();
+        }
+        assertEquals(CAMERAS - (CAMERAS + 2) / 3, lines.size());
+        JsonNode first = new ObjectMapper().readTree(lines.get(0));
+        assertEquals("CAM_0001", first.get("camera_id").asText());
+        assertEquals("Platform 1", first.get("platform_name").asText());
+        assertTrue(first.get("redirect_enabled").isBoolean());
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.cameracloud.service;
+
+import com.example.cameracloud.repository.CameraRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * /view lookups of random unknown camera IDs against 100k known cameras, with and without the
+ * {@link CameraIdFilter}. The {@code databaseQueries} counter is the number of lookups that reached
+ * the repository; divided by {@code ops} it should stay near the filter's false-positive rate.
+ * {@code mvn -Pbenchmark test-compile exec:exec -Dbenchmark="CameraIdFilterBenchmark"}
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CameraIdFilterBenchmark {
+    
+    private static final int KNOWN_CAMERAS = 100_000;
+    
+    @Param({"true", "false"})
+    public boolean filterEnabled;
+    
+    private final AtomicLong lookups = new AtomicLong();
+    private CameraService cameraService;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<String> knownIds = IntStream.range(0, KNOWN_CAMERAS).mapToObj(i -> "CAM_" + i).toList();
+        CameraRepository cameraRepository = mock(CameraRepository.class);
+        when(cameraRepository.count()).thenReturn((long) KNOWN_CAMERAS);
+        when(cameraRepository.streamAllPublicIds()).thenAnswer(invocation -> knownIds.stream());
+        when(cameraRepository.findByPublicId(anyString())).thenAnswer(invocation -> {
+            lookups.incrementAndGet();
+            return Optional.empty();
+        });
+        
+        CameraIdFilter filter = new CameraIdFilter(cameraRepository, mock(PlatformTransactionManager.class),
+            new SimpleMeterRegistry(), filterEnabled, 0.01, KNOWN_CAMERAS, 0, 0, 0);
+        filter.rebuild();
+        // A cache too small to help, so every unknown ID is looked up again
+        cameraService = new CameraService(cameraRepository, filter, mock(CameraSearchService.class),
+            new SimpleMeterRegistry(), 1, 30);
+    }
+    
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Queries {
+        
+        public long databaseQueries;
+        private final SplittableRandom random = new SplittableRandom(42);
+    }
+    
+    @Benchmark
+    public Object randomUnknownId(Queries queries) {
+        long before = lookups.get();
+        Object info = cameraService.findViewInfo("SCAN_" + Long.toHexString(queries.random.nextLong()));
+        queries.databaseQueries += lookups.get() - before;
+        return info;
+    }
+}
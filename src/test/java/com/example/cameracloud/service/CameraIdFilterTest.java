@@ -0,0 +1,135 @@
+package com.example.cameracloud.service;
+
+import com.example.cameracloud.repository.CameraRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class CameraIdFilterTest {
+    
+    private static final int KNOWN_CAMERAS = 100_000;
+    private static final int RANDOM_REQUESTS = 10_000;
+    
+    private CameraRepository cameraRepository;
+    private PlatformTransactionManager transactionManager;
+    private List<String> knownIds;
+    
+    @BeforeEach
+    void setUp() {
+        cameraRepository = mock(CameraRepository.class);
+        transactionManager = mock(PlatformTransactionManager.class);
+        knownIds = IntStream.range(0, KNOWN_CAMERAS).mapToObj(i -> "CAM_" + i).toList();
+        
+        when(cameraRepository.count()).thenReturn((long) KNOWN_CAMERAS);
+        when(cameraRepository.streamAllPublicIds()).thenAnswer(invocation -> knownIds.stream());
+        when(cameraRepository.findByPublicId(anyString())).thenReturn(Optional.empty());
+    }
+    
+    @Test
+    void testRebuild_KnownIdsAreNeverRejected() {
+        // Given
+        CameraIdFilter filter = newFilter(true);
+        
+        // When
+        filter.rebuild();
+        
+        // Then
+        assertTrue(knownIds.stream().allMatch(filter::mightContain));
+        assertTrue(filter.memoryFootprintBytes() > 0);
+    }
+    
+    @Test
+    void testAdd_NewIdIsVisibleWithoutRebuild() {
+        // Given
+        CameraIdFilter filter = newFilter(true);
+        filter.rebuild();
+        
+        // When
+        filter.add(List.of("NEW_CAMERA_001"));
+        
+        // Then
+        assertTrue(filter.mightContain("NEW_CAMERA_001"));
+    }
+    
+    @Test
+    void testCatchUp_AddsCamerasCreatedOnOtherNodes() {
+        // Given
+        CameraIdFilter filter = newFilter(true);
+        filter.rebuild();
+        assertFalse(filter.mightContain("IMPORTED_ELSEWHERE_001"));
+        when(cameraRepository.streamPublicIdsCreatedAfter(any())).thenAnswer(invocation -> Stream.of("IMPORTED_ELSEWHERE_001"));
+        
+        // When
+        OffsetDateTime beforeCatchUp = OffsetDateTime.now();
+        filter.catchUp();
+        
+        // Then - each read reaches back by the overlap from where the last one started
+        assertTrue(filter.mightContain("IMPORTED_ELSEWHERE_001"));
+        ArgumentCaptor<OffsetDateTime> since = ArgumentCaptor.forClass(OffsetDateTime.class);
+        filter.catchUp();
+        verify(cameraRepository, times(2)).streamPublicIdsCreatedAfter(since.capture());
+        assertTrue(since.getAllValues().get(1).isAfter(beforeCatchUp.minusSeconds(11)));
+        assertTrue(since.getAllValues().get(1).isAfter(since.getAllValues().get(0)));
+    }
+    
+    @Test
+    void testCatchUp_BeforeFirstBuildDoesNothing() {
+        newFilter(true).catchUp();
+        
+        verify(cameraRepository, never()).streamPublicIdsCreatedAfter(any());
+    }
+    
+    @Test
+    void testBeforeFirstBuild_EveryIdMightExist() {
+        CameraIdFilter filter = newFilter(true);
+        
+        assertTrue(filter.mightContain("ANY_CAMERA"));
+    }
+    
+    @Test
+    void testRandomIdRequests_DatabaseQueriesPer10k() {
+        // Given
+        long queriesWithoutFilter = countQueriesForRandomIds(newFilter(false));
+        
+        CameraIdFilter filter = newFilter(true);
+        filter.rebuild();
+        clearInvocations(cameraRepository);
+        
+        // When
+        long queriesWithFilter = countQueriesForRandomIds(filter);
+        
+        // Then
+        assertEquals(RANDOM_REQUESTS, queriesWithoutFilter);
+        assertTrue(queriesWithFilter < RANDOM_REQUESTS * 0.02, "queries with filter: " + queriesWithFilter);
+    }
+    
+    private long countQueriesForRandomIds(CameraIdFilter filter) {
+        CameraService cameraService = new CameraService(cameraRepository, filter, mock(CameraSearchService.class), new SimpleMeterRegistry(), 100_000, 30);
+        Random random = new Random(42);
+        for (int i = 0; i < RANDOM_REQUESTS; i++) {
+            assertNull(cameraService.findViewInfo("SCAN_" + Long.toHexString(random.nextLong())));
+        }
+        return mockingDetails(cameraRepository).getInvocations().stream()
+            .filter(invocation -> invocation.getMethod().getName().equals("findByPublicId"))
+            .count();
+    }
+    
+    private CameraIdFilter newFilter(boolean enabled) {
+        return new CameraIdFilter(cameraRepository, transactionManager, new SimpleMeterRegistry(),
+            enabled, 0.01, 1_000, 0, 0, 10);
+    }
+}
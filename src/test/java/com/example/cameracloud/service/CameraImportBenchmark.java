@@ -0,0 +1,83 @@
+package com.example.cameracloud.service;
+
+import com.example.cameracloud.CameraCloudApplication;
+import com.example.cameracloud.entity.Camera;
+import com.example.cameracloud.repository.CameraRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to write a {@code rows}-row import against the dev profile's in-memory H2 database, row by
+ * row through the repository (a lookup and a save per row in one transaction, as the import services
+ * used to) versus through {@link CameraBatchWriter}. H2 runs in-process, so the per-row network
+ * round trips a real database adds are not included.
+ * {@code mvn -Pbenchmark test-compile exec:exec -Dbenchmark="CameraImportBenchmark"}
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgs = {"-Xmx2g"})
+@State(Scope.Benchmark)
+public class CameraImportBenchmark {
+    
+    @Param({"repository", "batch"})
+    public String writer;
+    
+    @Param({"100000"})
+    public int rows;
+    
+    private ConfigurableApplicationContext context;
+    private CameraRepository cameraRepository;
+    private CameraBatchWriter cameraBatchWriter;
+    private TransactionTemplate transactionTemplate;
+    private int iteration;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(CameraCloudApplication.class)
+            .profiles("dev")
+            .properties("server.port=0", "spring.jpa.show-sql=false", "logging.level.root=WARN",
+                "logging.level.com.example=WARN", "app.view-filter.enabled=false",
+                "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+            .run();
+        cameraRepository = context.getBean(CameraRepository.class);
+        cameraBatchWriter = context.getBean(CameraBatchWriter.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+    
+    @Benchmark
+    public int importRows() {
+        String prefix = "BENCH_" + (iteration++) + "_";
+        if ("repository".equals(writer)) {
+            return transactionTemplate.execute(status -> {
+                for (int i = 0; i < rows; i++) {
+                    String publicId = prefix + i;
+                    Camera camera = cameraRepository.findByPublicId(publicId).orElseGet(() -> new Camera(publicId));
+                    camera.setModel("MODEL_" + (i % 50));
+                    cameraRepository.save(camera);
+                }
+                return rows;
+            });
+        }
+        
+        CameraBatchWriter.Batch batch = cameraBatchWriter.begin(failure -> {
+            throw new IllegalStateException(failure.message());
+        });
+        for (int i = 0; i < rows; i++) {
+            batch.add(new CameraBatchWriter.CameraUpsert(i + 2, prefix + i, "MODEL_" + (i % 50), null, null));
+        }
+        batch.close();
+        return batch.getWritten();
+    }
+}
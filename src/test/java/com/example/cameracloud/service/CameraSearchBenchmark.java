@@ -0,0 +1,73 @@
+package com.example.cameracloud.service;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Locale;
+import java.util.PrimitiveIterator;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of one 50-row search page over {@code cameras} generated cameras: the in-process
+ * trigram index against a scan that checks every camera the way {@code LIKE '%term%'} without a
+ * usable index does. Terms range from one matching camera to a tenth of the fleet, and to none.
+ * {@code mvn -Pbenchmark test-compile exec:exec -Dbenchmark="CameraSearchBenchmark"}
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms6g", "-Xmx6g"})
+@State(Scope.Benchmark)
+public class CameraSearchBenchmark {
+    
+    private static final int PAGE_SIZE = 50;
+    private static final String[] MODELS = {
+        "Hikvision DS-2CD2143G2", "Dahua IPC-HDW2431T", "Axis P3245-LVE", "Uniview IPC2124LB", "Reolink RLC-810A",
+        "Hanwha XNV-6080R", "Bosch FLEXIDOME 5100i", "Vivotek FD9389", "Milesight MS-C5376", "TP-Link VIGI C540"
+    };
+    
+    @Param({"3000000"})
+    public int cameras;
+    
+    @Param({"cam-0001234567", "rlc-810", "99999", "panasonic"})
+    public String term;
+    
+    private CameraNgramIndex index;
+    private String[] searchText;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        CameraNgramIndex.Builder builder = CameraNgramIndex.builder();
+        searchText = new String[cameras];
+        for (int i = 0; i < cameras; i++) {
+            String publicId = String.format("CAM-%010d", i);
+            String model = MODELS[(int) ((i * 2654435761L) % MODELS.length)];
+            builder.add(publicId, model);
+            searchText[i] = (publicId + '\n' + model).toLowerCase(Locale.ROOT);
+        }
+        index = builder.build();
+    }
+    
+    @Benchmark
+    public int ngramIndex() {
+        PrimitiveIterator.OfInt matches = index.matches(term, null);
+        int found = 0;
+        while (found < PAGE_SIZE && matches.hasNext()) {
+            matches.nextInt();
+            found++;
+        }
+        return found;
+    }
+    
+    @Benchmark
+    public int sequentialScan() {
+        String needle = term.toLowerCase(Locale.ROOT);
+        int found = 0;
+        for (int i = 0; i < searchText.length && found < PAGE_SIZE; i++) {
+            if (searchText[i].contains(needle)) {
+                found++;
+            }
+        }
+        return found;
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.cameracloud.service;
+
+import com.example.cameracloud.entity.Camera;
+import com.example.cameracloud.repository.CameraRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CameraSearchServiceTest {
+    
+    @Autowired
+    private DataSource dataSource;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private CameraRepository cameraRepository;
+    
+    private JdbcTemplate jdbcTemplate;
+    private CameraSearchService searchService;
+    
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        for (int i = 0; i < 1200; i++) {
+            insertCamera(String.format("CAM_%04d", i), i % 3 == 0 ? "Hikvision DS-2CD" : "Dahua IPC", i % 2 == 0 ? "ACTIVE" : "DISABLED", false);
+        }
+        insertCamera("LOBBY_EAST", null, "ACTIVE", false);
+        insertCamera("LOBBY_TEST", "Hikvision DS-2CD", "ACTIVE", true);
+        searchService = new CameraSearchService(cameraRepository, jdbcTemplate, transactionManager, 0);
+        searchService.rebuild();
+    }
+    
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM cameras");
+    }
+    
+    @Test
+    void testSearch_UsesNgramIndexOnH2() {
+        // When
+        List<Camera> byId = searchService.search("cam_011", null, null, null, null, 50);
+        List<Camera> byModel = searchService.search("hikVISION", null, Camera.CameraStatus.DISABLED, null, null, 50);
+        List<Camera> shortTerm = searchService.search("ea", null, null, null, null, 50);
+        
+        // Then
+        assertFalse(searchService.isTrigramSupported());
+        assertEquals(List.of("CAM_0110", "CAM_0111", "CAM_0112", "CAM_0113", "CAM_0114",
+            "CAM_0115", "CAM_0116", "CAM_0117", "CAM_0118", "CAM_0119"), publicIds(byId));
+        assertEquals(50, byModel.size());
+        assertTrue(byModel.stream().allMatch(camera -> camera.getModel().startsWith("Hikvision")
+            && camera.getStatus() == Camera.CameraStatus.DISABLED));
+        assertEquals(List.of("LOBBY_EAST"), publicIds(shortTerm), "Test devices are not searched");
+    }
+    
+    @Test
+    void testSearch_PagesThroughMatchesInIdOrder() {
+        // Given
+        List<String> seen = new ArrayList<>();
+        String after = null;
+        
+        // When
+        List<Camera> page;
+        do {
+            page = searchService.search("ds-2cd", null, null, null, after, 150);
+            page.forEach(camera -> seen.add(camera.getPublicId()));
+            after = page.isEmpty() ? null : page.get(page.size() - 1).getPublicId();
+        } while (page.size() == 150);
+        
+        // Then
+        assertEquals(400, seen.size());
+        assertEquals(seen.stream().sorted().toList(), seen);
+        assertEquals("CAM_0000", seen.get(0));
+        assertEquals("CAM_1197", seen.get(seen.size() - 1));
+    }
+    
+    @Test
+    void testSearch_MissesTermsSpanningFieldsAndUnknownTrigrams() {
+        // When
+        List<Camera> spanning = searchService.search("0000hik", null, null, null, null, 10);
+        List<Camera> unknown = searchService.search("axis", null, null, null, null, 10);
+        
+        // Then
+        assertTrue(spanning.isEmpty());
+        assertTrue(unknown.isEmpty());
+    }
+    
+    @Test
+    void testSearch_BeforeFirstBuild_FallsBackIgnoringCase() {
+        // Given
+        CameraSearchService unbuilt = new CameraSearchService(cameraRepository, jdbcTemplate, transactionManager, 0);
+        
+        // When
+        List<Camera> byId = unbuilt.search("cam_011", null, null, null, null, 50);
+        List<Camera> byModel = unbuilt.search("hikVISION", null, Camera.CameraStatus.DISABLED, null, null, 50);
+        List<Camera> wildcard = unbuilt.search("cam_", null, null, null, null, 5);
+        List<Camera> literalWildcard = unbuilt.search("cam%0", null, null, null, null, 5);
+        
+        // Then
+        assertEquals(publicIds(searchService.search("cam_011", null, null, null, null, 50)), publicIds(byId));
+        assertEquals(publicIds(searchService.search("hikVISION", null, Camera.CameraStatus.DISABLED, null, null, 50)), publicIds(byModel));
+        assertEquals(List.of("CAM_0000", "CAM_0001", "CAM_0002", "CAM_0003", "CAM_0004"), publicIds(wildcard));
+        assertTrue(literalWildcard.isEmpty());
+        unbuilt.shutdown();
+    }
+    
+    private void insertCamera(String publicId, String model, String status, boolean testDevice) {
+        jdbcTemplate.update("INSERT INTO cameras (id, public_id, model, status, redirect_enabled, is_test_device, created_at, updated_at) "
+            + "VALUES (RANDOM_UUID(), ?, ?, ?, TRUE, ?, NOW(), NOW())", publicId, model, status, testDevice);
+    }
+    
+    private static List<String> publicIds(List<Camera> cameras) {
+        return cameras.stream().map(Camera::getPublicId).toList();
+    }
+}
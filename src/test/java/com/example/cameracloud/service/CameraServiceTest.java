@@ -0,0 +1,107 @@
+package com.example.cameracloud.service;
+
+import com.example.cameracloud.entity.Camera;
+import com.example.cameracloud.repository.CameraRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CameraServiceTest {
+    
+    @Autowired
+    private DataSource dataSource;
+    
+    @Autowired
+    private CameraRepository cameraRepository;
+    
+    private JdbcTemplate jdbcTemplate;
+    private CameraService cameraService;
+    
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update("INSERT INTO platforms (code, name, status, created_at, updated_at) VALUES ('p1', 'Platform 1', 'ACTIVE', NOW(), NOW())");
+        jdbcTemplate.update("INSERT INTO platforms (code, name, status, created_at, updated_at) VALUES ('p2', 'Platform 2', 'ACTIVE', NOW(), NOW())");
+        for (int i = 0; i < 25; i++) {
+            insertCamera(String.format("CAM_%03d", i), i % 5 == 0 ? "p2" : "p1", i % 2 == 0 ? "ACTIVE" : "DISABLED", false);
+        }
+        insertCamera("CAM_TEST", "p1", "ACTIVE", true);
+        cameraService = new CameraService(cameraRepository, mock(CameraIdFilter.class), mock(CameraSearchService.class),
+            new SimpleMeterRegistry(), 100, 30);
+    }
+    
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM cameras");
+        jdbcTemplate.update("DELETE FROM platforms");
+    }
+    
+    @Test
+    void testFindPageWithFilters_WalksAllPagesWithCursor() {
+        // Given
+        List<String> seen = new ArrayList<>();
+        String after = null;
+        int pages = 0;
+        
+        // When
+        do {
+            CameraService.CameraPage page = cameraService.findPageWithFilters("p1", null, null, null, after, 7);
+            page.cameras().forEach(camera -> seen.add(camera.getPublicId()));
+            after = page.nextCursor();
+            pages++;
+        } while (after != null);
+        
+        // Then
+        assertEquals(3, pages);
+        assertEquals(20, seen.size());
+        assertEquals(seen.stream().sorted().toList(), seen, "Pages follow public_id order without gaps or repeats");
+        assertFalse(seen.contains("CAM_TEST"), "Test devices are not listed");
+        assertEquals(20, cameraService.countWithFilters("p1", null, null, null));
+    }
+    
+    @Test
+    void testFindPageWithFilters_AppliesFiltersAndCapsPageSize() {
+        // When
+        CameraService.CameraPage active = cameraService.findPageWithFilters(null, Camera.CameraStatus.ACTIVE, null, null, null, 100);
+        CameraService.CameraPage capped = cameraService.findPageWithFilters(null, null, null, null, null, CameraService.MAX_PAGE_SIZE + 1);
+        CameraService.CameraPage exact = cameraService.findPageWithFilters(null, null, null, null, "CAM_019", 5);
+        
+        // Then
+        assertEquals(13, active.cameras().size());
+        assertTrue(active.cameras().stream().allMatch(camera -> camera.getStatus() == Camera.CameraStatus.ACTIVE));
+        assertNull(active.nextCursor());
+        assertEquals(25, capped.cameras().size());
+        assertEquals("CAM_020", exact.cameras().get(0).getPublicId());
+        assertNull(exact.nextCursor(), "A page that ends on the last camera has no next page");
+        assertEquals(13, cameraService.countWithFilters(null, Camera.CameraStatus.ACTIVE, null, null));
+    }
+    
+    @Test
+    void testClampPageSize_KeepsSizeBetweenOneAndMax() {
+        assertEquals(1, CameraService.clampPageSize(0));
+        assertEquals(50, CameraService.clampPageSize(50));
+        assertEquals(CameraService.MAX_PAGE_SIZE, CameraService.clampPageSize(10_000));
+    }
+    
+    private void insertCamera(String publicId, String platformCode, String status, boolean testDevice) {
+        jdbcTemplate.update("INSERT INTO cameras (id, public_id, model, status, target_platform_code, redirect_enabled, is_test_device, created_at, updated_at) "
+            + "VALUES (RANDOM_UUID(), ?, 'Model', ?, ?, TRUE, ?, NOW(), NOW())", publicId, status, platformCode, testDevice);
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.cameracloud.service;
+
+import com.example.cameracloud.entity.ImportJob;
+import com.example.cameracloud.entity.Platform;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class ExcelImportServiceTest {
+    
+    private PlatformService platformService;
+    private CameraBatchWriter cameraBatchWriter;
+    private CameraBatchWriter.Batch batch;
+    private ExcelImportService importService;
+    
+    @BeforeEach
+    void setUp() {
+        platformService = mock(PlatformService.class);
+        cameraBatchWriter = mock(CameraBatchWriter.class);
+        batch = mock(CameraBatchWriter.Batch.class);
+        when(cameraBatchWriter.begin(any())).thenReturn(batch);
+        when(platformService.loadCatalog()).thenReturn(PlatformCatalog.of(List.of(
+            new Platform("hikvision", "Hikvision"), new Platform("dahua", "Dahua"))));
+        importService = new ExcelImportService(platformService, cameraBatchWriter);
+    }
+    
+    @Test
+    void testProcessCsvFile_ResolvesPlatformsFromOneSnapshot() throws Exception {
+        // Given
+        String csv = """
+            camera_id,platform_code,model,status
+            CAMERA_001,hikvision,Model A,ACTIVE
+            CAMERA_002,dahua,Model B,
+            CAMERA_003,unknown,Model C,ACTIVE
+            CAMERA_004,hikvision,Model D,DISABLED
+            """;
+        MockMultipartFile file = new MockMultipartFile("file", "cameras.csv", "text/csv",
+            csv.getBytes(StandardCharsets.UTF_8));
+        
+        // When
+        ExcelImportService.ImportResult result = importService.processCsvFile(new ImportJob(), file);
+        
+        // Then
+        verify(platformService, times(1)).loadCatalog();
+        verify(platformService, never()).findByCode(anyString());
+        verify(batch, times(3)).add(any());
+        assertEquals(4, result.totalRows());
+        assertEquals(1, result.failedCount());
+        assertEquals(1, result.errors().size());
+        assertEquals(4, result.errors().get(0).getRowNo());
+        assertEquals("Platform not found: unknown", result.errors().get(0).getErrorMessage());
+    }
+}
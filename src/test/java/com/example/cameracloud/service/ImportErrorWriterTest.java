@@ -0,0 +1,116 @@
+package com.example.cameracloud.service;
+
+import com.example.cameracloud.entity.ImportJobError;
+import com.example.cameracloud.repository.ImportJobErrorRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ImportErrorWriterTest {
+    
+    @Autowired
+    private DataSource dataSource;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private ImportJobErrorRepository importJobErrorRepository;
+    
+    private JdbcTemplate jdbcTemplate;
+    private ImportErrorWriter writer;
+    private UUID jobId;
+    
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        writer = new ImportErrorWriter(jdbcTemplate, transactionManager, 3);
+        UUID userId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO users (id, email, role, created_at, updated_at) VALUES (?, 'admin@example.com', 'MAIN_ADMIN', NOW(), NOW())", userId);
+        jobId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO import_jobs (id, uploader_user_id, status, created_at, updated_at) VALUES (?, ?, 'PROCESSING', NOW(), NOW())", jobId, userId);
+    }
+    
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM import_job_errors");
+        jdbcTemplate.update("DELETE FROM import_jobs");
+        jdbcTemplate.update("DELETE FROM users");
+    }
+    
+    @Test
+    void testBuffer_WritesFullBatchesAndHoldsTheRest() {
+        // Given
+        ImportErrorWriter.Buffer buffer = writer.begin(jobId);
+        
+        // When
+        for (int row = 2; row <= 8; row++) {
+            buffer.add(row, "CAM_" + row, "bad row " + row);
+        }
+        
+        // Then
+        assertEquals(7, buffer.getCount());
+        assertEquals(6, countErrors());
+        buffer.flush();
+        assertEquals(7, countErrors());
+    }
+    
+    @Test
+    void testDiscardAfter_RemovesErrorsPastTheCheckpoint() {
+        // Given
+        ImportErrorWriter.Buffer buffer = writer.begin(jobId);
+        for (int row = 2; row <= 6; row++) {
+            buffer.add(row, "CAM_" + row, "bad row " + row);
+        }
+        buffer.flush();
+        
+        // When
+        int discarded = writer.discardAfter(jobId, 4);
+        
+        // Then
+        assertEquals(2, discarded);
+        assertEquals(List.of(2, 3, 4), jdbcTemplate.queryForList(
+            "SELECT row_no FROM import_job_errors ORDER BY row_no", Integer.class));
+    }
+    
+    @Test
+    void testFindByJobIdAndIdGreaterThan_PagesByKeyset() {
+        // Given
+        ImportErrorWriter.Buffer buffer = writer.begin(jobId);
+        for (int row = 2; row <= 6; row++) {
+            buffer.add(row, "CAM_" + row, "bad row " + row);
+        }
+        buffer.flush();
+        
+        // When
+        List<ImportJobError> first = importJobErrorRepository.findByJobIdAndIdGreaterThanOrderByIdAsc(jobId, 0L, Limit.of(2));
+        List<ImportJobError> second = importJobErrorRepository.findByJobIdAndIdGreaterThanOrderByIdAsc(
+            jobId, first.get(1).getId(), Limit.of(2));
+        
+        // Then
+        assertEquals(List.of(2, 3), first.stream().map(ImportJobError::getRowNo).toList());
+        assertEquals(List.of(4, 5), second.stream().map(ImportJobError::getRowNo).toList());
+        assertEquals("bad row 4", second.get(0).getErrorMessage());
+    }
+    
+    private int countErrors() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM import_job_errors WHERE job_id = ?", Integer.class, jobId);
+    }
+}
@@ -0,0 +1,186 @@
+package com.example.cameracloud.service;
+
+import com.example.cameracloud.repository.ImportJobRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ImportJobDispatcherTest {
+    
+    private static final UUID ALICE = UUID.randomUUID();
+    private static final UUID BOB = UUID.randomUUID();
+    
+    @TempDir
+    Path spoolDirectory;
+    
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final Set<UUID> started = ConcurrentHashMap.newKeySet();
+    private ImportJobRepository repository;
+    private ImportService importService;
+    private ImportSpool importSpool;
+    private SimpleMeterRegistry meterRegistry;
+    private ImportJobDispatcher dispatcher;
+    
+    @BeforeEach
+    void setUp() {
+        repository = mock(ImportJobRepository.class);
+        importService = mock(ImportService.class);
+        importSpool = new ImportSpool(spoolDirectory, DataSize.ofMegabytes(1), "node-1");
+        meterRegistry = new SimpleMeterRegistry();
+        // Every job leaves the queued state and blocks until the test releases it
+        doAnswer(invocation -> {
+            started.add(invocation.getArgument(0));
+            return release.await(5, TimeUnit.SECONDS);
+        }).when(importService).processImportJob(any());
+    }
+    
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        dispatcher.shutdown();
+    }
+    
+    @Test
+    void testDispatch_LimitsConcurrentJobsPerUploader() {
+        // Given
+        dispatcher = new ImportJobDispatcher(repository, importService, importSpool, 4, 4, 1, 60, meterRegistry);
+        UUID first = UUID.randomUUID();
+        
+        // When
+        boolean aliceFirst = dispatcher.dispatch(first, ALICE);
+        boolean aliceAgain = dispatcher.dispatch(first, ALICE);
+        boolean aliceSecond = dispatcher.dispatch(UUID.randomUUID(), ALICE);
+        boolean bobFirst = dispatcher.dispatch(UUID.randomUUID(), BOB);
+        
+        // Then
+        assertTrue(aliceFirst);
+        assertTrue(aliceAgain, "A job already on the pool is not submitted twice");
+        assertFalse(aliceSecond, "Alice is at her limit");
+        assertTrue(bobFirst);
+        verify(importService, timeout(1000).times(2)).processImportJob(any());
+        verify(importService, times(1)).processImportJob(first);
+    }
+    
+    @Test
+    void testDispatch_LeavesJobQueuedWhenExecutorIsFullAndRunsItLater() throws IOException {
+        // Given
+        dispatcher = new ImportJobDispatcher(repository, importService, importSpool, 1, 1, 5, 60, meterRegistry);
+        UUID running = UUID.randomUUID();
+        UUID waiting = UUID.randomUUID();
+        UUID overflow = UUID.randomUUID();
+        assertTrue(dispatcher.dispatch(running, ALICE));
+        assertTrue(dispatcher.dispatch(waiting, ALICE));
+        
+        // When
+        boolean accepted = dispatcher.dispatch(overflow, ALICE);
+        
+        // Then
+        assertFalse(accepted);
+        verify(importService, timeout(1000)).processImportJob(running);
+        assertEquals(1.0, meterRegistry.get("executor.active").tag("name", "import").gauge().value());
+        assertEquals(1.0, meterRegistry.get("executor.queued").tag("name", "import").gauge().value());
+        
+        // When the running jobs finish, the queued job is picked up from the database
+        Path spoolFile = Files.createFile(spoolDirectory.resolve(overflow + ".csv"));
+        when(repository.findQueuedJobs("node-1")).thenAnswer(invocation ->
+            started.contains(overflow) ? List.of() : List.of(queuedJob(overflow, ALICE, spoolFile)));
+        release.countDown();
+        
+        // Then
+        verify(importService, timeout(2000)).processImportJob(overflow);
+    }
+    
+    @Test
+    void testDispatchQueued_SkipsJobsWithoutLocalSpoolFile() {
+        // Given
+        dispatcher = new ImportJobDispatcher(repository, importService, importSpool, 1, 1, 5, 60, meterRegistry);
+        UUID elsewhere = UUID.randomUUID();
+        when(repository.findQueuedJobs("node-1")).thenReturn(List.of(
+            queuedJob(elsewhere, ALICE, spoolDirectory.resolve("missing.csv"))));
+        
+        // When
+        dispatcher.dispatchQueued();
+        
+        // Then
+        verify(importService, after(200).never()).processImportJob(any());
+    }
+    
+    @Test
+    void testSweep_RenewsLeasesOfOwnJobs() {
+        // When
+        dispatcher = new ImportJobDispatcher(repository, importService, importSpool, 1, 1, 1, 1, meterRegistry);
+        
+        // Then
+        verify(repository, timeout(2000)).renewLeases(eq("node-1"), any());
+        verify(repository, timeout(2000)).findQueuedJobs("node-1");
+    }
+    
+    @Test
+    void testContextClose_InterruptsRunningJobs() throws InterruptedException {
+        // Given
+        UUID running = UUID.randomUUID();
+        CountDownLatch interrupted = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            try {
+                new CountDownLatch(1).await();
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+            return null;
+        }).when(importService).processImportJob(running);
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        context.registerBean(ImportJobDispatcher.class,
+            () -> new ImportJobDispatcher(repository, importService, importSpool, 1, 1, 1, 60, meterRegistry));
+        context.refresh();
+        dispatcher = context.getBean(ImportJobDispatcher.class);
+        dispatcher.dispatch(running, ALICE);
+        verify(importService, timeout(1000)).processImportJob(running);
+        
+        // When
+        context.close();
+        
+        // Then
+        assertTrue(interrupted.await(0, TimeUnit.SECONDS), "Closing the context interrupts running jobs");
+        assertTrue(Thread.getAllStackTraces().keySet().stream()
+            .filter(thread -> thread.getName().startsWith("import-"))
+            .allMatch(Thread::isDaemon));
+    }
+    
+    private static ImportJobRepository.QueuedJob queuedJob(UUID id, UUID uploaderId, Path spoolFile) {
+        return new ImportJobRepository.QueuedJob() {
+            @Override
+            public UUID getId() {
+                return id;
+            }
+            
+            @Override
+            public UUID getUploaderId() {
+                return uploaderId;
+            }
+            
+            @Override
+            public String getSpoolPath() {
+                return spoolFile.toString();
+            }
+        };
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.cameracloud.service;
+
+import com.example.cameracloud.entity.ImportJob;
+import com.example.cameracloud.repository.ImportJobRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ImportJobRecoveryTest {
+    
+    private static final String NODE = "node-1";
+    private static final long LEASE_SECONDS = 120;
+    
+    @TempDir
+    Path spoolDirectory;
+    
+    private ImportJobRepository repository;
+    private ImportJobDispatcher dispatcher;
+    private ImportJobRecovery recovery;
+    
+    @BeforeEach
+    void setUp() {
+        repository = mock(ImportJobRepository.class);
+        dispatcher = mock(ImportJobDispatcher.class);
+        recovery = new ImportJobRecovery(repository, dispatcher,
+            new ImportSpool(spoolDirectory, DataSize.ofMegabytes(1), NODE), LEASE_SECONDS);
+    }
+    
+    @Test
+    void testResumeInterruptedJobs_RequeuesJobsWithSpoolFile() throws IOException {
+        // Given
+        ImportJob job = job(ImportJob.ImportJobStatus.PROCESSING, Files.createFile(spoolDirectory.resolve("job.csv")), NODE);
+        when(repository.findByStatusIn(any())).thenReturn(List.of(job));
+        
+        // When
+        recovery.resumeInterruptedJobs();
+        
+        // Then
+        verify(repository).save(job);
+        verify(dispatcher).dispatchQueued();
+        assertEquals(ImportJob.ImportJobStatus.QUEUED, job.getStatus());
+        assertEquals(1001, job.getCommittedRow());
+        verify(repository, never()).takeOver(any(), any(), any(), any());
+    }
+    
+    @Test
+    void testResumeInterruptedJobs_FailsJobsWithoutSpoolFile() {
+        // Given
+        ImportJob job = job(ImportJob.ImportJobStatus.QUEUED, spoolDirectory.resolve("missing.xlsx"), NODE);
+        when(repository.findByStatusIn(any())).thenReturn(List.of(job));
+        
+        // When
+        recovery.resumeInterruptedJobs();
+        
+        // Then
+        verify(dispatcher).dispatchQueued();
+        verify(repository).save(job);
+        assertEquals(ImportJob.ImportJobStatus.FAILED, job.getStatus());
+    }
+    
+    @Test
+    void testResumeInterruptedJobs_LeavesJobsOfLiveNodesAlone() {
+        // Given
+        ImportJob job = job(ImportJob.ImportJobStatus.PROCESSING, spoolDirectory.resolve("elsewhere.csv"), "node-2");
+        job.setLeaseRenewedAt(OffsetDateTime.now().minusSeconds(10));
+        when(repository.findByStatusIn(any())).thenReturn(List.of(job));
+        
+        // When
+        recovery.resumeInterruptedJobs();
+        
+        // Then
+        verify(repository, never()).takeOver(any(), any(), any(), any());
+        verify(repository, never()).save(any());
+        assertEquals(ImportJob.ImportJobStatus.PROCESSING, job.getStatus());
+        assertEquals("node-2", job.getOwnerNode());
+    }
+    
+    @Test
+    void testResumeInterruptedJobs_TakesOverJobsWithExpiredLease() throws IOException {
+        // Given
+        ImportJob job = job(ImportJob.ImportJobStatus.PROCESSING, Files.createFile(spoolDirectory.resolve("shared.csv")), "node-2");
+        job.setLeaseRenewedAt(OffsetDateTime.now().minusSeconds(LEASE_SECONDS + 60));
+        when(repository.findByStatusIn(any())).thenReturn(List.of(job));
+        when(repository.takeOver(eq(job.getId()), eq(NODE), any(), any())).thenReturn(1);
+        
+        // When
+        recovery.resumeInterruptedJobs();
+        
+        // Then
+        verify(repository).save(job);
+        assertEquals(ImportJob.ImportJobStatus.QUEUED, job.getStatus());
+        assertEquals(NODE, job.getOwnerNode());
+    }
+    
+    @Test
+    void testResumeInterruptedJobs_SkipsExpiredJobsAdoptedByAnotherNode() {
+        // Given
+        ImportJob job = job(ImportJob.ImportJobStatus.PROCESSING, spoolDirectory.resolve("elsewhere.csv"), "node-2");
+        when(repository.findByStatusIn(any())).thenReturn(List.of(job));
+        when(repository.takeOver(any(), any(), any(), any())).thenReturn(0);
+        
+        // When
+        recovery.resumeInterruptedJobs();
+        
+        // Then
+        verify(repository, never()).save(any());
+        assertEquals(ImportJob.ImportJobStatus.PROCESSING, job.getStatus());
+    }
+    
+    private static ImportJob job(ImportJob.ImportJobStatus status, Path spoolFile, String ownerNode) {
+        ImportJob job = new ImportJob();
+        job.setId(UUID.randomUUID());
+        job.setStatus(status);
+        job.setSpoolPath(spoolFile.toString());
+        job.setCommittedRow(1001);
+        job.setOwnerNode(ownerNode);
+        return job;
+    }
+}
@@ -0,0 +1,170 @@
+package com.example.cameracloud.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImportPipelineTest {
+    
+    private SimpleMeterRegistry meterRegistry;
+    private ImportPipeline pipeline;
+    
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        pipeline = new ImportPipeline(4, 2, 7, meterRegistry);
+    }
+    
+    @Test
+    void testRun_KeepsFileOrderAcrossValidators() throws IOException {
+        // Given
+        List<String> written = new ArrayList<>();
+        List<Integer> rejected = new ArrayList<>();
+        
+        // When
+        int total = pipeline.run(
+            sink -> {
+                for (int row = 2; row <= 1001; row++) {
+                    sink.accept(row, "CAM_" + (row % 10), "Model " + row, null, null);
+                }
+                return 1000;
+            },
+            (row, cameraId, model, platformCode, status) -> {
+                // Uneven validation times make chunks finish out of order
+                LockSupport.parkNanos(ThreadLocalRandom.current().nextInt(20_000));
+                if (row % 3 == 0) {
+                    throw new IllegalArgumentException("bad row");
+                }
+                return new CameraBatchWriter.CameraUpsert(row, cameraId, model, null, null);
+            },
+            upsert -> written.add(upsert.rowNumber() + ":" + upsert.model()),
+            (row, cameraId, message) -> rejected.add(row));
+        
+        // Then
+        assertEquals(1000, total);
+        List<String> expectedWritten = new ArrayList<>();
+        List<Integer> expectedRejected = new ArrayList<>();
+        for (int row = 2; row <= 1001; row++) {
+            if (row % 3 == 0) {
+                expectedRejected.add(row);
+            } else {
+                expectedWritten.add(row + ":Model " + row);
+            }
+        }
+        assertEquals(expectedWritten, written);
+        assertEquals(expectedRejected, rejected);
+    }
+    
+    @Test
+    void testRun_SlowChunkBoundsTheReadAhead() throws Exception {
+        // Given - 2 validators, queues of 1, one row per chunk: at most 4 chunks in flight
+        ImportPipeline narrow = new ImportPipeline(2, 1, 1, meterRegistry);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger rowsRead = new AtomicInteger();
+        List<Integer> written = new ArrayList<>();
+        
+        // When - the first chunk is held up in validation
+        ExecutorService importThread = Executors.newSingleThreadExecutor();
+        Future<Integer> total = importThread.submit(() -> narrow.run(
+            sink -> {
+                for (int row = 2; row <= 101; row++) {
+                    rowsRead.incrementAndGet();
+                    sink.accept(row, "CAM_" + row, null, null, null);
+                }
+                return 100;
+            },
+            (row, cameraId, model, platformCode, status) -> {
+                if (row == 2) {
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return new CameraBatchWriter.CameraUpsert(row, cameraId, null, null, null);
+            },
+            upsert -> written.add(upsert.rowNumber()),
+            (row, cameraId, message) -> { }));
+        Thread.sleep(300);
+        
+        // Then - the reader waits for a permit on the fifth chunk instead of reading ahead
+        assertEquals(5, rowsRead.get());
+        release.countDown();
+        assertEquals(100, total.get(5, TimeUnit.SECONDS));
+        assertEquals(IntStream.rangeClosed(2, 101).boxed().toList(), written);
+        importThread.shutdown();
+    }
+    
+    @Test
+    void testRun_RecordsStageMetrics() throws IOException {
+        // When
+        pipeline.run(
+            sink -> {
+                for (int row = 2; row <= 51; row++) {
+                    sink.accept(row, "CAM_" + row, null, null, null);
+                }
+                return 50;
+            },
+            (row, cameraId, model, platformCode, status) ->
+                new CameraBatchWriter.CameraUpsert(row, cameraId, null, null, null),
+            upsert -> { },
+            (row, cameraId, message) -> { });
+        
+        // Then
+        for (String stage : List.of("read", "validate", "write")) {
+            assertEquals(50, meterRegistry.get("camera.import.pipeline.rows").tag("stage", stage).counter().count());
+        }
+        assertEquals(0, meterRegistry.get("camera.import.pipeline.queue.depth").tag("queue", "parsed").gauge().value());
+        assertEquals(0, meterRegistry.get("camera.import.pipeline.queue.depth").tag("queue", "validated").gauge().value());
+    }
+    
+    @Test
+    void testRun_PropagatesReaderFailure() {
+        // When & Then
+        IOException e = assertThrows(IOException.class, () -> pipeline.run(
+            sink -> {
+                for (int row = 2; row <= 100; row++) {
+                    sink.accept(row, "CAM_" + row, null, null, null);
+                }
+                throw new IOException("corrupt file");
+            },
+            (row, cameraId, model, platformCode, status) ->
+                new CameraBatchWriter.CameraUpsert(row, cameraId, null, null, null),
+            upsert -> { },
+            (row, cameraId, message) -> { }));
+        assertEquals("corrupt file", e.getMessage());
+    }
+    
+    @Test
+    void testRun_StopsStagesWhenWriterFails() {
+        // When & Then
+        assertThrows(IllegalStateException.class, () -> pipeline.run(
+            sink -> {
+                for (int row = 2; row <= 100_000; row++) {
+                    sink.accept(row, "CAM_" + row, null, null, null);
+                }
+                return 99_999;
+            },
+            (row, cameraId, model, platformCode, status) ->
+                new CameraBatchWriter.CameraUpsert(row, cameraId, null, null, null),
+            upsert -> {
+                throw new IllegalStateException("database down");
+            },
+            (row, cameraId, message) -> { }));
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.cameracloud.service;
+
+import com.example.cameracloud.repository.ImportJobRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ImportProgressTest {
+    
+    private final AtomicLong clock = new AtomicLong();
+    
+    @Test
+    void testSnapshot_ReportsRateAndEta() {
+        // Given
+        ImportProgress progress = new ImportProgress(0, 0, 0, clock::get);
+        progress.expectRows(1000);
+        
+        // When
+        for (int i = 0; i < 250; i++) {
+            progress.rowRead();
+        }
+        progress.committed(200);
+        progress.rowFailed();
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(5));
+        ImportProgress.Snapshot snapshot = progress.snapshot();
+        
+        // Then
+        assertEquals(250, snapshot.rowsRead());
+        assertEquals(200, snapshot.succeeded());
+        assertEquals(1, snapshot.failed());
+        assertEquals(50.0, snapshot.rowsPerSecond(), 0.001);
+        assertEquals(15L, snapshot.etaSeconds());
+    }
+    
+    @Test
+    void testSnapshot_NoEtaUntilSizeIsKnown() {
+        // Given
+        ImportProgress progress = new ImportProgress(0, 0, 0, clock::get);
+        progress.rowRead();
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        
+        // When & Then
+        assertNull(progress.snapshot().etaSeconds());
+    }
+    
+    @Test
+    void testSnapshot_ResumedJobExcludesSkippedRowsFromRate() {
+        // Given
+        ImportProgress progress = new ImportProgress(100, 90, 10, clock::get);
+        progress.expectRows(300);
+        
+        // When
+        for (int i = 0; i < 200; i++) {
+            progress.rowRead();
+        }
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        ImportProgress.Snapshot snapshot = progress.snapshot();
+        
+        // Then
+        assertEquals(50.0, snapshot.rowsPerSecond(), 0.001);
+        assertEquals(2L, snapshot.etaSeconds());
+        assertEquals(90, snapshot.succeeded());
+        assertEquals(10, snapshot.failed());
+    }
+    
+    @Test
+    void testRegistryFlush_WritesRowsReadOnlyWhenChanged() {
+        // Given
+        ImportJobRepository repository = mock(ImportJobRepository.class);
+        ImportProgressRegistry registry = new ImportProgressRegistry(repository, TimeUnit.HOURS.toMillis(1));
+        UUID jobId = UUID.randomUUID();
+        ImportProgress progress = registry.start(jobId, 0, 0, 0);
+        
+        // When
+        progress.rowRead();
+        registry.flush();
+        registry.flush();
+        progress.rowRead();
+        registry.flush();
+        registry.finish(jobId);
+        registry.flush();
+        registry.shutdown();
+        
+        // Then
+        verify(repository).saveRowsRead(jobId, 1);
+        verify(repository).saveRowsRead(jobId, 2);
+        verifyNoMoreInteractions(repository);
+        assertTrue(registry.get(jobId).isEmpty());
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.cameracloud.service;
+
+import com.example.cameracloud.entity.ImportJob;
+import com.example.cameracloud.entity.User;
+import com.example.cameracloud.repository.ImportJobErrorRepository;
+import com.example.cameracloud.repository.ImportJobRepository;
+import com.example.cameracloud.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InOrder;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionSystemException;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ImportServiceTest {
+    
+    private static final String CSV = "camera_id,model\nCAMERA_001,Model A\n";
+    
+    @TempDir
+    Path spoolDirectory;
+    
+    private ImportJobRepository importJobRepository;
+    private ImportJobErrorRepository importJobErrorRepository;
+    private CameraBatchWriter cameraBatchWriter;
+    private ImportPipeline importPipeline;
+    private ImportProgressRegistry progressRegistry;
+    private ImportErrorWriter importErrorWriter;
+    private PlatformTransactionManager transactionManager;
+    private ApplicationEventPublisher eventPublisher;
+    private AtomicBoolean transactionStarted;
+    private ImportService importService;
+    
+    @BeforeEach
+    void setUp() {
+        UserRepository userRepository = mock(UserRepository.class);
+        User uploader = new User("admin@example.com", "Admin", User.UserRole.MAIN_ADMIN);
+        uploader.setId(UUID.randomUUID());
+        uploader.setUsername("admin");
+        when(userRepository.findByUsername("admin")).thenReturn(Optional.of(uploader));
+        
+        importJobRepository = mock(ImportJobRepository.class);
+        when(importJobRepository.save(any(ImportJob.class))).thenAnswer(invocation -> {
+            ImportJob job = invocation.getArgument(0);
+            job.setId(UUID.randomUUID());
+            return job;
+        });
+        
+        transactionStarted = new AtomicBoolean();
+        transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> {
+            transactionStarted.set(true);
+            return new SimpleTransactionStatus();
+        });
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        importJobErrorRepository = mock(ImportJobErrorRepository.class);
+        cameraBatchWriter = mock(CameraBatchWriter.class);
+        importPipeline = mock(ImportPipeline.class);
+        progressRegistry = mock(ImportProgressRegistry.class);
+        importErrorWriter = mock(ImportErrorWriter.class);
+        
+        importService = new ImportService(mock(PlatformService.class), userRepository, importJobRepository,
+            mock(AuditService.class), cameraBatchWriter, mock(CameraCopyImporter.class),
+            importPipeline, progressRegistry, importErrorWriter,
+            importJobErrorRepository, new ImportSpool(spoolDirectory, DataSize.ofMegabytes(1), "node-1"),
+            eventPublisher, transactionManager, ImportService.ImportMode.BATCH);
+    }
+    
+    @Test
+    void testProcessImportStream_SpoolsUploadBeforeOpeningTransaction() throws IOException {
+        // Given
+        InputStream upload = new ByteArrayInputStream(CSV.getBytes(StandardCharsets.UTF_8)) {
+            @Override
+            public synchronized int read(byte[] b, int off, int len) {
+                assertFalse(transactionStarted.get(), "The upload is read before any transaction starts");
+                return super.read(b, off, len);
+            }
+        };
+        
+        // When
+        UUID jobId = importService.processImportStream("cameras.csv", upload, "admin");
+        
+        // Then
+        assertTrue(transactionStarted.get());
+        assertEquals(CSV, Files.readString(spoolDirectory.resolve(jobId + ".csv")));
+        verify(eventPublisher).publishEvent(any(ImportService.ImportJobQueued.class));
+    }
+    
+    @Test
+    void testProcessImportStream_CommitFailureLeavesNoSpoolFile() throws IOException {
+        // Given
+        doThrow(new TransactionSystemException("commit failed")).when(transactionManager).commit(any());
+        
+        // When & Then
+        assertThrows(TransactionSystemException.class, () -> importService.processImportStream("cameras.csv",
+            new ByteArrayInputStream(CSV.getBytes(StandardCharsets.UTF_8)), "admin"));
+        try (var files = Files.list(spoolDirectory)) {
+            assertEquals(0, files.count());
+        }
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+    
+    @Test
+    void testProcessImportJob_ResumeCarriesOverOnlyErrorsUpToTheCheckpoint() throws IOException {
+        // Given - the checkpoint at row 10 counted 5 failures, 2 of them for rows after it
+        UUID jobId = UUID.randomUUID();
+        ImportJob job = new ImportJob();
+        job.setId(jobId);
+        job.setStatus(ImportJob.ImportJobStatus.PROCESSING);
+        job.setSpoolPath(Files.writeString(spoolDirectory.resolve("job.csv"), CSV).toString());
+        job.setCommittedRow(10);
+        job.setSuccessRows(40);
+        job.setFailedRows(5);
+        when(importJobRepository.claim(jobId)).thenReturn(1);
+        when(importJobRepository.findById(jobId)).thenReturn(Optional.of(job));
+        when(importJobErrorRepository.countByJobId(jobId)).thenReturn(3L);
+        when(cameraBatchWriter.begin(any(), any())).thenReturn(mock(CameraBatchWriter.Batch.class));
+        ImportErrorWriter.Buffer errors = mock(ImportErrorWriter.Buffer.class);
+        when(errors.getCount()).thenReturn(2);
+        when(importErrorWriter.begin(jobId)).thenReturn(errors);
+        when(importPipeline.run(any(), any(), any(), any())).thenReturn(12);
+        
+        // When
+        importService.processImportJob(jobId);
+        
+        // Then - the 2 failures past the checkpoint are counted once, when their rows are read again
+        InOrder order = inOrder(importErrorWriter, importJobErrorRepository);
+        order.verify(importErrorWriter).discardAfter(jobId, 10);
+        order.verify(importJobErrorRepository).countByJobId(jobId);
+        verify(progressRegistry).start(jobId, 10, 40, 3);
+        assertEquals(ImportJob.ImportJobStatus.DONE, job.getStatus());
+        assertEquals(5, job.getFailedRows());
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.cameracloud.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImportSpoolTest {
+    
+    @TempDir
+    Path spoolDirectory;
+    
+    @Test
+    void testReceive_StreamsUploadToSpoolFile() throws IOException {
+        // Given
+        ImportSpool spool = new ImportSpool(spoolDirectory, DataSize.ofMegabytes(1), "node-1");
+        String csv = "camera_id,model\nCAMERA_001,Model A\n";
+        UUID jobId = UUID.randomUUID();
+        
+        // When
+        Path received = spool.receive(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+        Path assigned = spool.assign(received, jobId, ".csv");
+        
+        // Then
+        assertEquals(spoolDirectory.resolve(jobId + ".csv"), assigned);
+        assertEquals(csv, Files.readString(assigned));
+        assertFalse(Files.exists(received));
+    }
+    
+    @Test
+    void testReceive_RejectsUploadOverLimitAndCleansUp() throws IOException {
+        // Given
+        ImportSpool spool = new ImportSpool(spoolDirectory, DataSize.ofMegabytes(1), "node-1");
+        InputStream oversized = new InputStream() {
+            private long remaining = DataSize.ofMegabytes(20).toBytes();
+            
+            @Override
+            public int read() {
+                return remaining-- > 0 ? 'x' : -1;
+            }
+            
+            @Override
+            public int read(byte[] b, int off, int len) {
+                if (remaining <= 0) {
+                    return -1;
+                }
+                int n = (int) Math.min(len, remaining);
+                remaining -= n;
+                return n;
+            }
+        };
+        
+        // When & Then
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> spool.receive(oversized));
+        assertEquals("File size exceeds 1MB limit", e.getMessage());
+        try (var files = Files.list(spoolDirectory)) {
+            assertEquals(0, files.count());
+        }
+    }
+    
+    @Test
+    void testReceive_RejectsEmptyUpload() throws IOException {
+        // Given
+        ImportSpool spool = new ImportSpool(spoolDirectory, DataSize.ofMegabytes(1), "node-1");
+        
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> spool.receive(new ByteArrayInputStream(new byte[0])));
+        try (var files = Files.list(spoolDirectory)) {
+            assertEquals(0, files.count());
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.cameracloud.service;
+
+import com.example.cameracloud.repository.CameraRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class StatisticsServiceTest {
+    
+    @Autowired
+    private DataSource dataSource;
+    
+    @Autowired
+    private CameraRepository cameraRepository;
+    
+    private JdbcTemplate jdbcTemplate;
+    
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update("INSERT INTO platforms (code, name, status, created_at, updated_at) VALUES ('p1', 'Platform 1', 'ACTIVE', NOW(), NOW())");
+        jdbcTemplate.update("INSERT INTO platforms (code, name, status, created_at, updated_at) VALUES ('p2', 'Platform 2', 'ACTIVE', NOW(), NOW())");
+        for (int i = 0; i < 12; i++) {
+            insertCamera(String.format("CAM_%03d", i), i % 4 == 0 ? "p2" : "p1", i % 3 == 0 ? "DISABLED" : "ACTIVE", false, i);
+        }
+        insertCamera("CAM_LOOSE", null, "ACTIVE", false, 20);
+        insertCamera("CAM_TEST", "p1", "ACTIVE", true, 30);
+    }
+    
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM cameras");
+        jdbcTemplate.update("DELETE FROM platforms");
+    }
+    
+    @Test
+    void testGetCameraStatistics_CountsPerStatusAndPlatform() {
+        // Given
+        StatisticsService statisticsService = new StatisticsService(cameraRepository, new SimpleMeterRegistry(), 10);
+        
+        // When
+        StatisticsService.CameraStatistics statistics = statisticsService.getCameraStatistics();
+        
+        // Then
+        assertEquals(new StatisticsService.Counts(13, 9, 4), statistics.overall(), "Test devices are not counted");
+        assertEquals(new StatisticsService.Counts(9, 6, 3), statistics.platform("p1"));
+        assertEquals(new StatisticsService.Counts(3, 2, 1), statistics.platform("p2"));
+        assertEquals(StatisticsService.Counts.EMPTY, statistics.platform("p3"));
+        assertEquals(2, statistics.platforms().size());
+        assertEquals(9.0 / 13 * 100, statistics.overall().uptimePercentage(), 1e-9);
+    }
+    
+    @Test
+    void testGetCameraStatistics_SharesResultUntilExpiry() {
+        // Given
+        StatisticsService cached = new StatisticsService(cameraRepository, new SimpleMeterRegistry(), 10);
+        StatisticsService uncached = new StatisticsService(cameraRepository, new SimpleMeterRegistry(), 0);
+        cached.getCameraStatistics();
+        uncached.getCameraStatistics();
+        
+        // When
+        insertCamera("CAM_NEW", "p2", "ACTIVE", false, 40);
+        
+        // Then
+        assertEquals(13, cached.getCameraStatistics().overall().total());
+        assertEquals(14, uncached.getCameraStatistics().overall().total());
+    }
+    
+    @Test
+    void testFindRecentCameras_ReturnsNewestActiveCameras() {
+        // Given
+        StatisticsService statisticsService = new StatisticsService(cameraRepository, new SimpleMeterRegistry(), 10);
+        
+        // When
+        List<CameraRepository.RecentCamera> recent = statisticsService.findRecentCameras(3);
+        
+        // Then
+        assertEquals(List.of("CAM_LOOSE", "CAM_011", "CAM_010"),
+            recent.stream().map(CameraRepository.RecentCamera::getPublicId).toList());
+        assertEquals("p1", recent.get(1).getTargetPlatformCode());
+    }
+    
+    private void insertCamera(String publicId, String platformCode, String status, boolean testDevice, int minutes) {
+        jdbcTemplate.update("INSERT INTO cameras (id, public_id, model, status, target_platform_code, redirect_enabled, is_test_device, created_at, updated_at) "
+            + "VALUES (RANDOM_UUID(), ?, 'Model', ?, ?, TRUE, ?, NOW(), DATEADD('MINUTE', ?, TIMESTAMP '2024-01-01 00:00:00'))",
+            publicId, status, platformCode, testDevice, minutes);
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.cameracloud.util;
+
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StreamingXlsxReaderTest {
+    
+    @TempDir
+    Path tempDir;
+    
+    @Test
+    void testRead_EmitsRowsWithFormattedValues() throws IOException {
+        // Given
+        Path file = tempDir.resolve("cameras.xlsx");
+        try (XSSFWorkbook workbook = new XSSFWorkbook();
+             OutputStream out = Files.newOutputStream(file)) {
+            Sheet sheet = workbook.createSheet();
+            Row header = sheet.createRow(0);
+            header.createCell(0).setCellValue("camera_id");
+            header.createCell(1).setCellValue("model");
+            Row first = sheet.createRow(1);
+            first.createCell(0).setCellValue("CAMERA_001");
+            first.createCell(1).setCellValue("Model X");
+            first.createCell(3).setCellValue("active");
+            first.createCell(5).setCellValue("ignored");
+            sheet.createRow(2); // blank row
+            Row numeric = sheet.createRow(3);
+            numeric.createCell(0).setCellValue(1234567890123d);
+            workbook.write(out);
+        }
+        List<String> rows = new ArrayList<>();
+        
+        // When
+        StreamingXlsxReader.read(file, 4, (rowNumber, cells) -> rows.add(rowNumber + ":" + Arrays.toString(cells)));
+        
+        // Then
+        assertEquals(List.of(
+            "1:[camera_id, model, null, null]",
+            "2:[CAMERA_001, Model X, null, active]",
+            "4:[1234567890123, null, null, null]"
+        ), rows);
+    }
+    
+    @Test
+    void testRead_ReportsSheetDimension() throws IOException {
+        // Given
+        Path file = tempDir.resolve("cameras.xlsx");
+        try (XSSFWorkbook workbook = new XSSFWorkbook();
+             OutputStream out = Files.newOutputStream(file)) {
+            Sheet sheet = workbook.createSheet();
+            for (int i = 0; i < 250; i++) {
+                sheet.createRow(i).createCell(0).setCellValue("CAMERA_" + i);
+            }
+            workbook.write(out);
+        }
+        List<Integer> dimensions = new ArrayList<>();
+        int[] rows = new int[1];
+        
+        // When
+        StreamingXlsxReader.read(file, 4, new StreamingXlsxReader.RowHandler() {
+            @Override
+            public void handleRow(int rowNumber, String[] cells) {
+                assertEquals(List.of(250), dimensions, "dimension is reported before the first row");
+                rows[0]++;
+            }
+            
+            @Override
+            public void sheetDimension(int lastRowNumber) {
+                dimensions.add(lastRowNumber);
+            }
+        });
+        
+        // Then
+        assertEquals(250, rows[0]);
+    }
+    
+    @Test
+    void testRead_InvalidFile_ThrowsIOException() throws IOException {
+        // Given
+        Path file = tempDir.resolve("broken.xlsx");
+        Files.writeString(file, "not a spreadsheet");
+        
+        // When / Then
+        assertThrows(IOException.class, () -> StreamingXlsxReader.read(file, 4, (rowNumber, cells) -> {}));
+    }
+}
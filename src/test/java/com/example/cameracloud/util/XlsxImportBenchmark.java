@@ -0,0 +1,112 @@
+package com.example.cameracloud.util;
+
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time and peak heap of reading a generated {@code rows}-row camera spreadsheet, streaming versus
+ * loading it as an {@link XSSFWorkbook}. Peak old generation usage, which tracks what the reader
+ * retains rather than short-lived garbage, is reported as the {@code peakOldGenMb} secondary result.
+ * Run the streaming reader with {@code -jvmArgsAppend -Xmx64m} to confirm it needs no more.
+ * {@code mvn -Pbenchmark test-compile exec:exec -Dbenchmark="XlsxImportBenchmark"}
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgs = {"-Xmx4g", "-XX:+UseG1GC"})
+@State(Scope.Benchmark)
+public class XlsxImportBenchmark {
+    
+    @Param({"streaming", "workbook"})
+    public String reader;
+    
+    @Param({"1000000"})
+    public int rows;
+    
+    private Path file;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        file = Files.createTempFile("cameras-", ".xlsx");
+        try (SXSSFWorkbook workbook = new SXSSFWorkbook(1000);
+             OutputStream out = Files.newOutputStream(file)) {
+            Sheet sheet = workbook.createSheet("cameras");
+            Row header = sheet.createRow(0);
+            header.createCell(0).setCellValue("camera_id");
+            header.createCell(1).setCellValue("model");
+            header.createCell(2).setCellValue("platform_code");
+            header.createCell(3).setCellValue("status");
+            for (int i = 1; i <= rows; i++) {
+                Row row = sheet.createRow(i);
+                row.createCell(0).setCellValue("CAMERA_" + i);
+                row.createCell(1).setCellValue("MODEL_" + (i % 50));
+                row.createCell(2).setCellValue("PLATFORM_" + (i % 10));
+                row.createCell(3).setCellValue("active");
+            }
+            workbook.write(out);
+            workbook.dispose();
+        }
+        System.out.printf("%n[%d rows] file size: %d MB%n", rows, Files.size(file) / (1024 * 1024));
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+    
+    @Benchmark
+    public void read(HeapCounters heap, Blackhole blackhole) throws IOException {
+        if ("streaming".equals(reader)) {
+            StreamingXlsxReader.read(file, 4, (rowNumber, cells) -> blackhole.consume(cells[0]));
+        } else {
+            try (InputStream in = Files.newInputStream(file);
+                 Workbook workbook = new XSSFWorkbook(in)) {
+                for (Row row : workbook.getSheetAt(0)) {
+                    blackhole.consume(row.getCell(0).getStringCellValue());
+                }
+            }
+        }
+        heap.sample();
+    }
+    
+    /**
+     * Peak usage of the old generation during the iteration.
+     */
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class HeapCounters {
+        
+        private static final List<MemoryPoolMXBean> OLD_GEN_POOLS = ManagementFactory.getMemoryPoolMXBeans().stream()
+            .filter(pool -> pool.getType() == MemoryType.HEAP && pool.getName().contains("Old Gen"))
+            .toList();
+        
+        public long peakOldGenMb;
+        
+        @Setup(Level.Iteration)
+        public void reset() {
+            System.gc();
+            OLD_GEN_POOLS.forEach(MemoryPoolMXBean::resetPeakUsage);
+        }
+        
+        void sample() {
+            peakOldGenMb = OLD_GEN_POOLS.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum() / (1024 * 1024);
+        }
+    }
+}
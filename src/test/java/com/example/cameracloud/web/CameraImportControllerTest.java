@@ -0,0 +1,87 @@
+package com.example.cameracloud.web;
+
+import com.example.cameracloud.entity.ImportJob;
+import com.example.cameracloud.entity.User;
+import com.example.cameracloud.repository.ImportJobRepository;
+import com.example.cameracloud.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.security.test.context.support.WithUserDetails;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class CameraImportControllerTest {
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private ImportJobRepository importJobRepository;
+    
+    @BeforeEach
+    void setUp() {
+        User admin = new User("admin@example.com", "System Administrator", User.UserRole.MAIN_ADMIN);
+        admin.setUsername("admin");
+        userRepository.save(admin);
+    }
+    
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        // Let the dispatched job finish before its rows are removed
+        for (int i = 0; i < 100 && importJobRepository.findAll().stream().anyMatch(job ->
+                job.getStatus() == ImportJob.ImportJobStatus.QUEUED || job.getStatus() == ImportJob.ImportJobStatus.PROCESSING); i++) {
+            Thread.sleep(50);
+        }
+        jdbcTemplate.update("DELETE FROM import_job_errors");
+        jdbcTemplate.update("DELETE FROM import_jobs");
+        jdbcTemplate.update("DELETE FROM cameras");
+        jdbcTemplate.update("DELETE FROM users");
+    }
+    
+    @Test
+    @WithUserDetails("admin")
+    void testImportCameras_CreatesJobForConfiguredAdmin() throws Exception {
+        // Given
+        MockMultipartFile file = new MockMultipartFile("file", "cameras.csv", "text/csv",
+            "camera_id,model,platform_code,status\nCAM_IMPORT_001,Model A,,ACTIVE\n".getBytes(StandardCharsets.UTF_8));
+        
+        // When
+        String body = mockMvc.perform(multipart("/api/v1/admin/cameras/import").file(file))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        
+        // Then
+        UUID jobId = objectMapper.readValue(body, CameraImportController.ImportJobResponse.class).jobId();
+        assertNotNull(jobId);
+        UUID uploaderId = jdbcTemplate.queryForObject("SELECT uploader_user_id FROM import_jobs WHERE id = ?", UUID.class, jobId);
+        assertEquals(userRepository.findByUsername("admin").orElseThrow().getId(), uploaderId);
+        assertNotNull(jdbcTemplate.queryForObject("SELECT owner_node FROM import_jobs WHERE id = ?", String.class, jobId),
+            "The job is owned by the node that spooled it");
+    }
+}
@@ -10,7 +10,13 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.mock.web.MockHttpServletRequest;
 
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
 class ViewControllerTest {
@@ -24,7 +30,7 @@ class ViewControllerTest {
     void setUp() {
         rateLimiter = mock(CameraRateLimiter.class);
         cameraService = mock(CameraService.class);
-        viewController = new ViewController(rateLimiter, cameraService);
+        viewController = new ViewController(rateLimiter, cameraService, 3);
         request = new MockHttpServletRequest();
     }
     
@@ -32,18 +38,18 @@ class ViewControllerTest {
     void testViewCamera_ValidCameraIdAndAllowed_ShouldReturn200() {
         // Given
         String cameraId = "CAMERA_001";
-        Camera camera = new Camera(cameraId);
-        camera.setRedirectEnabled(true);
+        CameraService.CameraViewInfo camera =
+            new CameraService.CameraViewInfo(cameraId, true, Camera.CameraStatus.ACTIVE);
         
-        when(cameraService.findByPublicId(cameraId)).thenReturn(camera);
+        when(cameraService.findViewInfo(cameraId)).thenReturn(camera);
         when(rateLimiter.tryAcquire(cameraId)).thenReturn(true);
         
         // When
-        ResponseEntity<String> response = viewController.viewCamera(cameraId, request);
+        ResponseEntity<byte[]> response = viewController.viewCamera(cameraId, request);
         
         // Then
         assertEquals(HttpStatus.OK, response.getStatusCode());
-        assertTrue(response.getBody().contains(cameraId));
+        assertTrue(body(response).contains(cameraId));
         assertTrue(response.getHeaders().containsKey("Cache-Control"));
         assertTrue(response.getHeaders().containsKey("X-Frame-Options"));
     }
@@ -52,48 +58,85 @@ class ViewControllerTest {
     void testViewCamera_RateLimited_ShouldReturn429() {
         // Given
         String cameraId = "CAMERA_001";
-        Camera camera = new Camera(cameraId);
-        camera.setRedirectEnabled(true);
+        CameraService.CameraViewInfo camera =
+            new CameraService.CameraViewInfo(cameraId, true, Camera.CameraStatus.ACTIVE);
         
-        when(cameraService.findByPublicId(cameraId)).thenReturn(camera);
+        when(cameraService.findViewInfo(cameraId)).thenReturn(camera);
         when(rateLimiter.tryAcquire(cameraId)).thenReturn(false);
         
         // When
-        ResponseEntity<String> response = viewController.viewCamera(cameraId, request);
+        ResponseEntity<byte[]> response = viewController.viewCamera(cameraId, request);
         
         // Then
         assertEquals(HttpStatus.TOO_MANY_REQUESTS, response.getStatusCode());
-        assertTrue(response.getBody().contains("Too Many Requests"));
+        assertTrue(body(response).contains("Too Many Requests"));
     }
     
     @Test
     void testViewCamera_CameraNotFound_ShouldReturn404() {
         // Given
         String cameraId = "NONEXISTENT";
-        when(cameraService.findByPublicId(cameraId)).thenReturn(null);
+        when(cameraService.findViewInfo(cameraId)).thenReturn(null);
         
         // When
-        ResponseEntity<String> response = viewController.viewCamera(cameraId, request);
+        ResponseEntity<byte[]> response = viewController.viewCamera(cameraId, request);
         
         // Then
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
-        assertTrue(response.getBody().contains("Camera not found"));
+        assertTrue(body(response).contains("Camera not found"));
     }
     
     @Test
     void testViewCamera_RedirectDisabled_ShouldReturn403() {
         // Given
         String cameraId = "CAMERA_001";
-        Camera camera = new Camera(cameraId);
-        camera.setRedirectEnabled(false);
+        CameraService.CameraViewInfo camera =
+            new CameraService.CameraViewInfo(cameraId, false, Camera.CameraStatus.ACTIVE);
         
-        when(cameraService.findByPublicId(cameraId)).thenReturn(camera);
+        when(cameraService.findViewInfo(cameraId)).thenReturn(camera);
         
         // When
-        ResponseEntity<String> response = viewController.viewCamera(cameraId, request);
+        ResponseEntity<byte[]> response = viewController.viewCamera(cameraId, request);
         
         // Then
         assertEquals(HttpStatus.FORBIDDEN, response.getStatusCode());
-        assertTrue(response.getBody().contains("Camera stream is currently disabled"));
+        assertTrue(body(response).contains("Camera stream is currently disabled"));
+    }
+    
+    @Test
+    void testViewCameras_MixedBatch_ShouldReturnOutcomePerCamera() {
+        // Given
+        when(cameraService.findViewInfo("CAMERA_001"))
+            .thenReturn(new CameraService.CameraViewInfo("CAMERA_001", true, Camera.CameraStatus.ACTIVE));
+        when(cameraService.findViewInfo("CAMERA_002"))
+            .thenReturn(new CameraService.CameraViewInfo("CAMERA_002", false, Camera.CameraStatus.ACTIVE));
+        when(rateLimiter.tryAcquireAll(List.of("CAMERA_001"))).thenReturn(Map.of("CAMERA_001", false));
+        
+        // When
+        ResponseEntity<Map<String, ViewController.ViewOutcome>> response =
+            viewController.viewCameras(List.of("CAMERA_001", "CAMERA_002", "no spaces!"), request);
+        
+        // Then
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(List.of("CAMERA_001", "CAMERA_002", "no spaces!"), List.copyOf(response.getBody().keySet()));
+        assertEquals(ViewController.ViewOutcome.RATE_LIMIT, response.getBody().get("CAMERA_001"));
+        assertEquals(ViewController.ViewOutcome.DISABLED, response.getBody().get("CAMERA_002"));
+        assertEquals(ViewController.ViewOutcome.INVALID, response.getBody().get("no spaces!"));
+        verify(rateLimiter, never()).tryAcquire(anyString());
+    }
+    
+    @Test
+    void testViewCameras_TooManyIds_ShouldReturn400() {
+        // When
+        ResponseEntity<Map<String, ViewController.ViewOutcome>> response =
+            viewController.viewCameras(List.of("CAMERA_001", "CAMERA_002", "CAMERA_003", "CAMERA_004"), request);
+        
+        // Then
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        verify(rateLimiter, never()).tryAcquireAll(anyList());
+    }
+    
+    private static String body(ResponseEntity<byte[]> response) {
+        return new String(response.getBody(), StandardCharsets.UTF_8);
     }
 }
@@ -0,0 +1,72 @@
+package com.example.cameracloud.web;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the pre-encoded {@link ViewPageRenderer} success page with the previous
+ * String.format + UTF-8 encode implementation. Run with the gc profiler to compare allocation:
+ * {@code mvn -Pbenchmark test-compile exec:exec -Dbenchmark="ViewPageRendering -prof gc"}
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ViewPageRenderingBenchmark {
+    
+    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    
+    private ViewPageRenderer renderer;
+    private String cameraId;
+    
+    @Setup
+    public void setUp() {
+        renderer = new ViewPageRenderer(60);
+        cameraId = "CAMERA_000123";
+    }
+    
+    @Benchmark
+    public byte[] preEncodedSegments() {
+        return renderer.renderSuccess(cameraId);
+    }
+    
+    @Benchmark
+    public byte[] stringFormat() {
+        String html = String.format("""
+            <!DOCTYPE html>
+            <html lang="en">
+            <head>
+                <meta charset="UTF-8">
+                <meta name="viewport" content="width=device-width, initial-scale=1.0">
+                <meta name="robots" content="noindex,nofollow">
+                <title>Camera View - %s</title>
+                <style>
+                    body { font-family: Arial, sans-serif; margin: 40px; background-color: #f5f5f5; }
+                    .container { max-width: 600px; margin: 0 auto; background: white; padding: 30px; border-radius: 8px; box-shadow: 0 2px 10px rgba(0,0,0,0.1); }
+                    .camera-info { background: #e3f2fd; padding: 20px; border-radius: 4px; margin: 20px 0; }
+                    .time { color: #666; font-size: 14px; }
+                    h1 { color: #1976d2; margin-bottom: 20px; }
+                </style>
+            </head>
+            <body>
+                <div class="container">
+                    <h1>📹 Camera Stream</h1>
+                    <div class="camera-info">
+                        <strong>Camera ID:</strong> %s<br>
+                        <strong>Status:</strong> Active<br>
+                        <strong>Server Time:</strong> <span class="time">%s</span>
+                    </div>
+                    <p>Camera stream placeholder - actual streaming implementation would go here.</p>
+                </div>
+            </body>
+            </html>
+            """, cameraId, cameraId, OffsetDateTime.now().format(TIME_FORMATTER));
+        return html.getBytes(StandardCharsets.UTF_8);
+    }
+}